@@ -2,25 +2,45 @@ package app;
 
 import model.Usuario;
 import dao.UsuarioDAO;
+import dao.UsuarioDAOCache;
 import dao.UsuarioDAOImpl;
 import utils.Validaciones;
 import config.DatabaseConnection;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Aplicación de consola para gestionar usuarios en la base de datos
  */
 public class UsuarioApp {
 
+    private static final int TAMANO_PAGINA = 20;
+    // Usuarios buscados por ID que se mantienen en caché y durante cuánto tiempo
+    private static final int TAMANO_CACHE = 1000;
+    private static final long TTL_CACHE_MINUTOS = 5;
+
     private final UsuarioDAO usuarioDAO;
     private final Scanner scanner;
+    // Hilo que carga la página siguiente mientras el usuario lee la actual
+    private final ExecutorService precarga;
 
     public UsuarioApp() {
-        this.usuarioDAO = new UsuarioDAOImpl();
+        this.usuarioDAO = new UsuarioDAOCache(new UsuarioDAOImpl(), TAMANO_CACHE, TTL_CACHE_MINUTOS, TimeUnit.MINUTES);
         this.scanner = new Scanner(System.in);
+        this.precarga = Executors.newSingleThreadExecutor(r -> {
+            Thread hilo = new Thread(r, "precarga-usuarios");
+            hilo.setDaemon(true);
+            return hilo;
+        });
     }
 
     /**
@@ -71,6 +91,9 @@ public class UsuarioApp {
                     eliminarUsuario();
                     break;
                 case 6:
+                    if (usuarioDAO instanceof UsuarioDAOCache) {
+                        System.out.println(((UsuarioDAOCache) usuarioDAO).getCache());
+                    }
                     System.out.println("¡Hasta pronto!");
                     break;
                 default:
@@ -82,20 +105,70 @@ public class UsuarioApp {
     }
 
     /**
-     * Lista todos los usuarios de la base de datos
+     * Lista los usuarios página a página. Mientras se muestra una página, la siguiente
+     * se carga en segundo plano para que el tiempo de espera por página sea constante.
      * @throws SQLException Si ocurre un error en la base de datos
      */
     private void listarUsuarios() throws SQLException {
-        List<Usuario> usuarios = usuarioDAO.getAllUsuarios();
+        List<Usuario> pagina = usuarioDAO.getUsuariosPagina(0, TAMANO_PAGINA);
 
-        if (usuarios.isEmpty()) {
+        if (pagina.isEmpty()) {
             System.out.println("No hay usuarios registrados.");
             return;
         }
 
         System.out.println("\n--- LISTA DE USUARIOS ---");
-        for (Usuario usuario : usuarios) {
-            System.out.println(usuario);
+        int numeroPagina = 1;
+        while (true) {
+            // Solo puede haber más páginas si la actual está completa
+            Future<List<Usuario>> siguiente = null;
+            if (pagina.size() == TAMANO_PAGINA) {
+                int ultimoId = pagina.get(pagina.size() - 1).getId();
+                siguiente = precarga.submit(() -> usuarioDAO.getUsuariosPagina(ultimoId, TAMANO_PAGINA));
+            }
+
+            System.out.println("-- Página " + numeroPagina + " --");
+            for (Usuario usuario : pagina) {
+                System.out.println(usuario);
+            }
+
+            if (siguiente == null) {
+                System.out.println("--- Fin del listado ---");
+                return;
+            }
+
+            System.out.print("Pulse Enter para ver la siguiente página o 'Q' para volver al menú: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("Q")) {
+                siguiente.cancel(true);
+                return;
+            }
+
+            pagina = esperarPagina(siguiente);
+            if (pagina.isEmpty()) {
+                System.out.println("--- Fin del listado ---");
+                return;
+            }
+            numeroPagina++;
+        }
+    }
+
+    /**
+     * Espera a que termine la carga en segundo plano de una página
+     * @param futuro Carga en curso
+     * @return Usuarios de la página
+     * @throws SQLException Si la consulta de la página falló
+     */
+    private List<Usuario> esperarPagina(Future<List<Usuario>> futuro) throws SQLException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Carga de página interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Error al cargar la página: " + e.getCause().getMessage(), e.getCause());
         }
     }
 
@@ -104,9 +177,14 @@ public class UsuarioApp {
      * @throws SQLException Si ocurre un error en la base de datos
      */
     private void buscarUsuarioPorId() throws SQLException {
-        System.out.print("Introduzca el ID del usuario: ");
+        System.out.print("Introduzca el ID del usuario (o varios separados por comas): ");
         String idStr = scanner.nextLine();
 
+        if (idStr.contains(",")) {
+            buscarUsuariosPorIds(idStr.split(","));
+            return;
+        }
+
         if (!Validaciones.validarEdadString(idStr)) {
             System.out.println("Por favor, introduzca un ID válido (número entero positivo).");
             return;
@@ -123,6 +201,34 @@ public class UsuarioApp {
         }
     }
 
+    /**
+     * Busca varios usuarios con una sola consulta en lugar de una por ID
+     * @param idsStr IDs introducidos por el usuario
+     * @throws SQLException Si ocurre un error en la base de datos
+     */
+    private void buscarUsuariosPorIds(String[] idsStr) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        for (String idStr : idsStr) {
+            try {
+                int id = Integer.parseInt(idStr.trim());
+                if (id <= 0) {
+                    throw new NumberFormatException();
+                }
+                ids.add(id);
+            } catch (NumberFormatException e) {
+                System.out.println("ID no válido: " + idStr.trim());
+                return;
+            }
+        }
+
+        Map<Integer, Usuario> usuarios = usuarioDAO.getUsuariosByIds(ids);
+        System.out.println("\n--- USUARIOS ENCONTRADOS: " + usuarios.size() + " ---");
+        for (Integer id : ids) {
+            Usuario usuario = usuarios.get(id);
+            System.out.println(usuario != null ? usuario : "No se encontró ningún usuario con ID " + id);
+        }
+    }
+
     /**
      * Añade un nuevo usuario a la base de datos
      * @throws SQLException Si ocurre un error en la base de datos
@@ -0,0 +1,75 @@
+package benchmark;
+
+import dao.AsyncUsuarioDAO;
+import dao.UsuarioDAO;
+import dao.UsuarioDAOImpl;
+import model.Usuario;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Mide cómo escala el rendimiento de AsyncUsuarioDAO al aumentar el número de operaciones
+ * en paralelo, comparado con llamar al DAO bloqueante en bucle desde un solo hilo.
+ *
+ * Lanza búsquedas por ID de usuarios existentes contra la base de datos configurada
+ * en DatabaseConnection, por lo que la tabla usuarios debe tener datos.
+ *
+ * Uso: AsyncUsuarioDAOBenchmark [operaciones] [paralelismoMaximo]
+ */
+public class AsyncUsuarioDAOBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int operaciones = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int paralelismoMaximo = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+
+        UsuarioDAO dao = new UsuarioDAOImpl();
+        List<Usuario> muestra = dao.getUsuariosPagina(0, 1000);
+        if (muestra.isEmpty()) {
+            System.err.println("La tabla usuarios está vacía: no hay IDs que buscar.");
+            return;
+        }
+        int[] ids = new int[operaciones];
+        Random random = new Random(42);
+        for (int i = 0; i < operaciones; i++) {
+            ids[i] = muestra.get(random.nextInt(muestra.size())).getId();
+        }
+
+        // Calentamiento para que la JIT y el servidor no penalicen la primera medida
+        for (int i = 0; i < Math.min(200, operaciones); i++) {
+            dao.getUsuarioById(ids[i]);
+        }
+
+        long inicio = System.nanoTime();
+        for (int id : ids) {
+            dao.getUsuarioById(id);
+        }
+        double base = imprimir("Bloqueante, 1 hilo", operaciones, System.nanoTime() - inicio, 0);
+
+        for (int paralelismo = 1; paralelismo <= paralelismoMaximo; paralelismo *= 2) {
+            try (AsyncUsuarioDAO asincrono = new AsyncUsuarioDAO(dao, paralelismo)) {
+                inicio = System.nanoTime();
+                List<CompletableFuture<Usuario>> futuros = new ArrayList<>(operaciones);
+                for (int id : ids) {
+                    futuros.add(asincrono.getUsuarioById(id));
+                }
+                CompletableFuture.allOf(futuros.toArray(new CompletableFuture<?>[0])).join();
+                String etiqueta = String.format("Asíncrono, paralelismo %2d%s", paralelismo,
+                        asincrono.usaHilosVirtuales() ? " (virtuales)" : "");
+                imprimir(etiqueta, operaciones, System.nanoTime() - inicio, base);
+            }
+        }
+    }
+
+    private static double imprimir(String etiqueta, int operaciones, long nanos, double base) {
+        double porSegundo = operaciones / (nanos / 1_000_000_000.0);
+        if (base > 0) {
+            System.out.printf("%-36s %10.0f op/s  (x%.2f)%n", etiqueta, porSegundo, porSegundo / base);
+        } else {
+            System.out.printf("%-36s %10.0f op/s%n", etiqueta, porSegundo);
+        }
+        return porSegundo;
+    }
+}
@@ -0,0 +1,77 @@
+package benchmark;
+
+import utils.Validaciones;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Mide lo que cuesta validar los campos de un alta (nombre, email y edad) con
+ * {@link Validaciones}: tiempo y bytes reservados por alta (ThreadMXBean de HotSpot),
+ * tras un calentamiento. Se usan los métodos que devuelven un ErrorValidacion, que no
+ * crean objetos ni siquiera para los campos inválidos.
+ *
+ * Termina con código 1 si la validación reserva memoria por alta.
+ *
+ * Uso: ValidacionesBenchmark [altas] [repeticiones]
+ */
+public class ValidacionesBenchmark {
+
+    // Por debajo de esto, lo medido es el propio ThreadMXBean y no la validación
+    private static final double BYTES_POR_ALTA_TOLERADOS = 0.01;
+
+    public static void main(String[] args) {
+        int altas = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        // Mezcla de campos válidos e inválidos por cada uno de los motivos
+        String[] nombres = {"Ana García", "José Ñúñez-Peña", "O'Connor", "A", "  ", "Nombre con 3 números",
+                "Un nombre de persona que es bastante más largo de lo que se permite"};
+        String[] emails = {"ana@ejemplo.com", "jose.nunez+tag@correo.es", "sin-arroba.com", "", "dos@@arrobas.com"};
+        String[] edades = {"35", "0", "120", "-3", "150", "treinta", "", "99999999999"};
+
+        String[][] campos = new String[altas][];
+        for (int i = 0; i < altas; i++) {
+            campos[i] = new String[]{nombres[i % nombres.length], emails[i % emails.length], edades[i % edades.length]};
+        }
+
+        System.out.println("=== BENCHMARK VALIDACIONES (" + altas + " altas, " + repeticiones + " repeticiones) ===");
+
+        // Calentamiento de la JIT
+        medir(campos, repeticiones, false);
+        double bytesPorAlta = medir(campos, repeticiones, true);
+
+        if (bytesPorAlta > BYTES_POR_ALTA_TOLERADOS) {
+            System.err.printf("La validación reserva %.2f bytes por alta%n", bytesPorAlta);
+            System.exit(1);
+        }
+        System.out.println("La validación no reserva memoria por alta");
+    }
+
+    private static double medir(String[][] campos, int repeticiones, boolean mostrar) {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().getId();
+        long invalidos = 0;
+
+        long bytesInicio = hilos.getThreadAllocatedBytes(hilo);
+        long inicio = System.nanoTime();
+        for (int r = 0; r < repeticiones; r++) {
+            for (String[] alta : campos) {
+                if (Validaciones.comprobarNombre(alta[0]) != null
+                        || Validaciones.comprobarEmail(alta[1]) != null
+                        || Validaciones.comprobarEdad(alta[2]) != null) {
+                    invalidos++;
+                }
+            }
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = hilos.getThreadAllocatedBytes(hilo) - bytesInicio;
+
+        long validaciones = (long) campos.length * repeticiones;
+        double bytesPorAlta = (double) bytes / validaciones;
+        if (mostrar) {
+            System.out.printf("%8.1f ns/alta  %8.2f bytes/alta  (inválidas %d)%n",
+                    (double) nanos / validaciones, bytesPorAlta, invalidos / repeticiones);
+        }
+        return bytesPorAlta;
+    }
+}
@@ -5,7 +5,9 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
-    private static final String JDBC_URL = "jdbc:mysql://localhost:3306/jdbcdemo";
+    // useCursorFetch permite leer por bloques con cursor en el servidor (ver UsuarioDAO.streamUsuarios)
+    // rewriteBatchedStatements convierte los lotes de INSERT en sentencias multi-fila
+    private static final String JDBC_URL = "jdbc:mysql://localhost:3306/jdbcdemo?useCursorFetch=true&rewriteBatchedStatements=true";
     private static final String JDBC_USER = "root";
     private static final String JDBC_PASSWORD = "password"; // Cambia la contraseña según tu configuración
 
@@ -0,0 +1,189 @@
+package dao;
+
+import model.Usuario;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Versión asíncrona de UsuarioDAO: cada operación se ejecuta en un ejecutor propio
+ * y devuelve un CompletableFuture, de modo que quien llama no se bloquea y puede lanzar
+ * varias operaciones en paralelo.
+ *
+ * Como mucho se ejecutan a la vez tantas operaciones como indique el paralelismo, para no
+ * abrir más conexiones de las que admite la base de datos; el resto esperan en cola.
+ * Si la JVM tiene hilos virtuales (Java 21+) se usa un hilo virtual por operación,
+ * y si no, un pool fijo de hilos.
+ *
+ * Cancelar el futuro devuelto quita la operación de la cola si aún no ha empezado. Si ya está
+ * en marcha se cancela en el servidor la sentencia que está ejecutando (Statement.cancel()),
+ * siempre que el DAO registre sus sentencias en {@link CancelacionOperacion} como hace
+ * UsuarioDAOImpl, y se interrumpe el hilo. La operación termina entonces con error y libera su
+ * conexión y su hueco; con un DAO que no registra sus sentencias, la consulta en marcha sigue
+ * hasta el final y solo el futuro queda cancelado.
+ */
+public class AsyncUsuarioDAO implements AutoCloseable {
+
+    /** Operaciones simultáneas por defecto, igual al tamaño máximo por defecto del pool de conexiones */
+    public static final int PARALELISMO_POR_DEFECTO = 10;
+
+    private static final AtomicInteger CONTADOR_HILOS = new AtomicInteger();
+
+    /**
+     * Operación del DAO que se ejecuta en el ejecutor
+     */
+    @FunctionalInterface
+    private interface OperacionDAO<T> {
+        T ejecutar() throws SQLException;
+    }
+
+    private final UsuarioDAO delegado;
+    private final ExecutorService ejecutor;
+    private final Semaphore permisos;
+    private final boolean hilosVirtuales;
+
+    public AsyncUsuarioDAO(UsuarioDAO delegado) {
+        this(delegado, PARALELISMO_POR_DEFECTO);
+    }
+
+    /**
+     * @param delegado DAO bloqueante que hace el trabajo
+     * @param paralelismo Máximo de operaciones ejecutándose a la vez
+     */
+    public AsyncUsuarioDAO(UsuarioDAO delegado, int paralelismo) {
+        if (paralelismo <= 0) {
+            throw new IllegalArgumentException("El paralelismo debe ser mayor que cero: " + paralelismo);
+        }
+        this.delegado = delegado;
+        this.permisos = new Semaphore(paralelismo, true);
+
+        ExecutorService virtual = crearEjecutorVirtual();
+        this.hilosVirtuales = virtual != null;
+        this.ejecutor = hilosVirtuales ? virtual : Executors.newFixedThreadPool(paralelismo, r -> {
+            Thread hilo = new Thread(r, "usuario-dao-async-" + CONTADOR_HILOS.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() solo existe desde Java 21; se busca por reflexión
+    // para que el proyecto siga compilando con Java 8
+    private static ExecutorService crearEjecutorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true si las operaciones se ejecutan en hilos virtuales
+     */
+    public boolean usaHilosVirtuales() {
+        return hilosVirtuales;
+    }
+
+    public CompletableFuture<List<Usuario>> getAllUsuarios() {
+        return ejecutar(delegado::getAllUsuarios);
+    }
+
+    public CompletableFuture<List<Usuario>> getUsuariosPagina(int ultimoId, int tamanoPagina) {
+        return ejecutar(() -> delegado.getUsuariosPagina(ultimoId, tamanoPagina));
+    }
+
+    public CompletableFuture<Usuario> getUsuarioById(int id) {
+        return ejecutar(() -> delegado.getUsuarioById(id));
+    }
+
+    public CompletableFuture<Map<Integer, Usuario>> getUsuariosByIds(Collection<Integer> ids) {
+        return ejecutar(() -> delegado.getUsuariosByIds(ids));
+    }
+
+    public CompletableFuture<Integer> insertUsuario(Usuario usuario) {
+        return ejecutar(() -> delegado.insertUsuario(usuario));
+    }
+
+    public CompletableFuture<ResultadoLote> insertUsuarios(List<Usuario> usuarios, int tamanoLote) {
+        return ejecutar(() -> delegado.insertUsuarios(usuarios, tamanoLote));
+    }
+
+    public CompletableFuture<ResultadoLote> upsertUsuarios(List<Usuario> usuarios, int tamanoLote) {
+        return ejecutar(() -> delegado.upsertUsuarios(usuarios, tamanoLote));
+    }
+
+    public CompletableFuture<Boolean> updateUsuario(Usuario usuario) {
+        return ejecutar(() -> delegado.updateUsuario(usuario));
+    }
+
+    public CompletableFuture<Boolean> deleteUsuario(int id) {
+        return ejecutar(() -> delegado.deleteUsuario(id));
+    }
+
+    private <T> CompletableFuture<T> ejecutar(OperacionDAO<T> operacion) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        CancelacionOperacion cancelacion = new CancelacionOperacion();
+        Future<?> tarea;
+        try {
+            tarea = ejecutor.submit(() -> {
+                // Cancelado mientras esperaba en cola
+                if (resultado.isDone()) {
+                    return;
+                }
+                try {
+                    permisos.acquire();
+                } catch (InterruptedException e) {
+                    resultado.completeExceptionally(e);
+                    return;
+                }
+                cancelacion.activar();
+                try {
+                    resultado.complete(operacion.ejecutar());
+                } catch (SQLException | RuntimeException e) {
+                    resultado.completeExceptionally(e);
+                } finally {
+                    cancelacion.desactivar();
+                    permisos.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            resultado.completeExceptionally(e);
+            return resultado;
+        }
+
+        // CompletableFuture.cancel() no llega a la tarea: se propaga a mano, a la sentencia en curso
+        // (una llamada JDBC bloqueada no atiende la interrupción) y al hilo
+        resultado.whenComplete((valor, error) -> {
+            if (resultado.isCancelled()) {
+                cancelacion.cancelar();
+                tarea.cancel(true);
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Deja de aceptar operaciones y espera a que terminen las que están en marcha
+     */
+    @Override
+    public void close() {
+        ejecutor.shutdown();
+        try {
+            if (!ejecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                ejecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ejecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package dao;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Permite cancelar la sentencia que está ejecutando una operación del DAO.
+ *
+ * {@link AsyncUsuarioDAO} activa una cancelación en el hilo mientras dura cada operación, y el
+ * DAO registra con {@link #registrar(Statement)} cada sentencia que crea. Al cancelar se llama a
+ * Statement.cancel() sobre la última sentencia registrada, que corta la consulta en el servidor;
+ * interrumpir el hilo no basta, porque una llamada JDBC esperando en el socket no lo atiende.
+ * Fuera de una operación asíncrona registrar no hace nada.
+ */
+final class CancelacionOperacion {
+
+    private static final ThreadLocal<CancelacionOperacion> ACTUAL = new ThreadLocal<>();
+
+    private Statement sentencia;
+    private boolean cancelada;
+
+    /**
+     * Asocia esta cancelación al hilo actual hasta llamar a {@link #desactivar()}
+     */
+    void activar() {
+        ACTUAL.set(this);
+    }
+
+    void desactivar() {
+        ACTUAL.remove();
+        synchronized (this) {
+            sentencia = null;
+        }
+    }
+
+    /**
+     * Registra la sentencia en la operación en curso del hilo, si la hay
+     * @param sentencia Sentencia recién creada
+     * @return La misma sentencia
+     * @throws SQLException Si la operación ya se canceló
+     */
+    static <S extends Statement> S registrar(S sentencia) throws SQLException {
+        CancelacionOperacion actual = ACTUAL.get();
+        if (actual != null) {
+            synchronized (actual) {
+                if (actual.cancelada) {
+                    throw new SQLException("Operación cancelada");
+                }
+                actual.sentencia = sentencia;
+            }
+        }
+        return sentencia;
+    }
+
+    /**
+     * Marca la operación como cancelada y cancela la sentencia que se está ejecutando
+     */
+    void cancelar() {
+        Statement enCurso;
+        synchronized (this) {
+            cancelada = true;
+            enCurso = sentencia;
+        }
+        if (enCurso == null) {
+            return;
+        }
+        try {
+            enCurso.cancel();
+        } catch (SQLException e) {
+            // La sentencia ya terminó o se cerró
+        }
+    }
+}
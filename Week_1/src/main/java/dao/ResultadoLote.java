@@ -0,0 +1,57 @@
+package dao;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resultado de una inserción o upsert por lotes.
+ * Los IDs están en el mismo orden que la lista de entrada; las filas que fallaron
+ * tienen ID -1 y su error queda registrado por posición.
+ */
+public class ResultadoLote {
+    private final int[] ids;
+    private final Map<Integer, String> errores = new TreeMap<>();
+
+    public ResultadoLote(int totalFilas) {
+        this.ids = new int[totalFilas];
+        Arrays.fill(ids, -1);
+    }
+
+    void registrarId(int posicion, int id) {
+        ids[posicion] = id;
+    }
+
+    void registrarError(int posicion, String mensaje) {
+        ids[posicion] = -1;
+        errores.put(posicion, mensaje);
+    }
+
+    /**
+     * @return IDs generados o actualizados, en el orden de entrada (-1 si la fila falló)
+     */
+    public int[] getIds() {
+        return ids.clone();
+    }
+
+    /**
+     * @return Errores por posición de la fila en la lista de entrada
+     */
+    public Map<Integer, String> getErrores() {
+        return Collections.unmodifiableMap(errores);
+    }
+
+    public int getCorrectos() {
+        return ids.length - errores.size();
+    }
+
+    public boolean hayErrores() {
+        return !errores.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Lote: %d correctos | %d con error", getCorrectos(), errores.size());
+    }
+}
@@ -3,13 +3,22 @@ package dao;
 import model.Usuario;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Interfaz que define las operaciones CRUD para model.Usuario
  */
 public interface UsuarioDAO {
 
+    /** Filas por lote cuando no se indica otro tamaño en las operaciones masivas */
+    int TAMANO_LOTE_POR_DEFECTO = 500;
+
+    /** Máximo de IDs por consulta IN en las búsquedas de varios usuarios */
+    int TAMANO_MAXIMO_IN = 500;
+
     /**
      * Obtiene todos los usuarios de la base de datos
      * @return Lista de objetos model.Usuario
@@ -17,6 +26,26 @@ public interface UsuarioDAO {
      */
     List<Usuario> getAllUsuarios() throws SQLException;
 
+    /**
+     * Recorre todos los usuarios sin cargarlos en memoria, leyendo por bloques con un cursor
+     * en el servidor. El Stream mantiene la conexión abierta: debe cerrarse con try-with-resources.
+     * @param fetchSize Filas por viaje al servidor (0 o negativo: streaming fila a fila de MySQL)
+     * @return Stream de usuarios
+     * @throws SQLException Si ocurre un error al abrir la consulta
+     */
+    Stream<Usuario> streamUsuarios(int fetchSize) throws SQLException;
+
+    /**
+     * Obtiene una página de usuarios ordenados por ID usando paginación por clave (keyset):
+     * WHERE id > ultimoId ORDER BY id LIMIT tamanoPagina. El coste no crece con la profundidad
+     * de la página, a diferencia de OFFSET.
+     * @param ultimoId ID del último usuario de la página anterior (0 para la primera página)
+     * @param tamanoPagina Número máximo de usuarios a devolver
+     * @return Lista de usuarios de la página, vacía si no hay más
+     * @throws SQLException Si ocurre un error en la base de datos
+     */
+    List<Usuario> getUsuariosPagina(int ultimoId, int tamanoPagina) throws SQLException;
+
     /**
      * Obtiene un usuario por su ID
      * @param id El ID del usuario a buscar
@@ -25,6 +54,15 @@ public interface UsuarioDAO {
      */
     Usuario getUsuarioById(int id) throws SQLException;
 
+    /**
+     * Obtiene varios usuarios por ID con una consulta WHERE id IN (...) por cada
+     * bloque de como mucho {@link #TAMANO_MAXIMO_IN} IDs, usando una sola conexión.
+     * @param ids IDs de los usuarios a buscar (los repetidos se buscan una vez)
+     * @return Usuarios encontrados por ID, en el orden de los IDs pedidos; los que no existen no aparecen
+     * @throws SQLException Si ocurre un error en la base de datos
+     */
+    Map<Integer, Usuario> getUsuariosByIds(Collection<Integer> ids) throws SQLException;
+
     /**
      * Inserta un nuevo usuario en la base de datos
      * @param usuario El usuario a insertar (sin ID)
@@ -33,6 +71,47 @@ public interface UsuarioDAO {
      */
     int insertUsuario(Usuario usuario) throws SQLException;
 
+    /**
+     * Inserta muchos usuarios usando lotes JDBC (un viaje al servidor por lote).
+     * Cada lote se confirma por separado; si un lote falla se reintenta fila a fila
+     * y solo las filas erróneas quedan registradas como fallidas.
+     * @param usuarios Usuarios a insertar (sin ID)
+     * @param tamanoLote Número de filas por lote
+     * @return IDs generados en el orden de entrada y errores por fila
+     * @throws SQLException Si no se puede abrir la conexión
+     */
+    ResultadoLote insertUsuarios(List<Usuario> usuarios, int tamanoLote) throws SQLException;
+
+    /**
+     * Inserta usuarios por lotes con el tamaño de lote por defecto
+     * @param usuarios Usuarios a insertar
+     * @return IDs generados en el orden de entrada y errores por fila
+     * @throws SQLException Si no se puede abrir la conexión
+     */
+    default ResultadoLote insertUsuarios(List<Usuario> usuarios) throws SQLException {
+        return insertUsuarios(usuarios, TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * Inserta o actualiza muchos usuarios por lotes. Los usuarios con ID se insertan con ese ID
+     * o se actualizan si ya existe; los usuarios sin ID (0) se insertan como nuevos.
+     * @param usuarios Usuarios a insertar o actualizar
+     * @param tamanoLote Número de filas por lote
+     * @return IDs en el orden de entrada y errores por fila
+     * @throws SQLException Si no se puede abrir la conexión
+     */
+    ResultadoLote upsertUsuarios(List<Usuario> usuarios, int tamanoLote) throws SQLException;
+
+    /**
+     * Inserta o actualiza usuarios por lotes con el tamaño de lote por defecto
+     * @param usuarios Usuarios a insertar o actualizar
+     * @return IDs en el orden de entrada y errores por fila
+     * @throws SQLException Si no se puede abrir la conexión
+     */
+    default ResultadoLote upsertUsuarios(List<Usuario> usuarios) throws SQLException {
+        return upsertUsuarios(usuarios, TAMANO_LOTE_POR_DEFECTO);
+    }
+
     /**
      * Actualiza un usuario existente
      * @param usuario El usuario con los datos actualizados
@@ -0,0 +1,154 @@
+package dao;
+
+import model.Usuario;
+import utils.CacheLRU;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de UsuarioDAO que guarda en caché las búsquedas por ID.
+ *
+ * getUsuarioById consulta primero la caché y solo va a la base de datos si no encuentra
+ * el usuario o ha caducado. Las escrituras hechas a través de este DAO invalidan la entrada
+ * afectada; las hechas por otros procesos se ven, como tarde, al caducar la entrada (TTL).
+ * Se devuelven copias para que modificar el usuario obtenido no altere la caché.
+ */
+public class UsuarioDAOCache implements UsuarioDAO {
+
+    private final UsuarioDAO delegado;
+    private final CacheLRU<Integer, Usuario> cache;
+
+    /**
+     * @param delegado DAO que accede a la base de datos
+     * @param tamanoMaximo Número máximo de usuarios en caché
+     * @param ttl Tiempo de vida de cada usuario en caché
+     * @param unidad Unidad del tiempo de vida
+     */
+    public UsuarioDAOCache(UsuarioDAO delegado, int tamanoMaximo, long ttl, TimeUnit unidad) {
+        this.delegado = delegado;
+        this.cache = new CacheLRU<>(tamanoMaximo, ttl, unidad);
+    }
+
+    /**
+     * @return Caché usada, para consultar sus contadores
+     */
+    public CacheLRU<Integer, Usuario> getCache() {
+        return cache;
+    }
+
+    @Override
+    public Usuario getUsuarioById(int id) throws SQLException {
+        Usuario usuario = cache.obtener(id);
+        if (usuario != null) {
+            return copiar(usuario);
+        }
+
+        long version = cache.version();
+        usuario = delegado.getUsuarioById(id);
+        if (usuario != null) {
+            cache.ponerSiVigente(id, copiar(usuario), version);
+        }
+        return usuario;
+    }
+
+    @Override
+    public Map<Integer, Usuario> getUsuariosByIds(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Usuario> enCache = new LinkedHashMap<>();
+        List<Integer> faltan = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Usuario usuario = cache.obtener(id);
+            if (usuario != null) {
+                enCache.put(id, copiar(usuario));
+            } else {
+                faltan.add(id);
+            }
+        }
+
+        Map<Integer, Usuario> leidos = new LinkedHashMap<>();
+        if (!faltan.isEmpty()) {
+            long version = cache.version();
+            leidos = delegado.getUsuariosByIds(faltan);
+            for (Usuario usuario : leidos.values()) {
+                cache.ponerSiVigente(usuario.getId(), copiar(usuario), version);
+            }
+        }
+
+        // Se respeta el orden de los IDs pedidos
+        Map<Integer, Usuario> encontrados = new LinkedHashMap<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Usuario usuario = enCache.containsKey(id) ? enCache.get(id) : leidos.get(id);
+            if (usuario != null) {
+                encontrados.put(id, usuario);
+            }
+        }
+        return encontrados;
+    }
+
+    @Override
+    public List<Usuario> getAllUsuarios() throws SQLException {
+        return delegado.getAllUsuarios();
+    }
+
+    @Override
+    public Stream<Usuario> streamUsuarios(int fetchSize) throws SQLException {
+        return delegado.streamUsuarios(fetchSize);
+    }
+
+    @Override
+    public List<Usuario> getUsuariosPagina(int ultimoId, int tamanoPagina) throws SQLException {
+        return delegado.getUsuariosPagina(ultimoId, tamanoPagina);
+    }
+
+    @Override
+    public int insertUsuario(Usuario usuario) throws SQLException {
+        return delegado.insertUsuario(usuario);
+    }
+
+    @Override
+    public ResultadoLote insertUsuarios(List<Usuario> usuarios, int tamanoLote) throws SQLException {
+        return delegado.insertUsuarios(usuarios, tamanoLote);
+    }
+
+    @Override
+    public ResultadoLote upsertUsuarios(List<Usuario> usuarios, int tamanoLote) throws SQLException {
+        try {
+            return delegado.upsertUsuarios(usuarios, tamanoLote);
+        } finally {
+            for (Usuario usuario : usuarios) {
+                if (usuario.getId() > 0) {
+                    cache.invalidar(usuario.getId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean updateUsuario(Usuario usuario) throws SQLException {
+        try {
+            return delegado.updateUsuario(usuario);
+        } finally {
+            cache.invalidar(usuario.getId());
+        }
+    }
+
+    @Override
+    public boolean deleteUsuario(int id) throws SQLException {
+        try {
+            return delegado.deleteUsuario(id);
+        } finally {
+            cache.invalidar(id);
+        }
+    }
+
+    private static Usuario copiar(Usuario usuario) {
+        return new Usuario(usuario.getId(), usuario.getNombre(), usuario.getEmail(), usuario.getEdad());
+    }
+}
@@ -7,9 +7,23 @@ import java.sql.Connection;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class UsuarioDAOImpl implements UsuarioDAO {
+    private static final String SQL_INSERT = "INSERT INTO usuarios (nombre, email, edad) VALUES (?, ?, ?)";
+    private static final String SQL_UPSERT = "INSERT INTO usuarios (nombre, email, edad, id) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE nombre = VALUES(nombre), email = VALUES(email), edad = VALUES(edad)";
+
     private final DatabaseConnection dbConnection;
 
     public UsuarioDAOImpl() {
@@ -22,7 +36,7 @@ public class UsuarioDAOImpl implements UsuarioDAO {
         String sql = "SELECT id, nombre, email, edad FROM usuarios";
 
         try (Connection conn = dbConnection.getConnection();
-             Statement stmt = conn.createStatement();
+             Statement stmt = CancelacionOperacion.registrar(conn.createStatement());
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
@@ -37,12 +51,99 @@ public class UsuarioDAOImpl implements UsuarioDAO {
         return usuarios;
     }
 
+    @Override
+    public List<Usuario> getUsuariosPagina(int ultimoId, int tamanoPagina) throws SQLException {
+        List<Usuario> usuarios = new ArrayList<>(tamanoPagina);
+        String sql = "SELECT id, nombre, email, edad FROM usuarios WHERE id > ? ORDER BY id LIMIT ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = CancelacionOperacion.registrar(conn.prepareStatement(sql))) {
+            pstmt.setInt(1, ultimoId);
+            pstmt.setInt(2, tamanoPagina);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    usuarios.add(new Usuario(
+                            rs.getInt("id"),
+                            rs.getString("nombre"),
+                            rs.getString("email"),
+                            rs.getInt("edad")
+                    ));
+                }
+            }
+        }
+        return usuarios;
+    }
+
+    @Override
+    public Stream<Usuario> streamUsuarios(int fetchSize) throws SQLException {
+        String sql = "SELECT id, nombre, email, edad FROM usuarios";
+
+        Connection conn = dbConnection.getConnection();
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = CancelacionOperacion.registrar(conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY));
+            // Positivo: cursor en el servidor (useCursorFetch); MIN_VALUE: streaming fila a fila
+            pstmt.setFetchSize(fetchSize > 0 ? fetchSize : Integer.MIN_VALUE);
+            ResultSet rs = pstmt.executeQuery();
+            return crearStream(conn, pstmt, rs);
+        } catch (SQLException | RuntimeException e) {
+            if (pstmt != null) {
+                pstmt.close();
+            }
+            conn.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Envuelve un ResultSet abierto en un Stream que cierra todos los recursos al cerrarse
+     */
+    private Stream<Usuario> crearStream(Connection conn, PreparedStatement pstmt, ResultSet rs) {
+        Spliterator<Usuario> filas = new Spliterators.AbstractSpliterator<Usuario>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Usuario> accion) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    accion.accept(new Usuario(
+                            rs.getInt("id"),
+                            rs.getString("nombre"),
+                            rs.getString("email"),
+                            rs.getInt("edad")
+                    ));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error al leer usuarios: " + e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(filas, false).onClose(() -> {
+            cerrarSilenciosamente(rs);
+            cerrarSilenciosamente(pstmt);
+            cerrarSilenciosamente(conn);
+        });
+    }
+
+    private static void cerrarSilenciosamente(AutoCloseable recurso) {
+        if (recurso != null) {
+            try {
+                recurso.close();
+            } catch (Exception e) {
+                System.err.println("Error al cerrar el stream de usuarios: " + e.getMessage());
+            }
+        }
+    }
+
     @Override
     public Usuario getUsuarioById(int id) throws SQLException {
         String sql = "SELECT id, nombre, email, edad FROM usuarios WHERE id = ?";
 
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = CancelacionOperacion.registrar(conn.prepareStatement(sql))) {
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
                 return rs.next() ? new Usuario(
@@ -55,11 +156,73 @@ public class UsuarioDAOImpl implements UsuarioDAO {
         }
     }
 
+    @Override
+    public Map<Integer, Usuario> getUsuariosByIds(Collection<Integer> ids) throws SQLException {
+        List<Integer> unicos = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, Usuario> encontrados = new LinkedHashMap<>();
+        if (unicos.isEmpty()) {
+            return encontrados;
+        }
+
+        Map<Integer, Usuario> porId = new LinkedHashMap<>();
+        try (Connection conn = dbConnection.getConnection()) {
+            for (int inicio = 0; inicio < unicos.size(); inicio += TAMANO_MAXIMO_IN) {
+                List<Integer> bloque = unicos.subList(inicio, Math.min(inicio + TAMANO_MAXIMO_IN, unicos.size()));
+                int huecos = huecosIn(bloque.size());
+                String sql = "SELECT id, nombre, email, edad FROM usuarios WHERE id IN (" + marcadores(huecos) + ")";
+
+                try (PreparedStatement pstmt = CancelacionOperacion.registrar(conn.prepareStatement(sql))) {
+                    // Los huecos sobrantes repiten el último ID: no cambia el resultado
+                    for (int i = 0; i < huecos; i++) {
+                        pstmt.setInt(i + 1, bloque.get(Math.min(i, bloque.size() - 1)));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            Usuario usuario = new Usuario(
+                                    rs.getInt("id"),
+                                    rs.getString("nombre"),
+                                    rs.getString("email"),
+                                    rs.getInt("edad")
+                            );
+                            porId.put(usuario.getId(), usuario);
+                        }
+                    }
+                }
+            }
+        }
+
+        for (Integer id : unicos) {
+            Usuario usuario = porId.get(id);
+            if (usuario != null) {
+                encontrados.put(id, usuario);
+            }
+        }
+        return encontrados;
+    }
+
+    // Redondea el número de IDs a la siguiente potencia de dos (mínimo 8) para que solo
+    // haya unas pocas formas distintas de la consulta IN y el servidor pueda reutilizarlas
+    private static int huecosIn(int totalIds) {
+        int huecos = 8;
+        while (huecos < totalIds) {
+            huecos <<= 1;
+        }
+        return Math.min(huecos, Math.max(totalIds, TAMANO_MAXIMO_IN));
+    }
+
+    private static String marcadores(int total) {
+        StringBuilder sb = new StringBuilder(total * 2);
+        for (int i = 0; i < total; i++) {
+            sb.append(i == 0 ? "?" : ",?");
+        }
+        return sb.toString();
+    }
+
     @Override
     public int insertUsuario(Usuario usuario) throws SQLException {
         String sql = "INSERT INTO usuarios (nombre, email, edad) VALUES (?, ?, ?)";
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = CancelacionOperacion.registrar(conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS))) {
 
             pstmt.setString(1, usuario.getNombre());
             pstmt.setString(2, usuario.getEmail());
@@ -72,12 +235,127 @@ public class UsuarioDAOImpl implements UsuarioDAO {
         }
     }
 
+    @Override
+    public ResultadoLote insertUsuarios(List<Usuario> usuarios, int tamanoLote) throws SQLException {
+        validarTamanoLote(tamanoLote);
+        ResultadoLote resultado = new ResultadoLote(usuarios.size());
+
+        List<Integer> posiciones = new ArrayList<>(usuarios.size());
+        for (int i = 0; i < usuarios.size(); i++) {
+            posiciones.add(i);
+        }
+        ejecutarEnLotes(SQL_INSERT, usuarios, posiciones, tamanoLote, false, resultado);
+        return resultado;
+    }
+
+    @Override
+    public ResultadoLote upsertUsuarios(List<Usuario> usuarios, int tamanoLote) throws SQLException {
+        validarTamanoLote(tamanoLote);
+        ResultadoLote resultado = new ResultadoLote(usuarios.size());
+
+        // Los usuarios sin ID son altas normales; los que tienen ID se insertan o actualizan
+        List<Integer> nuevos = new ArrayList<>();
+        List<Integer> conId = new ArrayList<>();
+        for (int i = 0; i < usuarios.size(); i++) {
+            (usuarios.get(i).getId() > 0 ? conId : nuevos).add(i);
+        }
+        ejecutarEnLotes(SQL_INSERT, usuarios, nuevos, tamanoLote, false, resultado);
+        ejecutarEnLotes(SQL_UPSERT, usuarios, conId, tamanoLote, true, resultado);
+        return resultado;
+    }
+
+    private void validarTamanoLote(int tamanoLote) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero: " + tamanoLote);
+        }
+    }
+
+    /**
+     * Ejecuta la sentencia para las posiciones indicadas en lotes de tamanoLote filas,
+     * confirmando cada lote por separado
+     */
+    private void ejecutarEnLotes(String sql, List<Usuario> usuarios, List<Integer> posiciones,
+                                 int tamanoLote, boolean conId, ResultadoLote resultado) throws SQLException {
+        if (posiciones.isEmpty()) {
+            return;
+        }
+
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = CancelacionOperacion.registrar(conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS))) {
+                for (int inicio = 0; inicio < posiciones.size(); inicio += tamanoLote) {
+                    List<Integer> lote = posiciones.subList(inicio, Math.min(inicio + tamanoLote, posiciones.size()));
+                    try {
+                        for (int posicion : lote) {
+                            asignarParametros(pstmt, usuarios.get(posicion), conId);
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                        registrarIds(pstmt, usuarios, lote, conId, resultado);
+                        conn.commit();
+                    } catch (SQLException e) {
+                        // Con rewriteBatchedStatements un fallo invalida el lote entero:
+                        // se deshace y se repite fila a fila para aislar las filas erróneas
+                        conn.rollback();
+                        pstmt.clearBatch();
+                        ejecutarFilaAFila(conn, pstmt, usuarios, lote, conId, resultado);
+                    }
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void ejecutarFilaAFila(Connection conn, PreparedStatement pstmt, List<Usuario> usuarios,
+                                   List<Integer> lote, boolean conId, ResultadoLote resultado) throws SQLException {
+        for (int posicion : lote) {
+            try {
+                asignarParametros(pstmt, usuarios.get(posicion), conId);
+                pstmt.executeUpdate();
+                registrarIds(pstmt, usuarios, Collections.singletonList(posicion), conId, resultado);
+            } catch (SQLException e) {
+                resultado.registrarError(posicion, e.getMessage());
+            }
+        }
+        conn.commit();
+    }
+
+    private void asignarParametros(PreparedStatement pstmt, Usuario usuario, boolean conId) throws SQLException {
+        pstmt.setString(1, usuario.getNombre());
+        pstmt.setString(2, usuario.getEmail());
+        pstmt.setInt(3, usuario.getEdad());
+        if (conId) {
+            pstmt.setInt(4, usuario.getId());
+        }
+    }
+
+    private void registrarIds(PreparedStatement pstmt, List<Usuario> usuarios, List<Integer> lote,
+                              boolean conId, ResultadoLote resultado) throws SQLException {
+        if (conId) {
+            for (int posicion : lote) {
+                resultado.registrarId(posicion, usuarios.get(posicion).getId());
+            }
+            return;
+        }
+
+        // MySQL devuelve las claves generadas en el mismo orden que las filas del lote
+        try (ResultSet claves = pstmt.getGeneratedKeys()) {
+            for (int posicion : lote) {
+                if (!claves.next()) {
+                    throw new SQLException("No se obtuvieron todos los IDs generados del lote");
+                }
+                resultado.registrarId(posicion, claves.getInt(1));
+            }
+        }
+    }
+
     @Override
     public boolean updateUsuario(Usuario usuario) throws SQLException {
         String sql = "UPDATE usuarios SET nombre = ?, email = ?, edad = ? WHERE id = ?";
         try (Connection conn = dbConnection.getConnection()) {
             conn.setAutoCommit(false);
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (PreparedStatement pstmt = CancelacionOperacion.registrar(conn.prepareStatement(sql))) {
                 pstmt.setString(1, usuario.getNombre());
                 pstmt.setString(2, usuario.getEmail());
                 pstmt.setInt(3, usuario.getEdad());
@@ -96,7 +374,7 @@ public class UsuarioDAOImpl implements UsuarioDAO {
     public boolean deleteUsuario(int id) throws SQLException {
         String sql = "DELETE FROM usuarios WHERE id = ?";
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = CancelacionOperacion.registrar(conn.prepareStatement(sql))) {
             pstmt.setInt(1, id);
             return pstmt.executeUpdate() > 0;
         }
@@ -0,0 +1,191 @@
+package utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché en memoria de tamaño acotado con expulsión LRU (la entrada usada hace más tiempo)
+ * y caducidad por tiempo (TTL) desde que se guarda cada entrada.
+ *
+ * Lleva contadores de aciertos, fallos, expulsiones y caducadas para poder dimensionarla.
+ * Para evitar guardar un valor leído antes de una invalidación concurrente, quien carga
+ * el valor toma {@link #version()} antes de leerlo y lo guarda con {@link #ponerSiVigente}.
+ */
+public class CacheLRU<K, V> {
+
+    private final int tamanoMaximo;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+    private long version;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong expulsiones = new AtomicLong();
+    private final AtomicLong caducadas = new AtomicLong();
+
+    /**
+     * @param tamanoMaximo Número máximo de entradas
+     * @param ttl Tiempo de vida de cada entrada
+     * @param unidad Unidad del tiempo de vida
+     */
+    public CacheLRU(int tamanoMaximo, long ttl, TimeUnit unidad) {
+        if (tamanoMaximo <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo de la caché debe ser mayor que cero: " + tamanoMaximo);
+        }
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("El TTL de la caché debe ser mayor que cero: " + ttl);
+        }
+        this.tamanoMaximo = tamanoMaximo;
+        this.ttlNanos = unidad.toNanos(ttl);
+        // accessOrder = true: cada get() mueve la entrada al final, la primera es la menos usada
+        this.entradas = new LinkedHashMap<K, Entrada<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> mayor) {
+                if (size() > CacheLRU.this.tamanoMaximo) {
+                    expulsiones.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Busca un valor en la caché
+     * @param clave Clave a buscar
+     * @return Valor guardado o null si no está o ha caducado
+     */
+    public synchronized V obtener(K clave) {
+        Entrada<V> entrada = entradas.get(clave);
+        if (entrada == null) {
+            fallos.incrementAndGet();
+            return null;
+        }
+        if (entrada.caducada(System.nanoTime())) {
+            entradas.remove(clave);
+            caducadas.incrementAndGet();
+            fallos.incrementAndGet();
+            return null;
+        }
+        aciertos.incrementAndGet();
+        return entrada.valor;
+    }
+
+    /**
+     * Versión actual de la caché. Cambia con cada invalidación.
+     * @return Versión que se debe pasar a {@link #ponerSiVigente}
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Guarda un valor solo si no ha habido invalidaciones desde que se tomó la versión
+     * @param clave Clave del valor
+     * @param valor Valor leído de la fuente
+     * @param versionLectura Versión tomada antes de leer el valor
+     */
+    public synchronized void ponerSiVigente(K clave, V valor, long versionLectura) {
+        if (valor != null && version == versionLectura) {
+            entradas.put(clave, new Entrada<>(valor, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    /**
+     * Guarda un valor en la caché
+     * @param clave Clave del valor
+     * @param valor Valor a guardar
+     */
+    public synchronized void poner(K clave, V valor) {
+        if (valor != null) {
+            entradas.put(clave, new Entrada<>(valor, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    /**
+     * Elimina una entrada de la caché
+     * @param clave Clave a eliminar
+     */
+    public synchronized void invalidar(K clave) {
+        version++;
+        entradas.remove(clave);
+    }
+
+    /**
+     * Vacía la caché
+     */
+    public synchronized void invalidarTodo() {
+        version++;
+        entradas.clear();
+    }
+
+    /**
+     * Elimina las entradas caducadas sin esperar a que se vuelvan a pedir
+     */
+    public synchronized void purgarCaducadas() {
+        long ahora = System.nanoTime();
+        Iterator<Entrada<V>> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().caducada(ahora)) {
+                it.remove();
+                caducadas.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    public int getTamanoMaximo() {
+        return tamanoMaximo;
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    public long getExpulsiones() {
+        return expulsiones.get();
+    }
+
+    public long getCaducadas() {
+        return caducadas.get();
+    }
+
+    /**
+     * @return Proporción de aciertos sobre el total de búsquedas (0 si no hubo búsquedas)
+     */
+    public double getTasaAciertos() {
+        long total = aciertos.get() + fallos.get();
+        return total == 0 ? 0.0 : (double) aciertos.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Caché: %d/%d entradas | %d aciertos | %d fallos | %d expulsiones | %d caducadas | %.1f%% aciertos",
+                getTamano(), tamanoMaximo, getAciertos(), getFallos(), getExpulsiones(), getCaducadas(),
+                getTasaAciertos() * 100);
+    }
+
+    private static class Entrada<V> {
+        private final V valor;
+        private final long caducaEn;
+
+        Entrada(V valor, long caducaEn) {
+            this.valor = valor;
+            this.caducaEn = caducaEn;
+        }
+
+        boolean caducada(long ahora) {
+            return ahora - caducaEn >= 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package utils;
+
+/**
+ * Motivos por los que un campo de usuario no es válido, con el mensaje que se muestra al usuario
+ */
+public enum ErrorValidacion {
+
+    NOMBRE_VACIO("El nombre no puede estar vacío"),
+    NOMBRE_CORTO("El nombre debe tener al menos " + Validaciones.NOMBRE_LONGITUD_MINIMA + " caracteres"),
+    NOMBRE_LARGO("El nombre no puede tener más de " + Validaciones.NOMBRE_LONGITUD_MAXIMA + " caracteres"),
+    NOMBRE_CARACTERES("El nombre solo puede contener letras, espacios, apóstrofes y guiones"),
+    EMAIL_VACIO("El email no puede estar vacío"),
+    EMAIL_FORMATO("El formato del email no es válido"),
+    EDAD_VACIA("La edad no puede estar vacía"),
+    EDAD_NO_NUMERICA("La edad debe ser un número entero"),
+    EDAD_NEGATIVA("La edad no puede ser negativa"),
+    EDAD_MAXIMA("La edad no puede ser mayor a " + Validaciones.EDAD_MAXIMA + " años");
+
+    private final String mensaje;
+
+    ErrorValidacion(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+}
@@ -1,24 +1,20 @@
 package utils;
 
-import java.util.regex.Pattern;
-
 /**
  * Clase de utilidad para validar campos de entrada de usuario
  */
 public class Validaciones {
 
-    // Patrón para validar email según RFC 5322
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "^[a-zA-Z0-9_!#$%&'*+/=?`{|}~^.-]+@[a-zA-Z0-9.-]+$"
-    );
-
     // Constantes para validación de edad
-    private static final int EDAD_MINIMA = 0;
-    private static final int EDAD_MAXIMA = 120;
+    static final int EDAD_MINIMA = 0;
+    static final int EDAD_MAXIMA = 120;
 
     // Longitudes para validación del nombre
-    private static final int NOMBRE_LONGITUD_MINIMA = 2;
-    private static final int NOMBRE_LONGITUD_MAXIMA = 50;
+    static final int NOMBRE_LONGITUD_MINIMA = 2;
+    static final int NOMBRE_LONGITUD_MAXIMA = 50;
+
+    // Caracteres ASCII que admite la parte local del email (antes de la @), además de letras y dígitos
+    private static final String EMAIL_SIMBOLOS_LOCAL = "_!#$%&'*+/=?`{|}~^.-";
 
     /**
      * Valida que el nombre cumpla con los requisitos
@@ -26,18 +22,7 @@ public class Validaciones {
      * @return true si el nombre es válido, false si no lo es
      */
     public static boolean validarNombre(String nombre) {
-        if (nombre == null || nombre.trim().isEmpty()) {
-            return false;
-        }
-
-        // Verificar longitud del nombre
-        int longitud = nombre.trim().length();
-        if (longitud < NOMBRE_LONGITUD_MINIMA || longitud > NOMBRE_LONGITUD_MAXIMA) {
-            return false;
-        }
-
-        // Verificar que solo contiene caracteres válidos (letras, espacios y algunos caracteres especiales)
-        return nombre.matches("^[a-zA-ZáéíóúÁÉÍÓÚñÑüÜ\\s'-]+$");
+        return comprobarNombre(nombre) == null;
     }
 
     /**
@@ -46,24 +31,66 @@ public class Validaciones {
      * @return Mensaje de error o null si el nombre es válido
      */
     public static String mensajeErrorNombre(String nombre) {
-        if (nombre == null || nombre.trim().isEmpty()) {
-            return "El nombre no puede estar vacío";
+        return mensaje(comprobarNombre(nombre));
+    }
+
+    /**
+     * Comprueba el nombre sin crear objetos: la longitud se mide sin los espacios de los
+     * extremos (como trim()) y los caracteres se recorren a mano en lugar de con una regex
+     * @param nombre Nombre a validar
+     * @return Motivo por el que no es válido, o null si es válido
+     */
+    public static ErrorValidacion comprobarNombre(String nombre) {
+        if (nombre == null) {
+            return ErrorValidacion.NOMBRE_VACIO;
         }
 
-        int longitud = nombre.trim().length();
-        if (longitud < NOMBRE_LONGITUD_MINIMA) {
-            return "El nombre debe tener al menos " + NOMBRE_LONGITUD_MINIMA + " caracteres";
+        // Mismos límites que trim(): se descartan los caracteres <= ' ' de los extremos
+        int inicio = 0;
+        int fin = nombre.length();
+        while (inicio < fin && nombre.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fin > inicio && nombre.charAt(fin - 1) <= ' ') {
+            fin--;
         }
 
+        int longitud = fin - inicio;
+        if (longitud == 0) {
+            return ErrorValidacion.NOMBRE_VACIO;
+        }
+        if (longitud < NOMBRE_LONGITUD_MINIMA) {
+            return ErrorValidacion.NOMBRE_CORTO;
+        }
         if (longitud > NOMBRE_LONGITUD_MAXIMA) {
-            return "El nombre no puede tener más de " + NOMBRE_LONGITUD_MAXIMA + " caracteres";
+            return ErrorValidacion.NOMBRE_LARGO;
         }
 
-        if (!nombre.matches("^[a-zA-ZáéíóúÁÉÍÓÚñÑüÜ\\s'-]+$")) {
-            return "El nombre solo puede contener letras, espacios, apóstrofes y guiones";
+        // Letras, espacios y algunos caracteres especiales; se revisa el nombre completo, con
+        // los espacios de los extremos, igual que hacía ^[a-zA-ZáéíóúÁÉÍÓÚñÑüÜ\s'-]+$
+        for (int i = 0; i < nombre.length(); i++) {
+            if (!esCaracterNombre(nombre.charAt(i))) {
+                return ErrorValidacion.NOMBRE_CARACTERES;
+            }
         }
+        return null;
+    }
 
-        return null; // El nombre es válido
+    private static boolean esCaracterNombre(char c) {
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+            return true;
+        }
+        switch (c) {
+            case 'á': case 'é': case 'í': case 'ó': case 'ú':
+            case 'Á': case 'É': case 'Í': case 'Ó': case 'Ú':
+            case 'ñ': case 'Ñ': case 'ü': case 'Ü':
+            // \s de las regex de Java: espacio, \t, \n, \u000B, \f y \r
+            case ' ': case '\t': case '\n': case '\u000B': case '\f': case '\r':
+            case '\'': case '-':
+                return true;
+            default:
+                return false;
+        }
     }
 
     /**
@@ -72,11 +99,7 @@ public class Validaciones {
      * @return true si el email es válido, false si no lo es
      */
     public static boolean validarEmail(String email) {
-        if (email == null || email.trim().isEmpty()) {
-            return false;
-        }
-
-        return EMAIL_PATTERN.matcher(email).matches();
+        return comprobarEmail(email) == null;
     }
 
     /**
@@ -85,15 +108,43 @@ public class Validaciones {
      * @return Mensaje de error o null si el email es válido
      */
     public static String mensajeErrorEmail(String email) {
-        if (email == null || email.trim().isEmpty()) {
-            return "El email no puede estar vacío";
+        return mensaje(comprobarEmail(email));
+    }
+
+    /**
+     * Comprueba el email recorriéndolo una vez. Acepta lo mismo que la expresión
+     * ^[a-zA-Z0-9_!#$%&'*+/=?`{|}~^.-]+@[a-zA-Z0-9.-]+$ (basada en RFC 5322)
+     * @param email Email a validar
+     * @return Motivo por el que no es válido, o null si es válido
+     */
+    public static ErrorValidacion comprobarEmail(String email) {
+        if (email == null || esBlanco(email)) {
+            return ErrorValidacion.EMAIL_VACIO;
         }
 
-        if (!EMAIL_PATTERN.matcher(email).matches()) {
-            return "El formato del email no es válido";
+        int arroba = -1;
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                // Una sola @, con algo delante
+                if (arroba >= 0 || i == 0) {
+                    return ErrorValidacion.EMAIL_FORMATO;
+                }
+                arroba = i;
+            } else if (arroba < 0) {
+                if (!esLetraODigito(c) && EMAIL_SIMBOLOS_LOCAL.indexOf(c) < 0) {
+                    return ErrorValidacion.EMAIL_FORMATO;
+                }
+            } else if (!esLetraODigito(c) && c != '.' && c != '-') {
+                return ErrorValidacion.EMAIL_FORMATO;
+            }
         }
+        // Con algo detrás de la @
+        return arroba >= 0 && arroba < email.length() - 1 ? null : ErrorValidacion.EMAIL_FORMATO;
+    }
 
-        return null; // El email es válido
+    private static boolean esLetraODigito(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
     }
 
     /**
@@ -111,12 +162,7 @@ public class Validaciones {
      * @return true si se puede convertir a un entero y es una edad válida
      */
     public static boolean validarEdadString(String edadStr) {
-        try {
-            int edad = Integer.parseInt(edadStr);
-            return validarEdad(edad);
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        return comprobarEdad(edadStr) == null;
     }
 
     /**
@@ -125,25 +171,64 @@ public class Validaciones {
      * @return Mensaje de error o null si la edad es válida
      */
     public static String mensajeErrorEdad(String edadStr) {
-        if (edadStr == null || edadStr.trim().isEmpty()) {
-            return "La edad no puede estar vacía";
+        return mensaje(comprobarEdad(edadStr));
+    }
+
+    /**
+     * Comprueba la edad sin Integer.parseInt, que crea una NumberFormatException por cada
+     * valor no numérico. Acepta los mismos textos que parseInt: signo opcional y dígitos,
+     * dentro del rango de int
+     * @param edadStr String que representa la edad
+     * @return Motivo por el que no es válida, o null si es válida
+     */
+    public static ErrorValidacion comprobarEdad(String edadStr) {
+        if (edadStr == null || esBlanco(edadStr)) {
+            return ErrorValidacion.EDAD_VACIA;
         }
 
-        try {
-            int edad = Integer.parseInt(edadStr);
+        int longitud = edadStr.length();
+        boolean negativa = edadStr.charAt(0) == '-';
+        int i = (negativa || edadStr.charAt(0) == '+') ? 1 : 0;
+        if (i == longitud) {
+            return ErrorValidacion.EDAD_NO_NUMERICA;
+        }
 
-            if (edad < EDAD_MINIMA) {
-                return "La edad no puede ser negativa";
+        // Se acumula en negativo, como parseInt, para admitir Integer.MIN_VALUE
+        long limite = negativa ? Integer.MIN_VALUE : -(long) Integer.MAX_VALUE;
+        long valor = 0;
+        for (; i < longitud; i++) {
+            int digito = Character.digit(edadStr.charAt(i), 10);
+            if (digito < 0) {
+                return ErrorValidacion.EDAD_NO_NUMERICA;
             }
-
-            if (edad > EDAD_MAXIMA) {
-                return "La edad no puede ser mayor a " + EDAD_MAXIMA + " años";
+            valor = valor * 10 - digito;
+            if (valor < limite) {
+                return ErrorValidacion.EDAD_NO_NUMERICA;
             }
+        }
 
-            return null; // La edad es válida
-        } catch (NumberFormatException e) {
-            return "La edad debe ser un número entero";
+        long edad = negativa ? valor : -valor;
+        if (edad < EDAD_MINIMA) {
+            return ErrorValidacion.EDAD_NEGATIVA;
+        }
+        if (edad > EDAD_MAXIMA) {
+            return ErrorValidacion.EDAD_MAXIMA;
         }
+        return null;
+    }
+
+    // Equivale a texto.trim().isEmpty() sin crear el String recortado
+    private static boolean esBlanco(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String mensaje(ErrorValidacion error) {
+        return error == null ? null : error.getMensaje();
     }
 
     /**
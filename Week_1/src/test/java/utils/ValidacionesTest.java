@@ -0,0 +1,166 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Comprueba que las validaciones recorridas a mano de {@link Validaciones} devuelven el mismo
+ * mensaje que las versiones originales con expresiones regulares e Integer.parseInt, que se
+ * copian aquí como referencia.
+ */
+class ValidacionesTest {
+
+    private static final Pattern NOMBRE_ORIGINAL = Pattern.compile("^[a-zA-ZáéíóúÁÉÍÓÚñÑüÜ\\s'-]+$");
+    private static final Pattern EMAIL_ORIGINAL = Pattern.compile("^[a-zA-Z0-9_!#$%&'*+/=?`{|}~^.-]+@[a-zA-Z0-9.-]+$");
+
+    // Caracteres que separan lo que acepta cada regla de lo que no, incluidos los \s de Java,
+    // letras con tilde fuera de la lista y dígitos no ASCII (que parseInt sí acepta)
+    private static final String ALFABETO = "aZmñÑáÜçàÀ '-_.@+!#$%&*/=?`{|}~^\"(),:;<>[]\\"
+            + "\t\n\u000B\f\r  \u0000" + "0123456789٣１";
+
+    // Casi todo lo que admite el nombre, con algún carácter que no, para que salgan nombres válidos
+    private static final String ALFABETO_NOMBRE = "aZñÑáÜ '-\t\n3_ç";
+
+    private static final int CASOS_ALEATORIOS = 200_000;
+
+    @Test
+    void nombreIgualQueLaExpresionOriginal() {
+        String[] casos = {null, "", " ", "\t\n", "A", " A ", "Al", "Ana García", "José Ñúñez-Peña", "O'Connor",
+                "  Ana  ", "Ana García", "Ana3", "Ana_García", "François", "Zoë", "\u000BAna",
+                "Un nombre de persona que es bastante más largo de lo", "Un nombre de persona que es bastante más largo de l",
+                " Un nombre de persona que es bastante más largo de l ", "Ana\u0000"};
+        for (String nombre : casos) {
+            comprobarNombre(nombre);
+        }
+
+        Random aleatorio = new Random(17);
+        for (int i = 0; i < CASOS_ALEATORIOS; i++) {
+            comprobarNombre(textoAleatorio(aleatorio, ALFABETO, 55));
+            comprobarNombre(textoAleatorio(aleatorio, ALFABETO_NOMBRE, 55));
+        }
+    }
+
+    @Test
+    void emailIgualQueLaExpresionOriginal() {
+        String[] casos = {null, "", "  ", "ana@ejemplo.com", "jose.nunez+tag@correo.es", "sin-arroba.com",
+                "dos@@arrobas.com", "@ejemplo.com", "ana@", "ana@ejemplo_com", "ana@ejemplo..com", "a@b",
+                "ana.@-.", "ana @ejemplo.com", " ana@ejemplo.com", "ana@ejemplo.com ", "ana@ejemplo.com\n",
+                "ñandú@ejemplo.com", "ana@ejémplo.com", "{|}~^`@x", "\"ana\"@ejemplo.com"};
+        for (String email : casos) {
+            comprobarEmail(email);
+        }
+
+        Random aleatorio = new Random(29);
+        for (int i = 0; i < CASOS_ALEATORIOS; i++) {
+            comprobarEmail(textoAleatorio(aleatorio, ALFABETO, 12));
+        }
+    }
+
+    @Test
+    void edadIgualQueParseInt() {
+        String[] casos = {null, "", " ", "0", "35", "120", "121", "-0", "-1", "+5", "+", "-", "+-1", "007",
+                " 5", "5 ", "treinta", "3.5", "1e2", "٣٥", "１２", "2147483647", "2147483648", "-2147483648",
+                "-2147483649", "99999999999", "0000000000000000000000035"};
+        for (String edad : casos) {
+            comprobarEdad(edad);
+        }
+
+        Random aleatorio = new Random(41);
+        String digitos = "0123456789+- ٣１a";
+        for (int i = 0; i < CASOS_ALEATORIOS; i++) {
+            StringBuilder edad = new StringBuilder();
+            int longitud = aleatorio.nextInt(12);
+            for (int j = 0; j < longitud; j++) {
+                edad.append(digitos.charAt(aleatorio.nextInt(digitos.length())));
+            }
+            comprobarEdad(edad.toString());
+        }
+    }
+
+    private static void comprobarNombre(String nombre) {
+        assertEquals(mensajeNombreOriginal(nombre), mensaje(Validaciones.comprobarNombre(nombre)), () -> describir(nombre));
+    }
+
+    private static void comprobarEmail(String email) {
+        assertEquals(mensajeEmailOriginal(email), mensaje(Validaciones.comprobarEmail(email)), () -> describir(email));
+    }
+
+    private static void comprobarEdad(String edad) {
+        assertEquals(mensajeEdadOriginal(edad), mensaje(Validaciones.comprobarEdad(edad)), () -> describir(edad));
+    }
+
+    private static String mensajeNombreOriginal(String nombre) {
+        if (nombre == null || nombre.trim().isEmpty()) {
+            return "El nombre no puede estar vacío";
+        }
+        int longitud = nombre.trim().length();
+        if (longitud < Validaciones.NOMBRE_LONGITUD_MINIMA) {
+            return "El nombre debe tener al menos " + Validaciones.NOMBRE_LONGITUD_MINIMA + " caracteres";
+        }
+        if (longitud > Validaciones.NOMBRE_LONGITUD_MAXIMA) {
+            return "El nombre no puede tener más de " + Validaciones.NOMBRE_LONGITUD_MAXIMA + " caracteres";
+        }
+        if (!NOMBRE_ORIGINAL.matcher(nombre).matches()) {
+            return "El nombre solo puede contener letras, espacios, apóstrofes y guiones";
+        }
+        return null;
+    }
+
+    private static String mensajeEmailOriginal(String email) {
+        if (email == null || email.trim().isEmpty()) {
+            return "El email no puede estar vacío";
+        }
+        if (!EMAIL_ORIGINAL.matcher(email).matches()) {
+            return "El formato del email no es válido";
+        }
+        return null;
+    }
+
+    private static String mensajeEdadOriginal(String edadStr) {
+        if (edadStr == null || edadStr.trim().isEmpty()) {
+            return "La edad no puede estar vacía";
+        }
+        try {
+            int edad = Integer.parseInt(edadStr);
+            if (edad < Validaciones.EDAD_MINIMA) {
+                return "La edad no puede ser negativa";
+            }
+            if (edad > Validaciones.EDAD_MAXIMA) {
+                return "La edad no puede ser mayor a " + Validaciones.EDAD_MAXIMA + " años";
+            }
+            return null;
+        } catch (NumberFormatException e) {
+            return "La edad debe ser un número entero";
+        }
+    }
+
+    private static String mensaje(ErrorValidacion error) {
+        return error == null ? null : error.getMensaje();
+    }
+
+    private static String textoAleatorio(Random aleatorio, String alfabeto, int longitudMaxima) {
+        int longitud = aleatorio.nextInt(longitudMaxima + 1);
+        StringBuilder texto = new StringBuilder(longitud);
+        for (int i = 0; i < longitud; i++) {
+            texto.append(alfabeto.charAt(aleatorio.nextInt(alfabeto.length())));
+        }
+        return texto.toString();
+    }
+
+    // Con los caracteres de control escapados, para que se vean en el mensaje del fallo
+    private static String describir(String texto) {
+        if (texto == null) {
+            return "null";
+        }
+        StringBuilder descripcion = new StringBuilder("\"");
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            descripcion.append(c < ' ' || c > '~' ? String.format("\\u%04X", (int) c) : String.valueOf(c));
+        }
+        return descripcion.append('"').toString();
+    }
+}
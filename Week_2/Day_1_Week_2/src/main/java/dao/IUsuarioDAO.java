@@ -2,6 +2,7 @@ package dao;
 
 import model.UsuarioDay_1;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interfaz que define el contrato para las operaciones de acceso a datos
@@ -15,4 +16,13 @@ public interface IUsuarioDAO {
      * @return Lista de todos los usuarios encontrados
      */
     List<UsuarioDay_1> getAllUsuarios();
+
+    /**
+     * Recorre todos los usuarios sin cargarlos en memoria.
+     * El Stream mantiene la conexión abierta y debe cerrarse con try-with-resources.
+     *
+     * @param fetchSize Filas por viaje al servidor (0 o negativo: streaming fila a fila en MySQL)
+     * @return Stream de usuarios
+     */
+    Stream<UsuarioDay_1> streamUsuarios(int fetchSize);
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import model.UsuarioDay_1;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class UsuarioDAO implements IUsuarioDAO {
 
@@ -14,7 +15,7 @@ public class UsuarioDAO implements IUsuarioDAO {
         List<UsuarioDay_1> usuarios = new ArrayList<>();
         String query = "SELECT id, nombre, email FROM usuarios";
 
-        try (Connection conn = DatabaseConnection.getConnection("mysql_origen");
+        try (Connection conn = DatabaseConnection.getConnectionLectura("mysql_origen");
              PreparedStatement stmt = conn.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -34,4 +35,18 @@ public class UsuarioDAO implements IUsuarioDAO {
 
         return usuarios;
     }
+
+    @Override
+    public Stream<UsuarioDay_1> streamUsuarios(int fetchSize) {
+        String query = "SELECT id, nombre, email FROM usuarios";
+
+        try {
+            return JdbcStreams.consultar("mysql_origen", query, fetchSize,
+                    rs -> new UsuarioDay_1(rs.getInt("id"), rs.getString("nombre"), rs.getString("email")));
+        } catch (SQLException e) {
+            System.err.println("Error al recorrer los usuarios: " + e.getMessage());
+            e.printStackTrace();
+            return Stream.empty();
+        }
+    }
 }
\ No newline at end of file
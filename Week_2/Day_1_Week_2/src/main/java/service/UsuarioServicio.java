@@ -1,9 +1,12 @@
 package service;
 
 import dao.IUsuarioDAO;
+import dao.JdbcStreams;
 import model.UsuarioDay_1;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Clase de servicio que implementa la lógica de negocio relacionada con los usuarios.
@@ -26,18 +29,21 @@ public class UsuarioServicio {
      * Método que obtiene y muestra la lista de todos los usuarios
      */
     public void mostrarUsuarios() {
-        List<UsuarioDay_1> usuarios = usuarioDAO.getAllUsuarios();
-
-        if (usuarios.isEmpty()) {
-            System.out.println("No se encontraron usuarios en la base de datos.");
-            return;
-        }
-
-        System.out.println("==== LISTA DE USUARIOS ====");
-        for (UsuarioDay_1 usuario : usuarios) {
-            System.out.println(usuario);
+        // Se recorren en streaming para no cargar la tabla completa en memoria
+        try (Stream<UsuarioDay_1> usuarios = usuarioDAO.streamUsuarios(JdbcStreams.FETCH_SIZE_POR_DEFECTO)) {
+            Iterator<UsuarioDay_1> iterador = usuarios.iterator();
+
+            if (!iterador.hasNext()) {
+                System.out.println("No se encontraron usuarios en la base de datos.");
+                return;
+            }
+
+            System.out.println("==== LISTA DE USUARIOS ====");
+            while (iterador.hasNext()) {
+                System.out.println(iterador.next());
+            }
+            System.out.println("==========================");
         }
-        System.out.println("==========================");
     }
 
     /**
@@ -1,5 +1,6 @@
 package app;
 
+import config.DatabaseConnection;
 import dao.IUsuarioDAO;
 import dao.UsuarioDAO;
 import etl.ProcesadorEstudiantes;
@@ -18,6 +19,9 @@ public class Main {
     public static void main(String[] args) {
         System.out.println("=== ACTIVIDAD 7: EXTRACCIÓN Y LIMPIEZA DE DATOS ===\n");
 
+        // Abrir de antemano las conexiones de los perfiles que usan las demostraciones
+        DatabaseConnection.precalentar("mysql_origen", "mysql_tl");
+
         // 1. Demostración de limpieza y validación de usuarios
         demostrarLimpiezaUsuarios();
 
@@ -34,10 +38,9 @@ public class Main {
     private static void demostrarLimpiezaUsuarios() {
         System.out.println("\n=== 1. LIMPIEZA Y VALIDACIÓN DE USUARIOS ===");
 
-        try {
-            // Crear una instancia del DAO y del servicio
-            IUsuarioDAO usuarioDAO = new UsuarioDAO();
-            UsuarioServicio servicio = new UsuarioServicio(usuarioDAO);
+        // Crear una instancia del DAO y del servicio
+        IUsuarioDAO usuarioDAO = new UsuarioDAO();
+        try (UsuarioServicio servicio = new UsuarioServicio(usuarioDAO)) {
 
             // Mostrar usuarios originales
             System.out.println("\nUsuarios originales:");
@@ -49,7 +52,7 @@ public class Main {
 
             // Mostrar resumen
             System.out.println("\nResumen:");
-            System.out.println("Total de usuarios: " + servicio.obtenerUsuarios().size());
+            System.out.println("Total de usuarios: " + servicio.contarUsuarios());
             System.out.println("Usuarios válidos después de limpieza: " + usuariosLimpios.size());
         } catch (Exception e) {
             System.err.println("Error en demostrarLimpiezaUsuarios: " + e.getMessage());
@@ -0,0 +1,129 @@
+package benchmark;
+
+import etl.ParserEstudiantesMapeado;
+import etl.RegistroEstudiante;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Compara la lectura del archivo de estudiantes con BufferedReader y String.split (como
+ * ProcesadorEstudiantesAvanzado) frente a {@link ParserEstudiantesMapeado} con distinto número
+ * de hilos, sobre un archivo generado con nombres con tildes y entre 3 y 8 notas por línea.
+ *
+ * Antes de medir comprueba que las dos lecturas dan los mismos nombres y notas.
+ *
+ * Uso: ParserEstudiantesBenchmark [lineas] [hilosMaximos]
+ */
+public class ParserEstudiantesBenchmark {
+
+    private static final String[] NOMBRES = {"Lucía Fernández", "Javier Gómez", "Elena Morales", "Iván Castillo",
+            "Núria Puigdomènech", "Søren Ødegård", "Zoë Müller", "José Ángel Peña"};
+
+    /**
+     * Forma de leer el archivo completo
+     */
+    @FunctionalInterface
+    private interface Lectura {
+        long leer(Path archivo) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int lineas = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int hilosMaximos = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        Path archivo = Files.createTempFile("estudiantes_benchmark", ".txt");
+        try {
+            generarArchivo(archivo, lineas);
+            double megas = Files.size(archivo) / (1024.0 * 1024.0);
+            System.out.printf("=== BENCHMARK PARSER ESTUDIANTES (%d líneas, %.1f MB) ===%n", lineas, megas);
+
+            long controlLineas = leerConSplit(archivo);
+            long controlMapeado = sumaDeControl(new ParserEstudiantesMapeado(hilosMaximos, 1024 * 1024), archivo);
+            if (controlLineas != controlMapeado) {
+                System.err.println("Las lecturas no coinciden: " + controlLineas + " frente a " + controlMapeado);
+                System.exit(1);
+            }
+
+            // Calentamiento de la JIT con ambas lecturas
+            medir(archivo, megas, ParserEstudiantesBenchmark::leerConSplit, null);
+            medir(archivo, megas, a -> sumaDeControl(new ParserEstudiantesMapeado(hilosMaximos,
+                    ParserEstudiantesMapeado.TAMANO_TROZO_POR_DEFECTO), a), null);
+
+            double base = medir(archivo, megas, ParserEstudiantesBenchmark::leerConSplit, "BufferedReader + split");
+            for (int hilos = 1; hilos <= hilosMaximos; hilos *= 2) {
+                int h = hilos;
+                double mapeado = medir(archivo, megas, a -> sumaDeControl(new ParserEstudiantesMapeado(h,
+                        ParserEstudiantesMapeado.TAMANO_TROZO_POR_DEFECTO), a), "Mapeado, " + hilos + " hilo(s)");
+                System.out.printf("  Mejora: x%.2f%n", base / mapeado);
+            }
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    private static double medir(Path archivo, double megas, Lectura lectura, String etiqueta) throws IOException {
+        long inicio = System.nanoTime();
+        long control = lectura.leer(archivo);
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        if (etiqueta != null) {
+            System.out.printf("%-26s %8.0f ms  %8.1f MB/s  (control %d)%n", etiqueta, segundos * 1000, megas / segundos, control);
+        }
+        return segundos;
+    }
+
+    // Misma lectura que ProcesadorEstudiantesAvanzado.leerArchivoEstudiantes
+    private static long leerConSplit(Path archivo) throws IOException {
+        long control = 0;
+        try (BufferedReader br = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                if (linea.trim().isEmpty()) {
+                    continue;
+                }
+                String[] datos = linea.split(";");
+                control = control * 31 + datos[0].trim().hashCode();
+                for (int i = 1; i < datos.length; i++) {
+                    control = control * 31 + Double.hashCode(Double.parseDouble(datos[i].trim()));
+                }
+            }
+        }
+        return control;
+    }
+
+    private static long sumaDeControl(ParserEstudiantesMapeado parser, Path archivo) throws IOException {
+        long[] control = {0};
+        parser.procesar(archivo, registro -> control[0] = sumar(control[0], registro));
+        return control[0];
+    }
+
+    private static long sumar(long control, RegistroEstudiante registro) {
+        control = control * 31 + registro.getNombre().hashCode();
+        for (int i = 0; i < registro.getNumeroNotas(); i++) {
+            control = control * 31 + Double.hashCode(registro.getNota(i));
+        }
+        return control;
+    }
+
+    private static void generarArchivo(Path archivo, int lineas) throws IOException {
+        Random random = new Random(42);
+        try (BufferedWriter bw = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lineas; i++) {
+                bw.write(NOMBRES[random.nextInt(NOMBRES.length)]);
+                bw.write(' ');
+                bw.write(Integer.toString(i));
+                int notas = 3 + random.nextInt(6);
+                for (int n = 0; n < notas; n++) {
+                    bw.write(';');
+                    bw.write(String.format("%.2f", random.nextInt(1001) / 100.0).replace(',', '.'));
+                }
+                bw.write(i % 100 == 0 ? "\r\n" : "\n");
+            }
+        }
+    }
+}
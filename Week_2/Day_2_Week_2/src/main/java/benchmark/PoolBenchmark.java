@@ -0,0 +1,128 @@
+package benchmark;
+
+import config.ConnectionPool;
+import config.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compara consultas por segundo abriendo una conexión física por consulta (DriverManager)
+ * frente a tomarlas de {@link ConnectionPool}, usando H2 en memoria como sustituto de MySQL.
+ *
+ * Uso: PoolBenchmark [hilos] [segundos por modo]
+ */
+public class PoolBenchmark {
+
+    private static final String PERFIL = "h2_benchmark";
+    private static final String CONSULTA = "SELECT id, nombre, email FROM usuarios WHERE id = ?";
+    private static final int FILAS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Properties props = new Properties();
+        props.setProperty(PERFIL + ".url", "jdbc:h2:mem:pool_benchmark;DB_CLOSE_DELAY=-1");
+        props.setProperty(PERFIL + ".user", "sa");
+        props.setProperty(PERFIL + ".password", "");
+        props.setProperty(PERFIL + ".driver", "org.h2.Driver");
+        props.setProperty(PERFIL + ".pool.minSize", String.valueOf(hilos));
+        props.setProperty(PERFIL + ".pool.maxSize", String.valueOf(hilos));
+        DatabaseConfig config = new DatabaseConfig(PERFIL, props);
+
+        Class.forName(config.getDbDriver());
+        prepararDatos(config);
+
+        System.out.println("=== BENCHMARK POOL DE CONEXIONES (" + hilos + " hilos, " + segundos + " s por modo) ===");
+
+        double sinPool = medir("DriverManager", hilos, segundos,
+                () -> DriverManager.getConnection(config.getDbUrl(), config.getDbUser(), config.getDbPassword()));
+
+        ConnectionPool pool = new ConnectionPool(PERFIL, config);
+        double conPool;
+        try {
+            conPool = medir("ConnectionPool", hilos, segundos, pool::obtenerConexion);
+            System.out.printf("Sentencias reutilizadas: %d | preparadas: %d%n",
+                    pool.getSentenciasReutilizadas(), pool.getSentenciasPreparadas());
+        } finally {
+            pool.cerrar();
+        }
+
+        System.out.printf("Mejora con pool: x%.2f%n", conPool / sinPool);
+    }
+
+    private static void prepararDatos(DatabaseConfig config) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(config.getDbUrl(), config.getDbUser(), config.getDbPassword());
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS usuarios (id INT PRIMARY KEY, nombre VARCHAR(100), email VARCHAR(100))");
+            stmt.execute("DELETE FROM usuarios");
+            try (PreparedStatement insert = conn.prepareStatement("INSERT INTO usuarios VALUES (?, ?, ?)")) {
+                for (int i = 1; i <= FILAS; i++) {
+                    insert.setInt(1, i);
+                    insert.setString(2, "Usuario " + i);
+                    insert.setString(3, "usuario" + i + "@ejemplo.com");
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+
+    private static double medir(String modo, int hilos, int segundos, FuenteConexiones fuente) throws InterruptedException {
+        // Calentamiento para que JIT y pool estén en régimen estable
+        ejecutar(hilos, 1, fuente);
+        long consultas = ejecutar(hilos, segundos, fuente);
+        double porSegundo = consultas / (double) segundos;
+        System.out.printf("%-15s %,12.0f consultas/s%n", modo, porSegundo);
+        return porSegundo;
+    }
+
+    private static long ejecutar(int hilos, int segundos, FuenteConexiones fuente) throws InterruptedException {
+        LongAdder contador = new LongAdder();
+        AtomicBoolean parar = new AtomicBoolean();
+        List<Thread> trabajadores = new ArrayList<>();
+
+        for (int i = 0; i < hilos; i++) {
+            Thread hilo = new Thread(() -> {
+                while (!parar.get()) {
+                    try (Connection conn = fuente.obtener();
+                         PreparedStatement stmt = conn.prepareStatement(CONSULTA)) {
+                        stmt.setInt(1, ThreadLocalRandom.current().nextInt(1, FILAS + 1));
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            rs.next();
+                        }
+                        contador.increment();
+                    } catch (SQLException e) {
+                        System.err.println("Error en benchmark: " + e.getMessage());
+                        return;
+                    }
+                }
+            });
+            trabajadores.add(hilo);
+            hilo.start();
+        }
+
+        Thread.sleep(segundos * 1000L);
+        parar.set(true);
+        for (Thread hilo : trabajadores) {
+            hilo.join();
+        }
+        return contador.sum();
+    }
+
+    @FunctionalInterface
+    private interface FuenteConexiones {
+        Connection obtener() throws SQLException;
+    }
+}
@@ -0,0 +1,130 @@
+package benchmark;
+
+import dao.MapeadorUsuarioDay2;
+import dao.RowMapper;
+import model.UsuarioDay_2;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+/**
+ * Compara el mapeo de filas buscando cada columna por nombre en cada fila (como hacía
+ * mapResultSetToUsuario) frente a {@link MapeadorUsuarioDay2}, que resuelve los índices
+ * una vez por ResultSet. Usa H2 en memoria como sustituto de MySQL.
+ *
+ * Mide tiempo y bytes reservados por fila (ThreadMXBean de HotSpot) tras un calentamiento.
+ *
+ * Uso: RowMapperBenchmark [filas] [repeticiones]
+ */
+public class RowMapperBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:rowmapper_benchmark;DB_CLOSE_DELAY=-1";
+    private static final String CONSULTA = "SELECT id, nombre, email, fecha_nacimiento, tipo_documento FROM usuarios";
+
+    /**
+     * Forma de recorrer un ResultSet completo
+     */
+    @FunctionalInterface
+    private interface Recorrido {
+        long recorrer(ResultSet rs) throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int filas = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "")) {
+            prepararDatos(conn, filas);
+
+            System.out.println("=== BENCHMARK ROW MAPPERS (" + filas + " filas, " + repeticiones + " repeticiones) ===");
+
+            Recorrido porNombre = rs -> {
+                long total = 0;
+                while (rs.next()) {
+                    total += mapearPorNombre(rs).getId();
+                }
+                return total;
+            };
+            Recorrido porIndice = rs -> {
+                RowMapper<UsuarioDay_2> mapper = MapeadorUsuarioDay2.INSTANCIA.preparar(rs);
+                long total = 0;
+                while (rs.next()) {
+                    total += mapper.mapRow(rs).getId();
+                }
+                return total;
+            };
+
+            // Calentamiento de la JIT con ambos recorridos
+            medir(conn, porNombre, repeticiones, filas, null);
+            medir(conn, porIndice, repeticiones, filas, null);
+
+            double nombre = medir(conn, porNombre, repeticiones, filas, "Por nombre en cada fila");
+            double indice = medir(conn, porIndice, repeticiones, filas, "Índices resueltos una vez");
+            System.out.printf("Mejora: x%.2f%n", nombre / indice);
+        }
+    }
+
+    // Mapeo original: búsqueda por nombre y conversión Date -> LocalDate en cada fila
+    private static UsuarioDay_2 mapearPorNombre(ResultSet rs) throws SQLException {
+        Date fechaNacimientoSQL = rs.getDate("fecha_nacimiento");
+        LocalDate fechaNacimiento = (fechaNacimientoSQL != null) ? fechaNacimientoSQL.toLocalDate() : null;
+
+        return new UsuarioDay_2(
+                rs.getInt("id"),
+                rs.getString("nombre"),
+                rs.getString("email"),
+                fechaNacimiento,
+                rs.getString("tipo_documento")
+        );
+    }
+
+    private static double medir(Connection conn, Recorrido recorrido, int repeticiones, int filas, String etiqueta) throws SQLException {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().getId();
+        long control = 0;
+
+        long bytesInicio = hilos.getThreadAllocatedBytes(hilo);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < repeticiones; i++) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(CONSULTA)) {
+                control += recorrido.recorrer(rs);
+            }
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = hilos.getThreadAllocatedBytes(hilo) - bytesInicio;
+
+        double nanosPorFila = (double) nanos / ((long) filas * repeticiones);
+        if (etiqueta != null) {
+            System.out.printf("%-28s %8.1f ns/fila  %8.1f bytes/fila  (control %d)%n",
+                    etiqueta, nanosPorFila, (double) bytes / ((long) filas * repeticiones), control);
+        }
+        return nanosPorFila;
+    }
+
+    private static void prepararDatos(Connection conn, int filas) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS usuarios (id INT PRIMARY KEY, nombre VARCHAR(100), "
+                    + "email VARCHAR(100), fecha_nacimiento DATE, tipo_documento VARCHAR(10))");
+            stmt.execute("DELETE FROM usuarios");
+        }
+        try (PreparedStatement insert = conn.prepareStatement("INSERT INTO usuarios VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= filas; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "Usuario " + i);
+                insert.setString(3, "usuario" + i + "@ejemplo.com");
+                insert.setDate(4, i % 10 == 0 ? null : Date.valueOf(LocalDate.of(1970 + i % 40, 1 + i % 12, 1 + i % 28)));
+                insert.setString(5, i % 2 == 0 ? "DNI" : "NIE");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+}
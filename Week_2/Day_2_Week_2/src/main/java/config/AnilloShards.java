@@ -0,0 +1,137 @@
+package config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Anillo de hash consistente que asigna cada ID de usuario a uno de varios perfiles
+ * de database.properties (shards).
+ *
+ * Cada shard ocupa varios puntos del anillo (nodos virtuales) y un ID pertenece al primer
+ * punto que encuentra avanzando desde su hash. Al añadir un shard solo cambian de dueño
+ * los IDs que caen en sus nuevos puntos, aproximadamente 1/N del total, en lugar de casi
+ * todos como pasaría con id % N.
+ *
+ * Se configura en database.properties:
+ * <pre>
+ * usuarios.shards=mysql_shard_1,mysql_shard_2,mysql_shard_3
+ * usuarios.shards.nodosVirtuales=160   # puntos por shard (más puntos, reparto más uniforme)
+ * </pre>
+ */
+public final class AnilloShards {
+
+    public static final int NODOS_VIRTUALES_POR_DEFECTO = 160;
+
+    private final List<String> shards;
+    private final long[] posiciones;
+    private final String[] duenos;
+
+    /**
+     * @param shards Perfiles de database.properties que forman el anillo (el orden no importa)
+     * @param nodosVirtuales Puntos del anillo por shard
+     */
+    public AnilloShards(Collection<String> shards, int nodosVirtuales) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("El anillo necesita al menos un shard");
+        }
+        if (nodosVirtuales <= 0) {
+            throw new IllegalArgumentException("Los nodos virtuales deben ser mayores que cero: " + nodosVirtuales);
+        }
+        this.shards = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(shards)));
+
+        int total = this.shards.size() * nodosVirtuales;
+        long[] puntos = new long[total];
+        Integer[] orden = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            puntos[i] = hash(this.shards.get(i / nodosVirtuales) + "#" + (i % nodosVirtuales));
+            orden[i] = i;
+        }
+        Arrays.sort(orden, Comparator.comparingLong(i -> puntos[i]));
+
+        this.posiciones = new long[total];
+        this.duenos = new String[total];
+        for (int i = 0; i < total; i++) {
+            posiciones[i] = puntos[orden[i]];
+            duenos[i] = this.shards.get(orden[i] / nodosVirtuales);
+        }
+    }
+
+    /**
+     * Crea el anillo a partir de database.properties
+     * @param nombre Prefijo de las claves (por ejemplo "usuarios" para usuarios.shards)
+     * @return Anillo con los shards configurados
+     * @throws RuntimeException Si no hay shards configurados con ese nombre
+     */
+    public static AnilloShards desdeConfiguracion(String nombre) {
+        Properties props = RegistroPerfiles.propiedades();
+        String valor = props.getProperty(nombre + ".shards");
+        if (valor == null || valor.trim().isEmpty()) {
+            throw new RuntimeException("No hay shards configurados en " + nombre + ".shards");
+        }
+        List<String> shards = new ArrayList<>();
+        for (String shard : valor.split(",")) {
+            if (!shard.trim().isEmpty()) {
+                shards.add(shard.trim());
+            }
+        }
+        String nodos = props.getProperty(nombre + ".shards.nodosVirtuales");
+        try {
+            return new AnilloShards(shards, nodos == null || nodos.trim().isEmpty()
+                    ? NODOS_VIRTUALES_POR_DEFECTO : Integer.parseInt(nodos.trim()));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Valor no numérico para " + nombre + ".shards.nodosVirtuales: " + nodos, e);
+        }
+    }
+
+    /**
+     * @param id ID del usuario
+     * @return Perfil del shard que guarda ese ID
+     */
+    public String shardDe(int id) {
+        long clave = mezclar(id);
+        int i = Arrays.binarySearch(posiciones, clave);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        // Pasado el último punto se vuelve al principio del anillo
+        return duenos[i == posiciones.length ? 0 : i];
+    }
+
+    /**
+     * @return Perfiles de los shards, en el orden en que se configuraron
+     */
+    public List<String> getShards() {
+        return shards;
+    }
+
+    // FNV-1a de 64 bits seguido de la mezcla final de MurmurHash3 para repartir bien los bits
+    private static long hash(String texto) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : texto.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return mezclar(h);
+    }
+
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "AnilloShards" + shards;
+    }
+}
@@ -0,0 +1,611 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de conexiones JDBC para un perfil de database.properties.
+ *
+ * Las conexiones que entrega son envoltorios de una conexión física: al llamar a close()
+ * la conexión vuelve al pool en lugar de cerrarse. El pool se precalienta con
+ * pool.minSize conexiones, valida la conexión al prestarla si lleva un tiempo sin usarse
+ * y cierra periódicamente las conexiones inactivas que sobran por encima del mínimo.
+ *
+ * Cada conexión física guarda además sus sentencias preparadas (pool.statementCacheSize),
+ * indexadas por el texto SQL: cerrar una sentencia la deja lista para reutilizarse y
+ * volver a pedir el mismo SQL en esa conexión evita que el servidor la analice de nuevo.
+ */
+public class ConnectionPool {
+
+    private static final ScheduledExecutorService MANTENIMIENTO = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "pool-mantenimiento");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final String nombre;
+    private final DatabaseConfig config;
+    private final Semaphore permisos;
+    private final Deque<ConexionFisica> libres = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger totalFisicas = new AtomicInteger();
+    private final AtomicLong sentenciasReutilizadas = new AtomicLong();
+    private final AtomicLong sentenciasPreparadas = new AtomicLong();
+    // Transacciones explícitas (autoCommit desactivado) abiertas por cada hilo con conexiones de este pool
+    private final ThreadLocal<AtomicInteger> transaccionesHilo = ThreadLocal.withInitial(AtomicInteger::new);
+    private final ScheduledFuture<?> tareaMantenimiento;
+    private volatile boolean cerrado;
+
+    /**
+     * Crea el pool, registra el driver y abre las conexiones mínimas
+     * @param nombre Nombre del perfil (se usa en los mensajes)
+     * @param config Configuración del perfil
+     */
+    public ConnectionPool(String nombre, DatabaseConfig config) {
+        this.nombre = nombre;
+        this.config = config;
+        this.permisos = new Semaphore(config.getPoolMaxSize(), true);
+
+        RegistroPerfiles.registrarDriver(config.getDbDriver());
+
+        precalentar();
+
+        long periodo = Math.max(1_000L, Math.min(config.getPoolIdleTimeoutMs() / 2, 30_000L));
+        this.tareaMantenimiento = MANTENIMIENTO.scheduleWithFixedDelay(
+                this::mantener, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Presta una conexión del pool. Debe cerrarse (try-with-resources) para devolverla.
+     * @return Conexión prestada
+     * @throws SQLException Si no hay conexiones disponibles dentro del timeout o falla la conexión
+     */
+    public Connection obtenerConexion() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones " + nombre + " está cerrado");
+        }
+
+        boolean permiso;
+        try {
+            permiso = permisos.tryAcquire(config.getPoolConnectionTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando una conexión del pool " + nombre, e);
+        }
+        if (!permiso) {
+            throw new SQLTimeoutException("No hay conexiones disponibles en el pool " + nombre + " tras "
+                    + config.getPoolConnectionTimeoutMs() + " ms (máximo " + config.getPoolMaxSize() + ")");
+        }
+
+        try {
+            ConexionFisica fisica;
+            while ((fisica = libres.pollFirst()) != null) {
+                if (esValida(fisica)) {
+                    return envolver(fisica);
+                }
+                descartar(fisica);
+            }
+            return envolver(crearFisica());
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones libres. Las prestadas se cierran al devolverse.
+     */
+    public void cerrar() {
+        cerrado = true;
+        tareaMantenimiento.cancel(false);
+        ConexionFisica fisica;
+        while ((fisica = libres.pollFirst()) != null) {
+            descartar(fisica);
+        }
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getTotalConexiones() {
+        return totalFisicas.get();
+    }
+
+    public int getConexionesLibres() {
+        return libres.size();
+    }
+
+    public int getConexionesActivas() {
+        return config.getPoolMaxSize() - permisos.availablePermits();
+    }
+
+    /**
+     * @return Sentencias preparadas servidas desde la caché de la conexión
+     */
+    public long getSentenciasReutilizadas() {
+        return sentenciasReutilizadas.get();
+    }
+
+    /**
+     * @return Sentencias que hubo que preparar en el servidor porque no estaban en la caché
+     */
+    public long getSentenciasPreparadas() {
+        return sentenciasPreparadas.get();
+    }
+
+    /**
+     * @return true si el hilo actual tiene una conexión de este pool con autoCommit desactivado
+     */
+    public boolean hayTransaccionEnCurso() {
+        return transaccionesHilo.get().get() > 0;
+    }
+
+    private void precalentar() {
+        for (int i = totalFisicas.get(); i < config.getPoolMinSize(); i++) {
+            try {
+                libres.offerLast(crearFisica());
+            } catch (SQLException e) {
+                System.err.println("No se pudo precalentar el pool " + nombre + ": " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Tarea periódica: cierra las conexiones inactivas por encima del mínimo y repone hasta el mínimo
+     */
+    private void mantener() {
+        if (cerrado) {
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        for (ConexionFisica fisica : libres) {
+            boolean sobra = totalFisicas.get() > config.getPoolMaxSize()
+                    || (totalFisicas.get() > config.getPoolMinSize()
+                    && ahora - fisica.ultimoUso > config.getPoolIdleTimeoutMs());
+            if (sobra && libres.remove(fisica)) {
+                descartar(fisica);
+            }
+        }
+        precalentar();
+    }
+
+    private ConexionFisica crearFisica() throws SQLException {
+        Properties propiedades = new Properties();
+        propiedades.setProperty("user", config.getDbUser());
+        propiedades.setProperty("password", config.getDbPassword());
+        if (config.getDbUrl().startsWith("jdbc:mysql:")) {
+            // Permite cursores en el servidor cuando una sentencia pide un fetchSize positivo
+            propiedades.setProperty("useCursorFetch", "true");
+            // Convierte los lotes de INSERT en sentencias multi-fila (un viaje por lote)
+            propiedades.setProperty("rewriteBatchedStatements", "true");
+            // Sentencias preparadas en el servidor: se analizan una vez y se reutilizan desde la caché
+            propiedades.setProperty("useServerPrepStmts", "true");
+        }
+
+        Connection conexion = DriverManager.getConnection(config.getDbUrl(), propiedades);
+        try {
+            ConexionFisica fisica = new ConexionFisica(conexion, config.getPoolStatementCacheSize());
+            totalFisicas.incrementAndGet();
+            return fisica;
+        } catch (SQLException e) {
+            conexion.close();
+            throw e;
+        }
+    }
+
+    private boolean esValida(ConexionFisica fisica) {
+        if (System.currentTimeMillis() - fisica.ultimoUso < config.getPoolValidationIntervalMs()) {
+            return true;
+        }
+        try {
+            return fisica.conexion.isValid(config.getPoolValidationTimeoutSec());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection envolver(ConexionFisica fisica) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConexionPrestada(this, fisica));
+    }
+
+    /**
+     * Devuelve una conexión física al pool, restaurando su estado, o la descarta si está rota
+     */
+    private void devolver(ConexionFisica fisica) {
+        try {
+            if (cerrado || fisica.rota || !restablecer(fisica)) {
+                descartar(fisica);
+            } else {
+                fisica.ultimoUso = System.currentTimeMillis();
+                libres.offerFirst(fisica);
+            }
+        } finally {
+            permisos.release();
+        }
+    }
+
+    private boolean restablecer(ConexionFisica fisica) {
+        try {
+            Connection conexion = fisica.conexion;
+            if (!conexion.getAutoCommit()) {
+                conexion.rollback();
+                conexion.setAutoCommit(true);
+            }
+            if (fisica.estadoModificado) {
+                conexion.setReadOnly(fisica.readOnlyInicial);
+                conexion.setTransactionIsolation(fisica.aislamientoInicial);
+                if (fisica.catalogoInicial != null) {
+                    conexion.setCatalog(fisica.catalogoInicial);
+                }
+                fisica.estadoModificado = false;
+            }
+            conexion.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void descartar(ConexionFisica fisica) {
+        totalFisicas.decrementAndGet();
+        try {
+            fisica.conexion.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar conexión del pool " + nombre + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Conexión física junto con su estado inicial, para restaurarlo al devolverla
+     */
+    private static class ConexionFisica {
+        private final Connection conexion;
+        private final boolean readOnlyInicial;
+        private final int aislamientoInicial;
+        private final String catalogoInicial;
+        private volatile long ultimoUso;
+        private volatile boolean rota;
+        private volatile boolean estadoModificado;
+        // Sentencias libres por clave; solo la usa quien tiene la conexión prestada
+        private final Map<String, PreparedStatement> sentencias;
+
+        ConexionFisica(Connection conexion, int tamanoCacheSentencias) throws SQLException {
+            this.conexion = conexion;
+            this.readOnlyInicial = conexion.isReadOnly();
+            this.aislamientoInicial = conexion.getTransactionIsolation();
+            this.catalogoInicial = conexion.getCatalog();
+            this.ultimoUso = System.currentTimeMillis();
+            this.sentencias = tamanoCacheSentencias <= 0 ? null
+                    : new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> mayor) {
+                    if (size() > tamanoCacheSentencias) {
+                        cerrarSentencia(mayor.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        /**
+         * Guarda una sentencia ya limpia para reutilizarla; si ya había otra con la misma clave se cierra
+         */
+        void guardarSentencia(String clave, PreparedStatement sentencia) {
+            PreparedStatement anterior = sentencias.put(clave, sentencia);
+            if (anterior != null && anterior != sentencia) {
+                cerrarSentencia(anterior);
+            }
+        }
+
+        static void cerrarSentencia(PreparedStatement sentencia) {
+            try {
+                sentencia.close();
+            } catch (SQLException e) {
+                // La sentencia se descarta igualmente
+            }
+        }
+    }
+
+    /**
+     * Manejador del proxy que se entrega al usuario: close() devuelve la conexión al pool
+     */
+    private static class ConexionPrestada implements InvocationHandler {
+        private final ConnectionPool pool;
+        private final ConexionFisica fisica;
+        private final List<SentenciaCacheada> sentenciasAbiertas = new ArrayList<>();
+        // Registra el préstamo en MonitorConexiones sin añadir otro proxy encima de este
+        private final MonitorConexiones.Prestamo prestamo;
+        // Contador del hilo que abrió la transacción, para descontarla aunque se cierre desde otro hilo
+        private AtomicInteger transaccionAbierta;
+        private boolean devuelta;
+
+        ConexionPrestada(ConnectionPool pool, ConexionFisica fisica) {
+            this.pool = pool;
+            this.fisica = fisica;
+            this.prestamo = MonitorConexiones.prestar(pool.nombre);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!devuelta) {
+                        // Las sentencias que sigan abiertas vuelven a la caché antes de soltar la conexión
+                        for (SentenciaCacheada sentencia : new ArrayList<>(sentenciasAbiertas)) {
+                            sentencia.cerrar();
+                        }
+                        marcarTransaccion(false);
+                        devuelta = true;
+                        prestamo.devolver();
+                        pool.devolver(fisica);
+                    }
+                    return null;
+                case "prepareStatement":
+                    if (!devuelta && fisica.sentencias != null) {
+                        return prepararCacheada((Connection) proxy, method, args);
+                    }
+                    break;
+                case "isClosed":
+                    return devuelta;
+                case "isValid":
+                    if (devuelta) {
+                        return false;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPool[" + pool.nombre + "] " + fisica.conexion;
+                case "setAutoCommit":
+                    if (!devuelta) {
+                        invocar(method, args);
+                        marcarTransaccion(!(Boolean) args[0]);
+                        return null;
+                    }
+                    break;
+                case "setReadOnly":
+                case "setTransactionIsolation":
+                case "setCatalog":
+                case "setSchema":
+                    fisica.estadoModificado = true;
+                    break;
+                default:
+                    break;
+            }
+
+            if (devuelta) {
+                throw new SQLException("La conexión ya fue devuelta al pool " + pool.nombre);
+            }
+            return invocar(method, args);
+        }
+
+        private Object invocar(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(fisica.conexion, args);
+            } catch (InvocationTargetException e) {
+                throw comprobarError(fisica, e.getCause());
+            }
+        }
+
+        private void marcarTransaccion(boolean abierta) {
+            if (abierta && transaccionAbierta == null) {
+                transaccionAbierta = pool.transaccionesHilo.get();
+                transaccionAbierta.incrementAndGet();
+            } else if (!abierta && transaccionAbierta != null) {
+                transaccionAbierta.decrementAndGet();
+                transaccionAbierta = null;
+            }
+        }
+
+        private PreparedStatement prepararCacheada(Connection proxy, Method method, Object[] args) throws Throwable {
+            // La clave incluye los argumentos extra (claves generadas, tipo de ResultSet...)
+            String clave = args.length == 1 ? (String) args[0]
+                    : args[0] + "\u0000" + Arrays.deepToString(Arrays.copyOfRange(args, 1, args.length));
+
+            PreparedStatement real = fisica.sentencias.remove(clave);
+            if (real != null && !real.isClosed()) {
+                pool.sentenciasReutilizadas.incrementAndGet();
+            } else {
+                try {
+                    real = (PreparedStatement) method.invoke(fisica.conexion, args);
+                } catch (InvocationTargetException e) {
+                    throw comprobarError(fisica, e.getCause());
+                }
+                pool.sentenciasPreparadas.incrementAndGet();
+            }
+
+            SentenciaCacheada sentencia = new SentenciaCacheada(this, proxy, clave, real);
+            sentenciasAbiertas.add(sentencia);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    sentencia);
+        }
+    }
+
+    /**
+     * Marca la conexión física como rota si el error es de conexión y devuelve el error para relanzarlo
+     */
+    private static Throwable comprobarError(ConexionFisica fisica, Throwable causa) {
+        if (causa instanceof SQLException) {
+            String estado = ((SQLException) causa).getSQLState();
+            // Clase 08: error de conexión, la conexión física ya no es reutilizable
+            if (estado != null && estado.startsWith("08")) {
+                fisica.rota = true;
+            }
+        }
+        return causa;
+    }
+
+    /**
+     * Manejador del proxy de una sentencia de la caché: close() la limpia y la devuelve a la
+     * caché de la conexión en lugar de cerrarla en el servidor
+     */
+    private static class SentenciaCacheada implements InvocationHandler {
+        private final ConexionPrestada conexion;
+        private final Connection proxyConexion;
+        private final String clave;
+        private final PreparedStatement real;
+        // Todos los ResultSet entregados, no solo el último (getGeneratedKeys, getResultSet...)
+        private final List<ResultSet> resultados = new ArrayList<>();
+        private boolean cerrada;
+        // Valores originales de la configuración que se restauran al devolver la sentencia
+        private boolean configuracionGuardada;
+        private int fetchSizeInicial;
+        private int maxRowsInicial;
+        private int queryTimeoutInicial;
+        // Cambios que no se saben deshacer: la sentencia se cierra en lugar de reutilizarse
+        private boolean noReutilizable;
+
+        SentenciaCacheada(ConexionPrestada conexion, Connection proxyConexion, String clave, PreparedStatement real) {
+            this.conexion = conexion;
+            this.proxyConexion = proxyConexion;
+            this.clave = clave;
+            this.real = real;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    cerrar();
+                    return null;
+                case "isClosed":
+                    return cerrada;
+                case "getConnection":
+                    return proxyConexion;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SentenciaCacheada[" + clave + "]";
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setQueryTimeout":
+                    guardarConfiguracion();
+                    break;
+                case "setFetchDirection":
+                case "setMaxFieldSize":
+                case "setLargeMaxRows":
+                case "setEscapeProcessing":
+                case "setCursorName":
+                case "setPoolable":
+                case "closeOnCompletion":
+                    noReutilizable = true;
+                    break;
+                default:
+                    break;
+            }
+
+            if (cerrada) {
+                throw new SQLException("La sentencia ya está cerrada");
+            }
+
+            try {
+                Object resultado = method.invoke(real, args);
+                if (resultado instanceof ResultSet) {
+                    guardarResultado((ResultSet) resultado);
+                }
+                return resultado;
+            } catch (InvocationTargetException e) {
+                throw comprobarError(conexion.fisica, e.getCause());
+            }
+        }
+
+        // Se olvidan los que ya están cerrados para que la lista no crezca con cada ejecución
+        private void guardarResultado(ResultSet resultado) {
+            resultados.removeIf(SentenciaCacheada::estaCerrado);
+            resultados.add(resultado);
+        }
+
+        private static boolean estaCerrado(ResultSet resultado) {
+            try {
+                return resultado.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+
+        private void guardarConfiguracion() throws SQLException {
+            if (!configuracionGuardada && !cerrada) {
+                fetchSizeInicial = real.getFetchSize();
+                maxRowsInicial = real.getMaxRows();
+                queryTimeoutInicial = real.getQueryTimeout();
+                configuracionGuardada = true;
+            }
+        }
+
+        /**
+         * Cierra los ResultSet que siguen abiertos, limpia parámetros y configuración y devuelve la sentencia a la caché
+         */
+        void cerrar() {
+            if (cerrada) {
+                return;
+            }
+            cerrada = true;
+            conexion.sentenciasAbiertas.remove(this);
+
+            boolean reutilizable = !noReutilizable && !conexion.fisica.rota;
+            for (ResultSet resultado : resultados) {
+                try {
+                    resultado.close();
+                } catch (SQLException e) {
+                    reutilizable = false;
+                }
+            }
+            resultados.clear();
+
+            try {
+                if (reutilizable) {
+                    real.clearParameters();
+                    real.clearBatch();
+                    real.clearWarnings();
+                    if (configuracionGuardada) {
+                        real.setFetchSize(fetchSizeInicial);
+                        real.setMaxRows(maxRowsInicial);
+                        real.setQueryTimeout(queryTimeoutInicial);
+                    }
+                }
+            } catch (SQLException e) {
+                reutilizable = false;
+            }
+
+            if (reutilizable) {
+                conexion.fisica.guardarSentencia(clave, real);
+            } else {
+                ConexionFisica.cerrarSentencia(real);
+            }
+        }
+    }
+}
@@ -1,29 +1,76 @@
 package config;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 import java.util.Properties;
 
+/**
+ * Configuración inmutable de un perfil de base de datos leída de database.properties.
+ * Las propiedades se leen una sola vez a través de {@link RegistroPerfiles}.
+ *
+ * Además de las claves obligatorias (url, user, password, driver) admite
+ * parámetros opcionales para el pool de conexiones del perfil:
+ * <pre>
+ * mysql_origen.pool.minSize=2                 # conexiones precalentadas al crear el pool
+ * mysql_origen.pool.maxSize=10                # máximo de conexiones físicas abiertas
+ * mysql_origen.pool.idleTimeoutMs=600000      # tiempo inactiva antes de cerrarse
+ * mysql_origen.pool.connectionTimeoutMs=30000 # espera máxima para obtener una conexión
+ * mysql_origen.pool.validationTimeoutSec=2    # timeout de isValid() al prestar
+ * mysql_origen.pool.validationIntervalMs=500  # no se revalida si se usó hace menos de esto
+ * mysql_origen.pool.statementCacheSize=64    # sentencias preparadas guardadas por conexión (0 = sin caché)
+ * </pre>
+ *
+ * Un perfil puede declarar réplicas de solo lectura, que son a su vez perfiles del mismo
+ * fichero. {@link DatabaseConnection#getConnectionLectura(String)} reparte entre ellas las lecturas:
+ * <pre>
+ * mysql_origen.replicas=mysql_replica_1,mysql_replica_2
+ * mysql_origen.replicas.maxLagSec=10          # retraso de replicación máximo admitido
+ * mysql_origen.replicas.checkIntervalMs=5000  # cada cuánto se comprueba el retraso de una réplica
+ * </pre>
+ */
 public class DatabaseConfig {
 
+    private static final int POOL_MIN_POR_DEFECTO = 2;
+    private static final int POOL_MAX_POR_DEFECTO = 10;
+    private static final long IDLE_TIMEOUT_POR_DEFECTO_MS = 600_000L;
+    private static final long CONNECTION_TIMEOUT_POR_DEFECTO_MS = 30_000L;
+    private static final int VALIDATION_TIMEOUT_POR_DEFECTO_SEG = 2;
+    private static final long VALIDATION_INTERVAL_POR_DEFECTO_MS = 500L;
+    private static final int STATEMENT_CACHE_POR_DEFECTO = 64;
+    private static final int REPLICA_MAX_LAG_POR_DEFECTO_SEG = 10;
+    private static final long REPLICA_CHECK_INTERVAL_POR_DEFECTO_MS = 5_000L;
 
+    private final String tipoBD;
     private final String dbUrl;
     private final String dbUser;
     private final String dbPassword;
     private final String dbDriver;
 
-    public DatabaseConfig(String tipoBD) {
-        Properties props = new Properties();
+    private final int poolMinSize;
+    private final int poolMaxSize;
+    private final long poolIdleTimeoutMs;
+    private final long poolConnectionTimeoutMs;
+    private final int poolValidationTimeoutSec;
+    private final long poolValidationIntervalMs;
+    private final int poolStatementCacheSize;
 
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream("database.properties")) {
-            if (input == null) {
-                throw new RuntimeException("No se encontró el archivo database.properties");
-            }
-            props.load(input);
-        } catch (IOException e) {
-            throw new RuntimeException("Error al cargar las propiedades de la base de datos", e);
-        }
+    private final List<String> replicas;
+    private final int replicaMaxLagSec;
+    private final long replicaCheckIntervalMs;
 
+    public DatabaseConfig(String tipoBD) {
+        this(tipoBD, RegistroPerfiles.propiedades());
+    }
+
+    /**
+     * Construye la configuración de un perfil a partir de unas propiedades ya cargadas
+     * @param tipoBD Nombre del perfil (prefijo de las claves)
+     * @param props Propiedades con las claves del perfil
+     */
+    public DatabaseConfig(String tipoBD, Properties props) {
+        this.tipoBD = tipoBD;
         this.dbUrl = props.getProperty(tipoBD + ".url");
         this.dbUser = props.getProperty(tipoBD + ".user");
         this.dbPassword = props.getProperty(tipoBD + ".password");
@@ -32,6 +79,67 @@ public class DatabaseConfig {
         if (dbUrl == null || dbUser == null || dbPassword == null || dbDriver == null) {
             throw new RuntimeException("Faltan parámetros para la base de datos: " + tipoBD);
         }
+
+        this.poolMaxSize = leerEntero(props, tipoBD + ".pool.maxSize", POOL_MAX_POR_DEFECTO);
+        this.poolMinSize = Math.min(leerEntero(props, tipoBD + ".pool.minSize", POOL_MIN_POR_DEFECTO), poolMaxSize);
+        this.poolIdleTimeoutMs = leerLong(props, tipoBD + ".pool.idleTimeoutMs", IDLE_TIMEOUT_POR_DEFECTO_MS);
+        this.poolConnectionTimeoutMs = leerLong(props, tipoBD + ".pool.connectionTimeoutMs", CONNECTION_TIMEOUT_POR_DEFECTO_MS);
+        this.poolValidationTimeoutSec = leerEntero(props, tipoBD + ".pool.validationTimeoutSec", VALIDATION_TIMEOUT_POR_DEFECTO_SEG);
+        this.poolValidationIntervalMs = leerLong(props, tipoBD + ".pool.validationIntervalMs", VALIDATION_INTERVAL_POR_DEFECTO_MS);
+        this.poolStatementCacheSize = Math.max(0, leerEntero(props, tipoBD + ".pool.statementCacheSize", STATEMENT_CACHE_POR_DEFECTO));
+
+        if (poolMaxSize <= 0) {
+            throw new RuntimeException("El tamaño máximo del pool debe ser mayor que cero: " + tipoBD);
+        }
+
+        this.replicas = leerLista(props, tipoBD + ".replicas");
+        if (replicas.contains(tipoBD)) {
+            throw new RuntimeException("Un perfil no puede ser réplica de sí mismo: " + tipoBD);
+        }
+        this.replicaMaxLagSec = leerEntero(props, tipoBD + ".replicas.maxLagSec", REPLICA_MAX_LAG_POR_DEFECTO_SEG);
+        this.replicaCheckIntervalMs = leerLong(props, tipoBD + ".replicas.checkIntervalMs", REPLICA_CHECK_INTERVAL_POR_DEFECTO_MS);
+    }
+
+    private static List<String> leerLista(Properties props, String clave) {
+        String valor = props.getProperty(clave);
+        if (valor == null || valor.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> elementos = new ArrayList<>();
+        for (String elemento : valor.split(",")) {
+            if (!elemento.trim().isEmpty() && !elementos.contains(elemento.trim())) {
+                elementos.add(elemento.trim());
+            }
+        }
+        return Collections.unmodifiableList(elementos);
+    }
+
+    private static int leerEntero(Properties props, String clave, int porDefecto) {
+        String valor = props.getProperty(clave);
+        if (valor == null || valor.trim().isEmpty()) {
+            return porDefecto;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Valor no numérico para " + clave + ": " + valor, e);
+        }
+    }
+
+    private static long leerLong(Properties props, String clave, long porDefecto) {
+        String valor = props.getProperty(clave);
+        if (valor == null || valor.trim().isEmpty()) {
+            return porDefecto;
+        }
+        try {
+            return Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Valor no numérico para " + clave + ": " + valor, e);
+        }
+    }
+
+    public String getTipoBD() {
+        return tipoBD;
     }
 
     public String getDbUrl() {
@@ -49,4 +157,78 @@ public class DatabaseConfig {
     public String getDbDriver() {
         return dbDriver;
     }
+
+    public int getPoolMinSize() {
+        return poolMinSize;
+    }
+
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public long getPoolIdleTimeoutMs() {
+        return poolIdleTimeoutMs;
+    }
+
+    public long getPoolConnectionTimeoutMs() {
+        return poolConnectionTimeoutMs;
+    }
+
+    public int getPoolValidationTimeoutSec() {
+        return poolValidationTimeoutSec;
+    }
+
+    public long getPoolValidationIntervalMs() {
+        return poolValidationIntervalMs;
+    }
+
+    public int getPoolStatementCacheSize() {
+        return poolStatementCacheSize;
+    }
+
+    /**
+     * @return Perfiles réplica para lecturas (vacía si el perfil no tiene réplicas)
+     */
+    public List<String> getReplicas() {
+        return replicas;
+    }
+
+    public int getReplicaMaxLagSec() {
+        return replicaMaxLagSec;
+    }
+
+    public long getReplicaCheckIntervalMs() {
+        return replicaCheckIntervalMs;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DatabaseConfig)) {
+            return false;
+        }
+        DatabaseConfig otra = (DatabaseConfig) o;
+        return tipoBD.equals(otra.tipoBD)
+                && dbUrl.equals(otra.dbUrl)
+                && dbUser.equals(otra.dbUser)
+                && dbPassword.equals(otra.dbPassword)
+                && dbDriver.equals(otra.dbDriver)
+                && poolMinSize == otra.poolMinSize
+                && poolMaxSize == otra.poolMaxSize
+                && poolIdleTimeoutMs == otra.poolIdleTimeoutMs
+                && poolConnectionTimeoutMs == otra.poolConnectionTimeoutMs
+                && poolValidationTimeoutSec == otra.poolValidationTimeoutSec
+                && poolValidationIntervalMs == otra.poolValidationIntervalMs
+                && poolStatementCacheSize == otra.poolStatementCacheSize
+                && replicas.equals(otra.replicas)
+                && replicaMaxLagSec == otra.replicaMaxLagSec
+                && replicaCheckIntervalMs == otra.replicaCheckIntervalMs;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tipoBD, dbUrl, dbUser, dbDriver, poolMinSize, poolMaxSize);
+    }
 }
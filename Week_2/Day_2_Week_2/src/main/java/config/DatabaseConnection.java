@@ -1,28 +1,104 @@
 package config;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Punto de acceso a las conexiones de cada perfil de database.properties.
+ * Cada perfil tiene su propio {@link ConnectionPool}, que se crea la primera vez que se pide.
+ *
+ * Las consultas de solo lectura pueden pedir la conexión con {@link #getConnectionLectura(String)},
+ * que la toma de una réplica del perfil si las tiene declaradas. Las escrituras y las
+ * transacciones explícitas usan siempre {@link #getConnection(String)}.
+ */
 public class DatabaseConnection {
 
-    public static Connection getConnection(String tipoBD) throws SQLException {
-        DatabaseConfig config = new DatabaseConfig(tipoBD);
+    private static final ConcurrentMap<String, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, EnrutadorLecturas> ENRUTADORES = new ConcurrentHashMap<>();
 
-        try {
-            Class.forName(config.getDbDriver());
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException("No se pudo cargar el driver JDBC: " + e.getMessage(), e);
-        }
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseConnection::cerrarPools, "cierre-pools"));
+        // Si cambia la configuración de un perfil se retira su pool: las conexiones prestadas
+        // siguen funcionando y se cierran al devolverse; la siguiente petición crea un pool nuevo
+        RegistroPerfiles.alCambiarPerfil(DatabaseConnection::retirarPool);
+    }
 
+    /**
+     * Obtiene una conexión del pool del perfil indicado. Cerrarla la devuelve al pool.
+     * @param tipoBD Perfil de database.properties (mysql_origen, mysql_tl, oracle...)
+     * @return Conexión prestada
+     * @throws SQLException Si no se pudo obtener la conexión
+     */
+    public static Connection getConnection(String tipoBD) throws SQLException {
         try {
-            return DriverManager.getConnection(
-                    config.getDbUrl(),
-                    config.getDbUser(),
-                    config.getDbPassword()
-            );
+            return obtenerPool(tipoBD).obtenerConexion();
         } catch (SQLException e) {
-            throw new SQLException("Error al conectar con la base de datos: " + e.getMessage(), e);
+            throw new SQLException("Error al conectar con la base de datos: " + e.getMessage(), e.getSQLState(), e);
+        }
+    }
+
+    /**
+     * Obtiene una conexión de solo lectura para el perfil indicado. Si el perfil declara réplicas
+     * se reparte entre ellas por turnos, saltando las que no responden o van retrasadas; si no
+     * tiene, ninguna está disponible o el hilo tiene abierta una transacción en el principal,
+     * la conexión sale del principal. Puede devolver datos con unos segundos de retraso
+     * respecto a las últimas escrituras.
+     * @param tipoBD Perfil principal de database.properties
+     * @return Conexión prestada de una réplica o del principal
+     * @throws SQLException Si no se pudo obtener la conexión del principal
+     */
+    public static Connection getConnectionLectura(String tipoBD) throws SQLException {
+        DatabaseConfig config = RegistroPerfiles.obtener(tipoBD);
+        if (!config.getReplicas().isEmpty() && !obtenerPool(tipoBD).hayTransaccionEnCurso()) {
+            Connection replica = ENRUTADORES.computeIfAbsent(tipoBD, tipo -> new EnrutadorLecturas(config))
+                    .obtenerConexion();
+            if (replica != null) {
+                return replica;
+            }
+        }
+        return getConnection(tipoBD);
+    }
+
+    /**
+     * Crea (si no existen) y precalienta los pools de los perfiles indicados.
+     * Pensado para llamarse al arrancar la aplicación.
+     * @param tiposBD Perfiles a precalentar
+     */
+    public static void precalentar(String... tiposBD) {
+        for (String tipoBD : tiposBD) {
+            try {
+                obtenerPool(tipoBD);
+            } catch (RuntimeException e) {
+                System.err.println("No se pudo crear el pool para " + tipoBD + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Obtiene el pool de un perfil, creándolo si es la primera vez
+     * @param tipoBD Perfil de database.properties
+     * @return Pool del perfil
+     */
+    public static ConnectionPool obtenerPool(String tipoBD) {
+        return POOLS.computeIfAbsent(tipoBD, tipo -> new ConnectionPool(tipo, RegistroPerfiles.obtener(tipo)));
+    }
+
+    private static void retirarPool(String tipoBD) {
+        ENRUTADORES.remove(tipoBD);
+        ConnectionPool pool = POOLS.remove(tipoBD);
+        if (pool != null) {
+            pool.cerrar();
+        }
+    }
+
+    /**
+     * Cierra todos los pools abiertos
+     */
+    public static void cerrarPools() {
+        for (String tipoBD : POOLS.keySet()) {
+            retirarPool(tipoBD);
         }
     }
 
@@ -0,0 +1,129 @@
+package config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reparte las lecturas de un perfil principal entre sus réplicas por turnos.
+ *
+ * Cada réplica se comprueba como mucho una vez por replicas.checkIntervalMs, aprovechando
+ * la propia conexión que se va a entregar: en MySQL se consulta Seconds_Behind_Master y la
+ * réplica se descarta si supera replicas.maxLagSec o si la replicación está parada. Una réplica
+ * descartada o que no responde se vuelve a probar al cumplirse el intervalo.
+ */
+class EnrutadorLecturas {
+
+    private final String perfil;
+    private final int maxLagSec;
+    private final long intervaloComprobacionNanos;
+    private final List<EstadoReplica> replicas = new ArrayList<>();
+    private final AtomicInteger turno = new AtomicInteger();
+
+    EnrutadorLecturas(DatabaseConfig config) {
+        this.perfil = config.getTipoBD();
+        this.maxLagSec = config.getReplicaMaxLagSec();
+        this.intervaloComprobacionNanos = TimeUnit.MILLISECONDS.toNanos(config.getReplicaCheckIntervalMs());
+        for (String replica : config.getReplicas()) {
+            replicas.add(new EstadoReplica(replica));
+        }
+    }
+
+    /**
+     * Presta una conexión de solo lectura de la siguiente réplica disponible
+     * @return Conexión de una réplica, o null si ninguna está disponible
+     */
+    Connection obtenerConexion() {
+        int inicio = Math.floorMod(turno.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            EstadoReplica replica = replicas.get((inicio + i) % replicas.size());
+            long ahora = System.nanoTime();
+            if (!replica.sana && ahora - replica.ultimaComprobacion < intervaloComprobacionNanos) {
+                continue;
+            }
+
+            Connection conn = null;
+            try {
+                conn = DatabaseConnection.obtenerPool(replica.perfil).obtenerConexion();
+                if (ahora - replica.ultimaComprobacion >= intervaloComprobacionNanos
+                        && replica.comprobando.compareAndSet(false, true)) {
+                    try {
+                        comprobar(replica, conn);
+                    } finally {
+                        replica.ultimaComprobacion = System.nanoTime();
+                        replica.comprobando.set(false);
+                    }
+                }
+                if (replica.sana) {
+                    conn.setReadOnly(true);
+                    return conn;
+                }
+            } catch (SQLException | RuntimeException e) {
+                marcar(replica, false, "no responde: " + e.getMessage());
+                replica.ultimaComprobacion = System.nanoTime();
+            }
+            DatabaseConnection.closeConnection(conn);
+        }
+        return null;
+    }
+
+    private void comprobar(EstadoReplica replica, Connection conn) throws SQLException {
+        if (!esMySQL(conn)) {
+            // Sin forma estándar de medir el retraso: basta con que el pool la haya validado
+            marcar(replica, true, null);
+            return;
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW SLAVE STATUS")) {
+            if (!rs.next()) {
+                // El servidor no está configurado como réplica: no hay retraso que medir
+                marcar(replica, true, null);
+                return;
+            }
+            long retraso = rs.getLong("Seconds_Behind_Master");
+            if (rs.wasNull()) {
+                marcar(replica, false, "la replicación está parada");
+            } else if (retraso > maxLagSec) {
+                marcar(replica, false, "retraso de " + retraso + " s (máximo " + maxLagSec + " s)");
+            } else {
+                marcar(replica, true, null);
+            }
+        }
+    }
+
+    private static boolean esMySQL(Connection conn) throws SQLException {
+        String url = conn.getMetaData().getURL();
+        return url != null && (url.startsWith("jdbc:mysql:") || url.startsWith("jdbc:mariadb:"));
+    }
+
+    private void marcar(EstadoReplica replica, boolean sana, String motivo) {
+        if (replica.sana != sana) {
+            if (sana) {
+                System.out.println("Réplica " + replica.perfil + " de " + perfil + " disponible de nuevo");
+            } else {
+                System.err.println("Réplica " + replica.perfil + " de " + perfil + " descartada: " + motivo);
+            }
+        }
+        replica.sana = sana;
+    }
+
+    /**
+     * Último resultado conocido de la comprobación de una réplica
+     */
+    private static class EstadoReplica {
+        private final String perfil;
+        private final AtomicBoolean comprobando = new AtomicBoolean();
+        private volatile boolean sana = true;
+        private volatile long ultimaComprobacion = System.nanoTime() - Long.MAX_VALUE / 2;
+
+        EstadoReplica(String perfil) {
+            this.perfil = perfil;
+        }
+    }
+}
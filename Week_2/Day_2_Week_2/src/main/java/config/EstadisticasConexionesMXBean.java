@@ -0,0 +1,31 @@
+package config;
+
+/**
+ * Métricas de préstamo de conexiones de un perfil, publicadas por JMX como
+ * config:type=MonitorConexiones,perfil=&lt;perfil&gt;
+ */
+public interface EstadisticasConexionesMXBean {
+
+    String getPerfil();
+
+    /** Conexiones entregadas que aún no se han cerrado */
+    int getConexionesActivas();
+
+    /** Máximo de conexiones activas a la vez desde el arranque */
+    int getMaximoConexionesActivas();
+
+    /** Conexiones entregadas desde el arranque */
+    long getPrestamosTotales();
+
+    /** Tiempo medio entre obtener y cerrar una conexión */
+    double getTiempoMedioPrestamoMs();
+
+    /** Préstamo más largo ya cerrado */
+    long getTiempoMaximoPrestamoMs();
+
+    /** Préstamos que superaron el umbral de fuga (incluidos los que se cerraron después) */
+    long getFugasDetectadas();
+
+    /** Hilo y, con conexiones.capturarPila, pila de llamadas de cada conexión que ahora mismo supera el umbral */
+    String[] getFugasActuales();
+}
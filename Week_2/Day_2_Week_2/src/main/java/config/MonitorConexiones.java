@@ -0,0 +1,309 @@
+package config;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentación de las conexiones que se entregan a la aplicación.
+ *
+ * Por cada perfil registra cuántas conexiones hay prestadas y cuánto tiempo se retienen.
+ * Si una conexión sigue abierta más allá del umbral de fuga se avisa por consola con el hilo
+ * que la obtuvo. Las métricas se publican por JMX y en una línea periódica por consola.
+ *
+ * Para localizar el código que no cierra la conexión se puede guardar además la pila de
+ * llamadas de cada préstamo, que sale en el aviso. Capturarla cuesta en cada préstamo, así que
+ * viene desactivado, como la detección de fugas de otros pools.
+ *
+ * Se configura con propiedades del sistema:
+ * <pre>
+ * -Dconexiones.umbralFugaMs=30000   # tiempo prestada a partir del cual se considera fuga (0 = no comprobar)
+ * -Dconexiones.capturarPila=false   # guardar la pila de quien obtiene cada conexión para los avisos de fuga
+ * -Dconexiones.intervaloLogSeg=60   # cada cuánto se imprime la línea de métricas (0 = nunca)
+ * </pre>
+ */
+public final class MonitorConexiones {
+
+    private static final long UMBRAL_FUGA_MS = Long.getLong("conexiones.umbralFugaMs", 30_000L);
+    private static final boolean CAPTURAR_PILA = UMBRAL_FUGA_MS > 0 && Boolean.getBoolean("conexiones.capturarPila");
+    private static final long INTERVALO_LOG_SEG = Long.getLong("conexiones.intervaloLogSeg", 60L);
+
+    private static final ConcurrentMap<String, EstadisticasConexiones> PERFILES = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService TAREAS = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "monitor-conexiones");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    static {
+        if (UMBRAL_FUGA_MS > 0) {
+            long periodo = Math.max(1_000L, UMBRAL_FUGA_MS / 4);
+            TAREAS.scheduleWithFixedDelay(MonitorConexiones::buscarFugas, periodo, periodo, TimeUnit.MILLISECONDS);
+        }
+        if (INTERVALO_LOG_SEG > 0) {
+            TAREAS.scheduleWithFixedDelay(MonitorConexiones::imprimirMetricas,
+                    INTERVALO_LOG_SEG, INTERVALO_LOG_SEG, TimeUnit.SECONDS);
+        }
+    }
+
+    private MonitorConexiones() {
+    }
+
+    /**
+     * Registra que se ha entregado una conexión del perfil. Hay que llamar a
+     * {@link Prestamo#devolver()} cuando se cierre.
+     * @param perfil Perfil de database.properties
+     * @return Préstamo en curso
+     */
+    public static Prestamo prestar(String perfil) {
+        return new Prestamo(estadisticas(perfil));
+    }
+
+    /**
+     * Envuelve una conexión física (sin pool) para que su préstamo quede registrado
+     * hasta que se cierre
+     * @param perfil Perfil de database.properties
+     * @param conexion Conexión recién abierta
+     * @return Conexión instrumentada
+     */
+    public static Connection instrumentar(String perfil, Connection conexion) {
+        Prestamo prestamo = prestar(perfil);
+        return (Connection) Proxy.newProxyInstance(
+                MonitorConexiones.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConexionInstrumentada(conexion, prestamo));
+    }
+
+    /**
+     * @param perfil Perfil de database.properties
+     * @return Métricas del perfil (se crean vacías si aún no se ha prestado ninguna conexión)
+     */
+    public static EstadisticasConexionesMXBean obtenerEstadisticas(String perfil) {
+        return estadisticas(perfil);
+    }
+
+    private static EstadisticasConexiones estadisticas(String perfil) {
+        EstadisticasConexiones existentes = PERFILES.get(perfil);
+        if (existentes != null) {
+            return existentes;
+        }
+        return PERFILES.computeIfAbsent(perfil, nombre -> {
+            EstadisticasConexiones nuevas = new EstadisticasConexiones(nombre);
+            registrarJmx(nuevas);
+            return nuevas;
+        });
+    }
+
+    private static void registrarJmx(EstadisticasConexiones estadisticas) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName("config:type=MonitorConexiones,perfil="
+                    + ObjectName.quote(estadisticas.getPerfil()));
+            if (!servidor.isRegistered(nombre)) {
+                servidor.registerMBean(estadisticas, nombre);
+            }
+        } catch (JMException | RuntimeException e) {
+            System.err.println("No se pudo publicar por JMX el monitor de " + estadisticas.getPerfil() + ": " + e.getMessage());
+        }
+    }
+
+    private static void buscarFugas() {
+        long ahora = System.nanoTime();
+        for (EstadisticasConexiones estadisticas : PERFILES.values()) {
+            for (Prestamo prestamo : estadisticas.activos.keySet()) {
+                long retenidaMs = TimeUnit.NANOSECONDS.toMillis(ahora - prestamo.inicio);
+                if (retenidaMs >= UMBRAL_FUGA_MS && prestamo.avisado.compareAndSet(false, true)) {
+                    estadisticas.fugasDetectadas.increment();
+                    System.err.println("[monitor-conexiones] Posible fuga en " + estadisticas.getPerfil()
+                            + ": conexión abierta hace " + retenidaMs + " ms por el hilo " + prestamo.hilo
+                            + ", obtenida en:\n" + pila(prestamo.origen));
+                }
+            }
+        }
+    }
+
+    private static void imprimirMetricas() {
+        for (EstadisticasConexiones estadisticas : PERFILES.values()) {
+            long prestamos = estadisticas.getPrestamosTotales();
+            // Solo se informa de los perfiles con actividad desde la última línea
+            if (prestamos == estadisticas.prestamosUltimoLog && estadisticas.getConexionesActivas() == 0) {
+                continue;
+            }
+            estadisticas.prestamosUltimoLog = prestamos;
+            System.out.printf("[monitor-conexiones] %s: activas=%d (máx %d) | préstamos=%d | medio=%.1f ms | máx=%d ms | fugas=%d%n",
+                    estadisticas.getPerfil(), estadisticas.getConexionesActivas(), estadisticas.getMaximoConexionesActivas(),
+                    prestamos, estadisticas.getTiempoMedioPrestamoMs(), estadisticas.getTiempoMaximoPrestamoMs(),
+                    estadisticas.getFugasDetectadas());
+        }
+    }
+
+    private static String pila(Throwable origen) {
+        if (origen == null) {
+            return "(sin pila: se guarda con -Dconexiones.capturarPila=true)";
+        }
+        StringWriter texto = new StringWriter();
+        origen.printStackTrace(new PrintWriter(texto));
+        return texto.toString();
+    }
+
+    /**
+     * Préstamo en curso de una conexión
+     */
+    public static final class Prestamo {
+        private final EstadisticasConexiones estadisticas;
+        private final long inicio = System.nanoTime();
+        private final String hilo = Thread.currentThread().getName();
+        // Se captura al prestar para saber quién la obtuvo si acaba siendo una fuga
+        private final Throwable origen = CAPTURAR_PILA ? new Throwable("Conexión obtenida aquí") : null;
+        private final AtomicBoolean devuelto = new AtomicBoolean();
+        private final AtomicBoolean avisado = new AtomicBoolean();
+
+        private Prestamo(EstadisticasConexiones estadisticas) {
+            this.estadisticas = estadisticas;
+            estadisticas.prestamos.increment();
+            int activas = estadisticas.activas.incrementAndGet();
+            estadisticas.maximoActivas.accumulateAndGet(activas, Math::max);
+            estadisticas.activos.put(this, Boolean.TRUE);
+        }
+
+        /**
+         * Registra el cierre de la conexión. Las llamadas repetidas no cuentan.
+         */
+        public void devolver() {
+            if (!devuelto.compareAndSet(false, true)) {
+                return;
+            }
+            long nanos = System.nanoTime() - inicio;
+            estadisticas.activos.remove(this);
+            estadisticas.activas.decrementAndGet();
+            estadisticas.tiempoTotalNanos.add(nanos);
+            estadisticas.cerrados.increment();
+            estadisticas.maximoNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Métricas de un perfil
+     */
+    private static final class EstadisticasConexiones implements EstadisticasConexionesMXBean {
+        private final String perfil;
+        private final Map<Prestamo, Boolean> activos = new ConcurrentHashMap<>();
+        private final AtomicInteger activas = new AtomicInteger();
+        private final AtomicInteger maximoActivas = new AtomicInteger();
+        private final LongAdder prestamos = new LongAdder();
+        private final LongAdder cerrados = new LongAdder();
+        private final LongAdder tiempoTotalNanos = new LongAdder();
+        private final AtomicLong maximoNanos = new AtomicLong();
+        private final LongAdder fugasDetectadas = new LongAdder();
+        private volatile long prestamosUltimoLog;
+
+        EstadisticasConexiones(String perfil) {
+            this.perfil = perfil;
+        }
+
+        @Override
+        public String getPerfil() {
+            return perfil;
+        }
+
+        @Override
+        public int getConexionesActivas() {
+            return activas.get();
+        }
+
+        @Override
+        public int getMaximoConexionesActivas() {
+            return maximoActivas.get();
+        }
+
+        @Override
+        public long getPrestamosTotales() {
+            return prestamos.sum();
+        }
+
+        @Override
+        public double getTiempoMedioPrestamoMs() {
+            long total = cerrados.sum();
+            return total == 0 ? 0.0 : tiempoTotalNanos.sum() / 1_000_000.0 / total;
+        }
+
+        @Override
+        public long getTiempoMaximoPrestamoMs() {
+            return TimeUnit.NANOSECONDS.toMillis(maximoNanos.get());
+        }
+
+        @Override
+        public long getFugasDetectadas() {
+            return fugasDetectadas.sum();
+        }
+
+        @Override
+        public String[] getFugasActuales() {
+            List<String> fugas = new ArrayList<>();
+            long ahora = System.nanoTime();
+            Set<Prestamo> prestamosActivos = activos.keySet();
+            for (Prestamo prestamo : prestamosActivos) {
+                long retenidaMs = TimeUnit.NANOSECONDS.toMillis(ahora - prestamo.inicio);
+                if (UMBRAL_FUGA_MS > 0 && retenidaMs >= UMBRAL_FUGA_MS) {
+                    fugas.add(retenidaMs + " ms en " + prestamo.hilo + "\n" + pila(prestamo.origen));
+                }
+            }
+            return fugas.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * Proxy de una conexión sin pool: registra el cierre en el monitor
+     */
+    private static final class ConexionInstrumentada implements InvocationHandler {
+        private final Connection conexion;
+        private final Prestamo prestamo;
+
+        ConexionInstrumentada(Connection conexion, Prestamo prestamo) {
+            this.conexion = conexion;
+            this.prestamo = prestamo;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    prestamo.devolver();
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(conexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Registro único de perfiles de base de datos para todo el proceso.
+ *
+ * Lee database.properties del classpath una sola vez y, si existe, aplica encima un fichero
+ * externo de sobrescritura (propiedad de sistema database.config.override o variable de
+ * entorno DATABASE_CONFIG_OVERRIDE). Ese fichero se vigila: cuando cambia se recargan los
+ * perfiles y se avisa a los oyentes de los perfiles cuya configuración ha cambiado.
+ * Los drivers JDBC se registran una sola vez por clase.
+ */
+public final class RegistroPerfiles {
+
+    private static final String RECURSO = "database.properties";
+    private static final String PROPIEDAD_OVERRIDE = "database.config.override";
+    private static final String VARIABLE_OVERRIDE = "DATABASE_CONFIG_OVERRIDE";
+
+    private static final Set<String> DRIVERS_REGISTRADOS = ConcurrentHashMap.newKeySet();
+    private static final List<Consumer<String>> OYENTES = new CopyOnWriteArrayList<>();
+    private static final Object BLOQUEO = new Object();
+
+    private static volatile Estado estado;
+    private static volatile Thread vigilante;
+
+    private RegistroPerfiles() {
+    }
+
+    /**
+     * Devuelve la configuración inmutable de un perfil
+     * @param tipoBD Nombre del perfil
+     * @return Configuración del perfil
+     * @throws RuntimeException Si el perfil no está definido o le faltan parámetros
+     */
+    public static DatabaseConfig obtener(String tipoBD) {
+        Estado actual = estado();
+        return actual.perfiles.computeIfAbsent(tipoBD, tipo -> new DatabaseConfig(tipo, actual.propiedades));
+    }
+
+    /**
+     * Carga la clase del driver JDBC si todavía no se ha cargado en este proceso
+     * @param driver Nombre completo de la clase del driver
+     */
+    public static void registrarDriver(String driver) {
+        if (DRIVERS_REGISTRADOS.contains(driver)) {
+            return;
+        }
+        try {
+            Class.forName(driver);
+            DRIVERS_REGISTRADOS.add(driver);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("No se pudo cargar el driver JDBC: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Registra un oyente que recibe el nombre de cada perfil cuya configuración cambia al recargar
+     * @param oyente Oyente a registrar
+     */
+    public static void alCambiarPerfil(Consumer<String> oyente) {
+        OYENTES.add(oyente);
+    }
+
+    /**
+     * Vuelve a leer la configuración y notifica los perfiles que han cambiado.
+     * Lo invoca el vigilante del fichero de sobrescritura, pero puede llamarse a mano.
+     */
+    public static void recargar() {
+        Estado anterior;
+        Estado nuevo;
+        synchronized (BLOQUEO) {
+            anterior = estado;
+            nuevo = new Estado(cargarPropiedades());
+            estado = nuevo;
+        }
+        if (anterior == null) {
+            return;
+        }
+
+        for (Map.Entry<String, DatabaseConfig> entrada : anterior.perfiles.entrySet()) {
+            String tipoBD = entrada.getKey();
+            DatabaseConfig actual;
+            try {
+                actual = obtener(tipoBD);
+            } catch (RuntimeException e) {
+                System.err.println("El perfil " + tipoBD + " ya no es válido tras recargar: " + e.getMessage());
+                actual = null;
+            }
+            if (!Objects.equals(entrada.getValue(), actual)) {
+                System.out.println("Configuración del perfil " + tipoBD + " recargada");
+                for (Consumer<String> oyente : OYENTES) {
+                    oyente.accept(tipoBD);
+                }
+            }
+        }
+    }
+
+    /**
+     * Propiedades vigentes (classpath + sobrescritura). No deben modificarse.
+     */
+    static Properties propiedades() {
+        return estado().propiedades;
+    }
+
+    private static Estado estado() {
+        Estado actual = estado;
+        if (actual == null) {
+            synchronized (BLOQUEO) {
+                actual = estado;
+                if (actual == null) {
+                    actual = new Estado(cargarPropiedades());
+                    estado = actual;
+                    iniciarVigilante();
+                }
+            }
+        }
+        return actual;
+    }
+
+    private static Properties cargarPropiedades() {
+        Properties props = new Properties();
+
+        try (InputStream input = RegistroPerfiles.class.getClassLoader().getResourceAsStream(RECURSO)) {
+            if (input == null) {
+                throw new RuntimeException("No se encontró el archivo " + RECURSO);
+            }
+            props.load(input);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al cargar las propiedades de la base de datos", e);
+        }
+
+        Path override = rutaOverride();
+        if (override != null && Files.isRegularFile(override)) {
+            try (InputStream input = Files.newInputStream(override)) {
+                props.load(input);
+            } catch (IOException e) {
+                System.err.println("No se pudo leer " + override + ", se mantiene la configuración base: " + e.getMessage());
+            }
+        }
+        return props;
+    }
+
+    private static Path rutaOverride() {
+        String ruta = System.getProperty(PROPIEDAD_OVERRIDE, System.getenv(VARIABLE_OVERRIDE));
+        return (ruta == null || ruta.trim().isEmpty()) ? null : Paths.get(ruta.trim()).toAbsolutePath();
+    }
+
+    private static void iniciarVigilante() {
+        Path override = rutaOverride();
+        if (override == null || vigilante != null || override.getParent() == null || !Files.isDirectory(override.getParent())) {
+            return;
+        }
+
+        Thread hilo = new Thread(() -> vigilar(override), "vigilante-" + RECURSO);
+        hilo.setDaemon(true);
+        vigilante = hilo;
+        hilo.start();
+    }
+
+    private static void vigilar(Path override) {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            override.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey clave = watchService.take();
+                boolean cambiado = false;
+                for (WatchEvent<?> evento : clave.pollEvents()) {
+                    Object contexto = evento.context();
+                    if (contexto instanceof Path && override.getFileName().equals(contexto)) {
+                        cambiado = true;
+                    }
+                }
+                clave.reset();
+
+                if (cambiado) {
+                    // Dejar que el editor termine de escribir antes de releer
+                    Thread.sleep(200);
+                    recargar();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Se detiene la vigilancia de " + override + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Propiedades cargadas junto con las configuraciones ya resueltas a partir de ellas
+     */
+    private static class Estado {
+        private final Properties propiedades;
+        private final Map<String, DatabaseConfig> perfiles = new ConcurrentHashMap<>();
+
+        Estado(Properties propiedades) {
+            this.propiedades = propiedades;
+        }
+    }
+}
@@ -2,18 +2,44 @@ package dao;
 
 import model.UsuarioDay_2;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Interfaz que define las operaciones de acceso a datos para la entidad Usuario.
  */
 public interface IUsuarioDAO {
+
+    /** Filas por lote cuando no se indica otro tamaño en las operaciones masivas */
+    int TAMANO_LOTE_POR_DEFECTO = 500;
+
+    /** Máximo de IDs por consulta IN en las búsquedas de varios usuarios */
+    int TAMANO_MAXIMO_IN = 500;
+
     /**
      * Obtiene todos los usuarios de la base de datos
      * @return Lista de usuarios
      */
     List<UsuarioDay_2> getAllUsuarios();
 
+    /**
+     * Recorre todos los usuarios sin cargarlos en memoria, leyendo por bloques del servidor.
+     * El Stream mantiene la conexión abierta: debe cerrarse con try-with-resources.
+     * @param fetchSize Filas por viaje al servidor (0 o negativo: streaming fila a fila en MySQL)
+     * @return Stream de usuarios
+     */
+    Stream<UsuarioDay_2> streamUsuarios(int fetchSize);
+
+    /**
+     * Recorre todos los usuarios con el fetchSize por defecto
+     * @return Stream de usuarios que debe cerrarse
+     */
+    default Stream<UsuarioDay_2> streamUsuarios() {
+        return streamUsuarios(JdbcStreams.FETCH_SIZE_POR_DEFECTO);
+    }
+
     /**
      * Obtiene un usuario por su ID
      * @param id ID del usuario a buscar
@@ -21,6 +47,14 @@ public interface IUsuarioDAO {
      */
     UsuarioDay_2 getUsuarioById(int id);
 
+    /**
+     * Obtiene varios usuarios por ID con una consulta WHERE id IN (...) por cada
+     * bloque de como mucho {@link #TAMANO_MAXIMO_IN} IDs, usando una sola conexión.
+     * @param ids IDs de los usuarios a buscar (los repetidos se buscan una vez)
+     * @return Usuarios encontrados por ID, en el orden de los IDs pedidos; vacío si hubo error
+     */
+    Map<Integer, UsuarioDay_2> getUsuariosByIds(Collection<Integer> ids);
+
     /**
      * Inserta un nuevo usuario en la base de datos
      * @param usuario Usuario a insertar
@@ -28,6 +62,51 @@ public interface IUsuarioDAO {
      */
     int insertUsuario(UsuarioDay_2 usuario);
 
+    /**
+     * Inserta muchos usuarios usando lotes JDBC, confirmando cada lote por separado.
+     * Si un lote falla se reintenta fila a fila y solo las filas erróneas se marcan como fallidas.
+     * @param usuarios Usuarios a insertar
+     * @param tamanoLote Número de filas por lote
+     * @return IDs generados en el orden de entrada y errores por fila
+     */
+    ResultadoLote insertUsuarios(List<UsuarioDay_2> usuarios, int tamanoLote);
+
+    /**
+     * Inserta usuarios por lotes con el tamaño de lote por defecto
+     * @param usuarios Usuarios a insertar
+     * @return IDs generados en el orden de entrada y errores por fila
+     */
+    default ResultadoLote insertUsuarios(List<UsuarioDay_2> usuarios) {
+        return insertUsuarios(usuarios, TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * Inserta muchos usuarios por lotes con el ID que ya traen, sin generar uno nuevo.
+     * Un ID que ya existe es un error de esa fila: el usuario existente no se modifica.
+     * @param usuarios Usuarios a insertar, todos con ID
+     * @param tamanoLote Número de filas por lote
+     * @return IDs en el orden de entrada y errores por fila
+     */
+    ResultadoLote insertUsuariosConId(List<UsuarioDay_2> usuarios, int tamanoLote);
+
+    /**
+     * Inserta o actualiza muchos usuarios por lotes. Los usuarios con ID se insertan con ese ID
+     * o se actualizan si ya existe; los que no tienen ID (0) se insertan como nuevos.
+     * @param usuarios Usuarios a insertar o actualizar
+     * @param tamanoLote Número de filas por lote
+     * @return IDs en el orden de entrada y errores por fila
+     */
+    ResultadoLote upsertUsuarios(List<UsuarioDay_2> usuarios, int tamanoLote);
+
+    /**
+     * Inserta o actualiza usuarios por lotes con el tamaño de lote por defecto
+     * @param usuarios Usuarios a insertar o actualizar
+     * @return IDs en el orden de entrada y errores por fila
+     */
+    default ResultadoLote upsertUsuarios(List<UsuarioDay_2> usuarios) {
+        return upsertUsuarios(usuarios, TAMANO_LOTE_POR_DEFECTO);
+    }
+
     /**
      * Actualiza un usuario existente
      * @param usuario Usuario con los datos actualizados
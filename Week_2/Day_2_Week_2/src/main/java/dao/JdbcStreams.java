@@ -0,0 +1,121 @@
+package dao;
+
+import config.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Consultas que devuelven sus filas como un Stream perezoso en lugar de una lista completa.
+ *
+ * El Stream mantiene abiertos la conexión, la sentencia y el ResultSet hasta que se cierra,
+ * por lo que siempre debe usarse dentro de un try-with-resources.
+ * Con MySQL, un fetchSize positivo lee por bloques mediante un cursor en el servidor
+ * (el pool activa useCursorFetch) y un fetchSize de 0 o negativo usa el modo streaming
+ * fila a fila del driver (fetchSize = Integer.MIN_VALUE).
+ */
+public final class JdbcStreams {
+
+    /** Filas que se piden al servidor en cada viaje cuando no se indica otro valor */
+    public static final int FETCH_SIZE_POR_DEFECTO = 1000;
+
+    private JdbcStreams() {
+    }
+
+    /**
+     * Ejecuta una consulta sin parámetros y devuelve sus filas como Stream
+     * @param tipoBD Perfil de database.properties (se lee de sus réplicas si las tiene)
+     * @param sql Consulta SELECT
+     * @param fetchSize Filas por viaje al servidor (0 o negativo: streaming fila a fila en MySQL)
+     * @param mapper Conversión de cada fila
+     * @return Stream que debe cerrarse para liberar la conexión
+     * @throws SQLException Si falla la apertura de la conexión o la ejecución de la consulta
+     */
+    public static <T> Stream<T> consultar(String tipoBD, String sql, int fetchSize, RowMapper<T> mapper) throws SQLException {
+        Connection conn = DatabaseConnection.getConnectionLectura(tipoBD);
+        PreparedStatement stmt = null;
+        try {
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(fetchSize > 0 ? fetchSize : Integer.MIN_VALUE);
+            return stream(conn, stmt, stmt.executeQuery(), mapper);
+        } catch (SQLException | RuntimeException e) {
+            cerrarSilenciosamente(stmt);
+            cerrarSilenciosamente(conn);
+            throw e;
+        }
+    }
+
+    /**
+     * Igual que {@link #consultar}, pero resolviendo los índices de las columnas una sola vez
+     * @param tipoBD Perfil de database.properties (se lee de sus réplicas si las tiene)
+     * @param sql Consulta SELECT
+     * @param fetchSize Filas por viaje al servidor (0 o negativo: streaming fila a fila en MySQL)
+     * @param mapper Mapeador que se prepara con los metadatos del ResultSet
+     * @return Stream que debe cerrarse para liberar la conexión
+     * @throws SQLException Si falla la apertura de la conexión o la ejecución de la consulta
+     */
+    public static <T> Stream<T> consultarIndexado(String tipoBD, String sql, int fetchSize, RowMapperIndexado<T> mapper) throws SQLException {
+        Connection conn = DatabaseConnection.getConnectionLectura(tipoBD);
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(fetchSize > 0 ? fetchSize : Integer.MIN_VALUE);
+            rs = stmt.executeQuery();
+            return stream(conn, stmt, rs, mapper.preparar(rs));
+        } catch (SQLException | RuntimeException e) {
+            cerrarSilenciosamente(rs);
+            cerrarSilenciosamente(stmt);
+            cerrarSilenciosamente(conn);
+            throw e;
+        }
+    }
+
+    /**
+     * Envuelve un ResultSet abierto en un Stream que cierra los tres recursos al cerrarse
+     * @param conn Conexión (puede ser null si la gestiona quien llama)
+     * @param stmt Sentencia que produjo el ResultSet
+     * @param rs ResultSet a recorrer
+     * @param mapper Conversión de cada fila
+     * @return Stream perezoso de filas
+     */
+    public static <T> Stream<T> stream(Connection conn, PreparedStatement stmt, ResultSet rs, RowMapper<T> mapper) {
+        Spliterator<T> filas = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> accion) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    accion.accept(mapper.mapRow(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error al leer filas de la base de datos: " + e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(filas, false).onClose(() -> {
+            cerrarSilenciosamente(rs);
+            cerrarSilenciosamente(stmt);
+            cerrarSilenciosamente(conn);
+        });
+    }
+
+    private static void cerrarSilenciosamente(AutoCloseable recurso) {
+        if (recurso != null) {
+            try {
+                recurso.close();
+            } catch (Exception e) {
+                System.err.println("Error al cerrar recurso JDBC: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package dao;
+
+import model.UsuarioDay_2;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapeador por posición de la tabla usuarios a {@link UsuarioDay_2}.
+ * Las columnas id, nombre y email son obligatorias; fecha_nacimiento y tipo_documento
+ * se dejan a null si la consulta no las incluye.
+ */
+public final class MapeadorUsuarioDay2 implements RowMapperIndexado<UsuarioDay_2> {
+
+    public static final MapeadorUsuarioDay2 INSTANCIA = new MapeadorUsuarioDay2();
+
+    private MapeadorUsuarioDay2() {
+    }
+
+    @Override
+    public RowMapper<UsuarioDay_2> preparar(ResultSet rs) throws SQLException {
+        int id = rs.findColumn("id");
+        int nombre = rs.findColumn("nombre");
+        int email = rs.findColumn("email");
+        int fechaNacimiento = RowMapperIndexado.indiceOpcional(rs, "fecha_nacimiento");
+        int tipoDocumento = RowMapperIndexado.indiceOpcional(rs, "tipo_documento");
+
+        return fila -> new UsuarioDay_2(
+                fila.getInt(id),
+                fila.getString(nombre),
+                fila.getString(email),
+                RowMapperIndexado.fecha(fila, fechaNacimiento),
+                RowMapperIndexado.texto(fila, tipoDocumento)
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convierte la fila actual de un ResultSet en un objeto del modelo.
+ *
+ * @param <T> Tipo del objeto resultante
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Mapea la fila en la que está posicionado el ResultSet
+     * @param rs ResultSet posicionado en una fila
+     * @return Objeto con los datos de la fila
+     * @throws SQLException Si falla la lectura de alguna columna
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,83 @@
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mapeador que busca las columnas por nombre una sola vez por ResultSet.
+ *
+ * {@link #preparar} resuelve los índices de las columnas a partir de los metadatos y devuelve
+ * un {@link RowMapper} que lee cada fila por posición, sin volver a buscar nombres.
+ * Así el coste de la búsqueda por nombre no se repite en cada fila.
+ *
+ * @param <T> Tipo del objeto resultante
+ */
+@FunctionalInterface
+public interface RowMapperIndexado<T> {
+
+    /**
+     * Resuelve los índices de las columnas del ResultSet
+     * @param rs ResultSet recién abierto
+     * @return Mapeador por posición válido para ese ResultSet
+     * @throws SQLException Si falta alguna columna obligatoria
+     */
+    RowMapper<T> preparar(ResultSet rs) throws SQLException;
+
+    /**
+     * Recorre el ResultSet completo y mapea todas sus filas
+     * @param rs ResultSet recién abierto
+     * @return Lista de objetos mapeados
+     * @throws SQLException Si falla la lectura
+     */
+    default List<T> mapearTodas(ResultSet rs) throws SQLException {
+        RowMapper<T> mapper = preparar(rs);
+        List<T> filas = new ArrayList<>();
+        while (rs.next()) {
+            filas.add(mapper.mapRow(rs));
+        }
+        return filas;
+    }
+
+    /**
+     * Índice de una columna que puede no estar en la consulta
+     * @param rs ResultSet
+     * @param columna Nombre o alias de la columna (sin distinguir mayúsculas)
+     * @return Índice de la columna, o 0 si no está
+     * @throws SQLException Si no se pueden leer los metadatos
+     */
+    static int indiceOpcional(ResultSet rs, String columna) throws SQLException {
+        ResultSetMetaData metadatos = rs.getMetaData();
+        for (int i = 1; i <= metadatos.getColumnCount(); i++) {
+            if (metadatos.getColumnLabel(i).equalsIgnoreCase(columna)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Lee una columna de tipo fecha como LocalDate sin pasar por java.sql.Date
+     * @param rs ResultSet posicionado en una fila
+     * @param indice Índice de la columna (0 si la consulta no la incluye)
+     * @return Fecha o null si es NULL o la columna no está
+     * @throws SQLException Si falla la lectura
+     */
+    static LocalDate fecha(ResultSet rs, int indice) throws SQLException {
+        return indice == 0 ? null : rs.getObject(indice, LocalDate.class);
+    }
+
+    /**
+     * Lee una columna de texto que puede no estar en la consulta
+     * @param rs ResultSet posicionado en una fila
+     * @param indice Índice de la columna (0 si la consulta no la incluye)
+     * @return Texto o null si es NULL o la columna no está
+     * @throws SQLException Si falla la lectura
+     */
+    static String texto(ResultSet rs, int indice) throws SQLException {
+        return indice == 0 ? null : rs.getString(indice);
+    }
+}
@@ -0,0 +1,131 @@
+package dao;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Fusión de varios Streams leídos a la vez en hilos distintos.
+ *
+ * Cada fuente se recorre en su propio hilo y deja sus elementos en una cola acotada de la
+ * que lee el Stream resultante, así que las consultas a varias bases de datos avanzan en
+ * paralelo sin cargar los resultados en memoria. El orden entre fuentes no está garantizado.
+ */
+public final class StreamsParalelos {
+
+    private static final Object FIN = new Object();
+    private static final long ESPERA_ENTREGA_MS = 100;
+
+    private StreamsParalelos() {
+    }
+
+    /**
+     * Abre y recorre todas las fuentes en paralelo, devolviendo sus elementos en un único Stream.
+     * Cerrar el Stream detiene las lecturas pendientes y cierra los Streams de las fuentes.
+     * @param fuentes Fuentes que se abren en el hilo que las recorre
+     * @param executor Hilos donde se recorren las fuentes
+     * @param capacidad Elementos que pueden esperar en la cola antes de frenar a las fuentes
+     * @return Stream con los elementos de todas las fuentes, que debe cerrarse
+     */
+    public static <T> Stream<T> fusionar(List<Supplier<Stream<T>>> fuentes, ExecutorService executor, int capacidad) {
+        BlockingQueue<Object> cola = new ArrayBlockingQueue<>(capacidad);
+        AtomicBoolean cerrado = new AtomicBoolean();
+        List<Future<?>> tareas = new ArrayList<>(fuentes.size());
+        for (Supplier<Stream<T>> fuente : fuentes) {
+            tareas.add(executor.submit(() -> producir(fuente, cola, cerrado)));
+        }
+
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.NONNULL) {
+            private int pendientes = fuentes.size();
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean tryAdvance(Consumer<? super T> accion) {
+                while (pendientes > 0) {
+                    Object elemento;
+                    try {
+                        elemento = cola.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrumpido esperando resultados de las fuentes", e);
+                    }
+                    if (elemento == FIN) {
+                        pendientes--;
+                    } else if (elemento instanceof Fallo) {
+                        pendientes--;
+                        throw ((Fallo) elemento).causa;
+                    } else {
+                        accion.accept((T) elemento);
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            cerrado.set(true);
+            for (Future<?> tarea : tareas) {
+                tarea.cancel(true);
+            }
+            cola.clear();
+        });
+    }
+
+    private static <T> void producir(Supplier<Stream<T>> fuente, BlockingQueue<Object> cola, AtomicBoolean cerrado) {
+        // Tras el último elemento se entrega FIN, o el error si la fuente falló
+        Object fin = FIN;
+        try (Stream<T> stream = fuente.get()) {
+            // Iterador en lugar de forEach para dejar de leer en cuanto se cierre el resultado
+            Iterator<T> iterador = stream.iterator();
+            while (iterador.hasNext()) {
+                if (!entregar(cola, iterador.next(), cerrado)) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            fin = new Fallo(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            entregar(cola, fin, cerrado);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Espera hueco en la cola mientras el Stream resultante siga abierto
+    private static boolean entregar(BlockingQueue<Object> cola, Object elemento, AtomicBoolean cerrado) throws InterruptedException {
+        while (!cerrado.get()) {
+            if (cola.offer(elemento, ESPERA_ENTREGA_MS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Error de una fuente, que se relanza en el hilo que consume el resultado
+     */
+    private static final class Fallo {
+        private final RuntimeException causa;
+
+        Fallo(RuntimeException causa) {
+            this.causa = causa;
+        }
+    }
+}
@@ -4,9 +4,14 @@ import config.DatabaseConnection;
 import model.UsuarioDay_2;
 
 import java.sql.*;
-import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Implementación de IUsuarioDAO que utiliza JDBC para acceder a la base de datos MySQL.
@@ -16,18 +21,38 @@ public class UsuarioDAO implements IUsuarioDAO {
     private static final String TABLE_NAME = "usuarios";
     private static final String DB_CONFIG = "mysql_origen"; // Verificar que esto coincide con database.properties
 
-    // Método auxiliar para mapear ResultSet a UsuarioDay_2
-    private UsuarioDay_2 mapResultSetToUsuario(ResultSet rs) throws SQLException {
-        Date fechaNacimientoSQL = rs.getDate("fecha_nacimiento");
-        LocalDate fechaNacimiento = (fechaNacimientoSQL != null) ? fechaNacimientoSQL.toLocalDate() : null;
+    // Las sentencias son constantes: el mismo texto SQL permite reutilizar la sentencia
+    // preparada que el pool guarda en cada conexión en lugar de volver a prepararla
+    private static final String SQL_SELECT = String.format(
+            "SELECT id, nombre, email, fecha_nacimiento, tipo_documento FROM %s", TABLE_NAME);
+    private static final String SQL_SELECT_BY_ID = SQL_SELECT + " WHERE id = ?";
+    private static final String SQL_UPDATE = String.format(
+            "UPDATE %s SET nombre = ?, email = ?, fecha_nacimiento = ?, tipo_documento = ? WHERE id = ?", TABLE_NAME);
+    private static final String SQL_DELETE = String.format("DELETE FROM %s WHERE id = ?", TABLE_NAME);
+    private static final String SQL_INSERT = String.format(
+            "INSERT INTO %s (nombre, email, fecha_nacimiento, tipo_documento) VALUES (?, ?, ?, ?)", TABLE_NAME);
+    private static final String SQL_INSERT_CON_ID = String.format(
+            "INSERT INTO %s (nombre, email, fecha_nacimiento, tipo_documento, id) VALUES (?, ?, ?, ?, ?)", TABLE_NAME);
+    private static final String SQL_UPSERT = String.format(
+            "INSERT INTO %s (nombre, email, fecha_nacimiento, tipo_documento, id) VALUES (?, ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE nombre = VALUES(nombre), email = VALUES(email), " +
+                    "fecha_nacimiento = VALUES(fecha_nacimiento), tipo_documento = VALUES(tipo_documento)", TABLE_NAME);
 
-        return new UsuarioDay_2(
-                rs.getInt("id"),
-                rs.getString("nombre"),
-                rs.getString("email"),
-                fechaNacimiento,
-                rs.getString("tipo_documento")
-        );
+    private final String tipoBD;
+
+    public UsuarioDAO() {
+        this(DB_CONFIG);
+    }
+
+    /**
+     * @param tipoBD Perfil de database.properties con la tabla usuarios (por ejemplo, un shard)
+     */
+    public UsuarioDAO(String tipoBD) {
+        this.tipoBD = tipoBD;
+    }
+
+    public String getTipoBD() {
+        return tipoBD;
     }
 
     // Método auxiliar para establecer parámetros en PreparedStatement
@@ -47,15 +72,12 @@ public class UsuarioDAO implements IUsuarioDAO {
     @Override
     public List<UsuarioDay_2> getAllUsuarios() {
         List<UsuarioDay_2> usuarios = new ArrayList<>();
-        String query = String.format("SELECT id, nombre, email, fecha_nacimiento, tipo_documento FROM %s", TABLE_NAME);
 
-        try (Connection conn = DatabaseConnection.getConnection(DB_CONFIG);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        try (Connection conn = DatabaseConnection.getConnectionLectura(tipoBD);
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT);
+             ResultSet rs = stmt.executeQuery()) {
 
-            while (rs.next()) {
-                usuarios.add(mapResultSetToUsuario(rs));
-            }
+            usuarios.addAll(MapeadorUsuarioDay2.INSTANCIA.mapearTodas(rs));
         } catch (SQLException e) {
             System.err.println("Error en getAllUsuarios: " + e.getMessage());
             e.printStackTrace();
@@ -64,17 +86,26 @@ public class UsuarioDAO implements IUsuarioDAO {
     }
 
     @Override
-    public UsuarioDay_2 getUsuarioById(int id) {
-        String query = String.format("SELECT id, nombre, email, fecha_nacimiento, tipo_documento FROM %s WHERE id = ?", TABLE_NAME);
+    public Stream<UsuarioDay_2> streamUsuarios(int fetchSize) {
+        try {
+            return JdbcStreams.consultarIndexado(tipoBD, SQL_SELECT, fetchSize, MapeadorUsuarioDay2.INSTANCIA);
+        } catch (SQLException e) {
+            System.err.println("Error en streamUsuarios: " + e.getMessage());
+            e.printStackTrace();
+            return Stream.empty();
+        }
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection(DB_CONFIG);
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+    @Override
+    public UsuarioDay_2 getUsuarioById(int id) {
+        try (Connection conn = DatabaseConnection.getConnection(tipoBD);
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_BY_ID)) {
 
             stmt.setInt(1, id);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToUsuario(rs);
+                    return MapeadorUsuarioDay2.INSTANCIA.preparar(rs).mapRow(rs);
                 }
             }
         } catch (SQLException e) {
@@ -85,14 +116,69 @@ public class UsuarioDAO implements IUsuarioDAO {
     }
 
     @Override
-    public int insertUsuario(UsuarioDay_2 usuario) {
-        String query = String.format(
-                "INSERT INTO %s (nombre, email, fecha_nacimiento, tipo_documento) VALUES (?, ?, ?, ?)",
-                TABLE_NAME
-        );
+    public Map<Integer, UsuarioDay_2> getUsuariosByIds(Collection<Integer> ids) {
+        List<Integer> unicos = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, UsuarioDay_2> encontrados = new LinkedHashMap<>();
+        if (unicos.isEmpty()) {
+            return encontrados;
+        }
 
-        try (Connection conn = DatabaseConnection.getConnection(DB_CONFIG);
-             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        Map<Integer, UsuarioDay_2> porId = new LinkedHashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection(tipoBD)) {
+            for (int inicio = 0; inicio < unicos.size(); inicio += TAMANO_MAXIMO_IN) {
+                List<Integer> bloque = unicos.subList(inicio, Math.min(inicio + TAMANO_MAXIMO_IN, unicos.size()));
+                int huecos = huecosIn(bloque.size());
+                String query = SQL_SELECT + " WHERE id IN (" + marcadores(huecos) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    // Los huecos sobrantes repiten el último ID: no cambia el resultado
+                    for (int i = 0; i < huecos; i++) {
+                        stmt.setInt(i + 1, bloque.get(Math.min(i, bloque.size() - 1)));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        for (UsuarioDay_2 usuario : MapeadorUsuarioDay2.INSTANCIA.mapearTodas(rs)) {
+                            porId.put(usuario.getId(), usuario);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error en getUsuariosByIds para " + unicos.size() + " IDs: " + e.getMessage());
+            e.printStackTrace();
+            return encontrados;
+        }
+
+        for (Integer id : unicos) {
+            UsuarioDay_2 usuario = porId.get(id);
+            if (usuario != null) {
+                encontrados.put(id, usuario);
+            }
+        }
+        return encontrados;
+    }
+
+    // Redondea el número de IDs a la siguiente potencia de dos (mínimo 8) para que solo
+    // haya unas pocas formas distintas de la consulta IN y el servidor pueda reutilizarlas
+    private static int huecosIn(int totalIds) {
+        int huecos = 8;
+        while (huecos < totalIds) {
+            huecos <<= 1;
+        }
+        return Math.min(huecos, Math.max(totalIds, TAMANO_MAXIMO_IN));
+    }
+
+    private static String marcadores(int total) {
+        StringBuilder sb = new StringBuilder(total * 2);
+        for (int i = 0; i < total; i++) {
+            sb.append(i == 0 ? "?" : ",?");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public int insertUsuario(UsuarioDay_2 usuario) {
+        try (Connection conn = DatabaseConnection.getConnection(tipoBD);
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
             setUsuarioParameters(stmt, usuario);
 
@@ -117,14 +203,141 @@ public class UsuarioDAO implements IUsuarioDAO {
     }
 
     @Override
-    public int updateUsuario(UsuarioDay_2 usuario) {
-        String query = String.format(
-                "UPDATE %s SET nombre = ?, email = ?, fecha_nacimiento = ?, tipo_documento = ? WHERE id = ?",
-                TABLE_NAME
-        );
+    public ResultadoLote insertUsuarios(List<UsuarioDay_2> usuarios, int tamanoLote) {
+        validarTamanoLote(tamanoLote);
+        ResultadoLote resultado = new ResultadoLote(usuarios.size());
 
-        try (Connection conn = DatabaseConnection.getConnection(DB_CONFIG);
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+        List<Integer> posiciones = new ArrayList<>(usuarios.size());
+        for (int i = 0; i < usuarios.size(); i++) {
+            posiciones.add(i);
+        }
+        ejecutarEnLotes(SQL_INSERT, usuarios, posiciones, tamanoLote, false, resultado);
+        return resultado;
+    }
+
+    @Override
+    public ResultadoLote insertUsuariosConId(List<UsuarioDay_2> usuarios, int tamanoLote) {
+        validarTamanoLote(tamanoLote);
+        ResultadoLote resultado = new ResultadoLote(usuarios.size());
+
+        List<Integer> conId = new ArrayList<>();
+        for (int i = 0; i < usuarios.size(); i++) {
+            if (usuarios.get(i).getId() > 0) {
+                conId.add(i);
+            } else {
+                resultado.registrarError(i, "El usuario debe tener ID asignado");
+            }
+        }
+        ejecutarEnLotes(SQL_INSERT_CON_ID, usuarios, conId, tamanoLote, true, resultado);
+        return resultado;
+    }
+
+    @Override
+    public ResultadoLote upsertUsuarios(List<UsuarioDay_2> usuarios, int tamanoLote) {
+        validarTamanoLote(tamanoLote);
+        ResultadoLote resultado = new ResultadoLote(usuarios.size());
+
+        // Los usuarios sin ID son altas normales; los que tienen ID se insertan o actualizan
+        List<Integer> nuevos = new ArrayList<>();
+        List<Integer> conId = new ArrayList<>();
+        for (int i = 0; i < usuarios.size(); i++) {
+            (usuarios.get(i).getId() > 0 ? conId : nuevos).add(i);
+        }
+        ejecutarEnLotes(SQL_INSERT, usuarios, nuevos, tamanoLote, false, resultado);
+        ejecutarEnLotes(SQL_UPSERT, usuarios, conId, tamanoLote, true, resultado);
+        return resultado;
+    }
+
+    private void validarTamanoLote(int tamanoLote) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero: " + tamanoLote);
+        }
+    }
+
+    // Ejecuta la sentencia para las posiciones indicadas en lotes, confirmando cada lote por separado
+    private void ejecutarEnLotes(String query, List<UsuarioDay_2> usuarios, List<Integer> posiciones,
+                                 int tamanoLote, boolean conId, ResultadoLote resultado) {
+        if (posiciones.isEmpty()) {
+            return;
+        }
+
+        int procesadas = 0;
+        try (Connection conn = DatabaseConnection.getConnection(tipoBD);
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+
+            conn.setAutoCommit(false);
+            for (int inicio = 0; inicio < posiciones.size(); inicio += tamanoLote) {
+                List<Integer> lote = posiciones.subList(inicio, Math.min(inicio + tamanoLote, posiciones.size()));
+                try {
+                    for (int posicion : lote) {
+                        setUsuarioParameters(stmt, usuarios.get(posicion));
+                        if (conId) {
+                            stmt.setInt(5, usuarios.get(posicion).getId());
+                        }
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    registrarIds(stmt, usuarios, lote, conId, resultado);
+                    conn.commit();
+                } catch (SQLException e) {
+                    // Con rewriteBatchedStatements un fallo invalida el lote entero:
+                    // se deshace y se repite fila a fila para aislar las filas erróneas
+                    conn.rollback();
+                    stmt.clearBatch();
+                    ejecutarFilaAFila(conn, stmt, usuarios, lote, conId, resultado);
+                }
+                procesadas = inicio + lote.size();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error en operación por lotes: " + e.getMessage());
+            e.printStackTrace();
+            for (int posicion : posiciones.subList(procesadas, posiciones.size())) {
+                resultado.registrarError(posicion, e.getMessage());
+            }
+        }
+    }
+
+    private void ejecutarFilaAFila(Connection conn, PreparedStatement stmt, List<UsuarioDay_2> usuarios,
+                                   List<Integer> lote, boolean conId, ResultadoLote resultado) throws SQLException {
+        for (int posicion : lote) {
+            try {
+                setUsuarioParameters(stmt, usuarios.get(posicion));
+                if (conId) {
+                    stmt.setInt(5, usuarios.get(posicion).getId());
+                }
+                stmt.executeUpdate();
+                registrarIds(stmt, usuarios, Collections.singletonList(posicion), conId, resultado);
+            } catch (SQLException e) {
+                resultado.registrarError(posicion, e.getMessage());
+            }
+        }
+        conn.commit();
+    }
+
+    private void registrarIds(PreparedStatement stmt, List<UsuarioDay_2> usuarios, List<Integer> lote,
+                              boolean conId, ResultadoLote resultado) throws SQLException {
+        if (conId) {
+            for (int posicion : lote) {
+                resultado.registrarId(posicion, usuarios.get(posicion).getId());
+            }
+            return;
+        }
+
+        // MySQL devuelve las claves generadas en el mismo orden que las filas del lote
+        try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+            for (int posicion : lote) {
+                if (!generatedKeys.next()) {
+                    throw new SQLException("No se obtuvieron todos los IDs generados del lote");
+                }
+                resultado.registrarId(posicion, generatedKeys.getInt(1));
+            }
+        }
+    }
+
+    @Override
+    public int updateUsuario(UsuarioDay_2 usuario) {
+        try (Connection conn = DatabaseConnection.getConnection(tipoBD);
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
 
             setUsuarioParameters(stmt, usuario);
             stmt.setInt(5, usuario.getId());
@@ -139,10 +352,8 @@ public class UsuarioDAO implements IUsuarioDAO {
 
     @Override
     public boolean deleteUsuario(int id) {
-        String query = String.format("DELETE FROM %s WHERE id = ?", TABLE_NAME);
-
-        try (Connection conn = DatabaseConnection.getConnection(DB_CONFIG);
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection(tipoBD);
+             PreparedStatement stmt = conn.prepareStatement(SQL_DELETE)) {
 
             stmt.setInt(1, id);
             return stmt.executeUpdate() > 0;
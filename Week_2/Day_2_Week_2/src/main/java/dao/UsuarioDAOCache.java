@@ -0,0 +1,154 @@
+package dao;
+
+import model.UsuarioDay_2;
+import utils.CacheLRU;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de IUsuarioDAO que guarda en caché las búsquedas por ID.
+ *
+ * getUsuarioById consulta primero la caché y solo va a la base de datos si no encuentra
+ * el usuario o ha caducado. Las escrituras hechas a través de este DAO invalidan la entrada
+ * afectada; las hechas por otros procesos se ven, como tarde, al caducar la entrada (TTL).
+ * Se devuelven copias para que modificar el usuario obtenido no altere la caché.
+ */
+public class UsuarioDAOCache implements IUsuarioDAO {
+
+    private final IUsuarioDAO delegado;
+    private final CacheLRU<Integer, UsuarioDay_2> cache;
+
+    /**
+     * @param delegado DAO que accede a la base de datos
+     * @param tamanoMaximo Número máximo de usuarios en caché
+     * @param ttl Tiempo de vida de cada usuario en caché
+     * @param unidad Unidad del tiempo de vida
+     */
+    public UsuarioDAOCache(IUsuarioDAO delegado, int tamanoMaximo, long ttl, TimeUnit unidad) {
+        this.delegado = delegado;
+        this.cache = new CacheLRU<>(tamanoMaximo, ttl, unidad);
+    }
+
+    /**
+     * @return Caché usada, para consultar sus contadores
+     */
+    public CacheLRU<Integer, UsuarioDay_2> getCache() {
+        return cache;
+    }
+
+    @Override
+    public UsuarioDay_2 getUsuarioById(int id) {
+        UsuarioDay_2 usuario = cache.obtener(id);
+        if (usuario != null) {
+            return copiar(usuario);
+        }
+
+        long version = cache.version();
+        usuario = delegado.getUsuarioById(id);
+        if (usuario != null) {
+            cache.ponerSiVigente(id, copiar(usuario), version);
+        }
+        return usuario;
+    }
+
+    @Override
+    public Map<Integer, UsuarioDay_2> getUsuariosByIds(Collection<Integer> ids) {
+        Map<Integer, UsuarioDay_2> enCache = new LinkedHashMap<>();
+        List<Integer> faltan = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            UsuarioDay_2 usuario = cache.obtener(id);
+            if (usuario != null) {
+                enCache.put(id, copiar(usuario));
+            } else {
+                faltan.add(id);
+            }
+        }
+
+        Map<Integer, UsuarioDay_2> leidos = new LinkedHashMap<>();
+        if (!faltan.isEmpty()) {
+            long version = cache.version();
+            leidos = delegado.getUsuariosByIds(faltan);
+            for (UsuarioDay_2 usuario : leidos.values()) {
+                cache.ponerSiVigente(usuario.getId(), copiar(usuario), version);
+            }
+        }
+
+        // Se respeta el orden de los IDs pedidos
+        Map<Integer, UsuarioDay_2> encontrados = new LinkedHashMap<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            UsuarioDay_2 usuario = enCache.containsKey(id) ? enCache.get(id) : leidos.get(id);
+            if (usuario != null) {
+                encontrados.put(id, usuario);
+            }
+        }
+        return encontrados;
+    }
+
+    @Override
+    public List<UsuarioDay_2> getAllUsuarios() {
+        return delegado.getAllUsuarios();
+    }
+
+    @Override
+    public Stream<UsuarioDay_2> streamUsuarios(int fetchSize) {
+        return delegado.streamUsuarios(fetchSize);
+    }
+
+    @Override
+    public int insertUsuario(UsuarioDay_2 usuario) {
+        return delegado.insertUsuario(usuario);
+    }
+
+    @Override
+    public ResultadoLote insertUsuarios(List<UsuarioDay_2> usuarios, int tamanoLote) {
+        return delegado.insertUsuarios(usuarios, tamanoLote);
+    }
+
+    @Override
+    public ResultadoLote insertUsuariosConId(List<UsuarioDay_2> usuarios, int tamanoLote) {
+        return delegado.insertUsuariosConId(usuarios, tamanoLote);
+    }
+
+    @Override
+    public ResultadoLote upsertUsuarios(List<UsuarioDay_2> usuarios, int tamanoLote) {
+        try {
+            return delegado.upsertUsuarios(usuarios, tamanoLote);
+        } finally {
+            for (UsuarioDay_2 usuario : usuarios) {
+                if (usuario.getId() > 0) {
+                    cache.invalidar(usuario.getId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public int updateUsuario(UsuarioDay_2 usuario) {
+        try {
+            return delegado.updateUsuario(usuario);
+        } finally {
+            cache.invalidar(usuario.getId());
+        }
+    }
+
+    @Override
+    public boolean deleteUsuario(int id) {
+        try {
+            return delegado.deleteUsuario(id);
+        } finally {
+            cache.invalidar(id);
+        }
+    }
+
+    private static UsuarioDay_2 copiar(UsuarioDay_2 usuario) {
+        return new UsuarioDay_2(usuario.getId(), usuario.getNombre(), usuario.getEmail(),
+                usuario.getFechaNacimiento(), usuario.getTipoDocumento());
+    }
+}
@@ -0,0 +1,221 @@
+package dao;
+
+import config.AnilloShards;
+import model.UsuarioDay_2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * IUsuarioDAO repartido entre varios perfiles de database.properties por hash del ID.
+ *
+ * Las operaciones sobre un usuario van directamente al shard que indica {@link AnilloShards}.
+ * Las que recorren todos los usuarios consultan todos los shards a la vez y juntan los
+ * resultados; el orden entre usuarios de shards distintos no está garantizado.
+ *
+ * El ID lo asigna quien da de alta el usuario: cada shard tiene su propio AUTO_INCREMENT
+ * y los IDs generados se repetirían entre shards, además de no saberse a qué shard
+ * pertenecen hasta después de insertarlos. Las altas sin ID se rechazan, y las que traen un
+ * ID que ya existe fallan como en un solo shard; solo upsertUsuarios sobrescribe usuarios.
+ */
+public class UsuarioDAOSharded implements IUsuarioDAO {
+
+    private static final String NOMBRE_CONFIGURACION = "usuarios";
+    private static final int CAPACIDAD_FUSION = 1024;
+
+    private final AnilloShards anillo;
+    private final Map<String, IUsuarioDAO> daos = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread hilo = new Thread(r, "usuarios-shards");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /**
+     * Usa los shards configurados en usuarios.shards de database.properties
+     */
+    public UsuarioDAOSharded() {
+        this(AnilloShards.desdeConfiguracion(NOMBRE_CONFIGURACION));
+    }
+
+    public UsuarioDAOSharded(AnilloShards anillo) {
+        this(anillo, UsuarioDAO::new);
+    }
+
+    /**
+     * @param anillo Reparto de IDs entre perfiles
+     * @param fabrica Crea el DAO de cada perfil (por ejemplo, para envolverlo en una caché)
+     */
+    public UsuarioDAOSharded(AnilloShards anillo, Function<String, IUsuarioDAO> fabrica) {
+        this.anillo = anillo;
+        for (String shard : anillo.getShards()) {
+            daos.put(shard, fabrica.apply(shard));
+        }
+    }
+
+    public AnilloShards getAnillo() {
+        return anillo;
+    }
+
+    private IUsuarioDAO daoDe(int id) {
+        return daos.get(anillo.shardDe(id));
+    }
+
+    @Override
+    public List<UsuarioDay_2> getAllUsuarios() {
+        List<CompletableFuture<List<UsuarioDay_2>>> consultas = new ArrayList<>();
+        for (IUsuarioDAO dao : daos.values()) {
+            consultas.add(CompletableFuture.supplyAsync(dao::getAllUsuarios, executor));
+        }
+        List<UsuarioDay_2> usuarios = new ArrayList<>();
+        for (CompletableFuture<List<UsuarioDay_2>> consulta : consultas) {
+            usuarios.addAll(consulta.join());
+        }
+        return usuarios;
+    }
+
+    @Override
+    public Stream<UsuarioDay_2> streamUsuarios(int fetchSize) {
+        List<Supplier<Stream<UsuarioDay_2>>> fuentes = new ArrayList<>();
+        for (IUsuarioDAO dao : daos.values()) {
+            fuentes.add(() -> dao.streamUsuarios(fetchSize));
+        }
+        return StreamsParalelos.fusionar(fuentes, executor, CAPACIDAD_FUSION);
+    }
+
+    @Override
+    public UsuarioDay_2 getUsuarioById(int id) {
+        return daoDe(id).getUsuarioById(id);
+    }
+
+    @Override
+    public Map<Integer, UsuarioDay_2> getUsuariosByIds(Collection<Integer> ids) {
+        List<Integer> unicos = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<String, List<Integer>> porShard = new LinkedHashMap<>();
+        for (Integer id : unicos) {
+            porShard.computeIfAbsent(anillo.shardDe(id), shard -> new ArrayList<>()).add(id);
+        }
+
+        List<CompletableFuture<Map<Integer, UsuarioDay_2>>> consultas = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> entrada : porShard.entrySet()) {
+            IUsuarioDAO dao = daos.get(entrada.getKey());
+            consultas.add(CompletableFuture.supplyAsync(() -> dao.getUsuariosByIds(entrada.getValue()), executor));
+        }
+        Map<Integer, UsuarioDay_2> porId = new LinkedHashMap<>();
+        for (CompletableFuture<Map<Integer, UsuarioDay_2>> consulta : consultas) {
+            porId.putAll(consulta.join());
+        }
+
+        // Mismo orden que los IDs pedidos, como en un solo shard
+        Map<Integer, UsuarioDay_2> encontrados = new LinkedHashMap<>();
+        for (Integer id : unicos) {
+            UsuarioDay_2 usuario = porId.get(id);
+            if (usuario != null) {
+                encontrados.put(id, usuario);
+            }
+        }
+        return encontrados;
+    }
+
+    @Override
+    public int insertUsuario(UsuarioDay_2 usuario) {
+        if (usuario.getId() <= 0) {
+            System.err.println("Error en insertUsuario: con shards el usuario debe tener ID asignado");
+            return -1;
+        }
+        ResultadoLote resultado = daoDe(usuario.getId()).insertUsuariosConId(Collections.singletonList(usuario), 1);
+        if (resultado.hayErrores()) {
+            System.err.println("Error en insertUsuario para ID " + usuario.getId() + ": " + resultado.getErrores().get(0));
+            return -1;
+        }
+        return resultado.getIds()[0];
+    }
+
+    @Override
+    public ResultadoLote insertUsuarios(List<UsuarioDay_2> usuarios, int tamanoLote) {
+        return insertUsuariosConId(usuarios, tamanoLote);
+    }
+
+    @Override
+    public ResultadoLote insertUsuariosConId(List<UsuarioDay_2> usuarios, int tamanoLote) {
+        return escribirPorShard(usuarios, tamanoLote, IUsuarioDAO::insertUsuariosConId);
+    }
+
+    @Override
+    public ResultadoLote upsertUsuarios(List<UsuarioDay_2> usuarios, int tamanoLote) {
+        return escribirPorShard(usuarios, tamanoLote, IUsuarioDAO::upsertUsuarios);
+    }
+
+    // Reparte los usuarios por shard, escribe en todos a la vez y junta los resultados
+    private ResultadoLote escribirPorShard(List<UsuarioDay_2> usuarios, int tamanoLote, EscrituraLote escritura) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero: " + tamanoLote);
+        }
+        ResultadoLote resultado = new ResultadoLote(usuarios.size());
+
+        // Posiciones de entrada de los usuarios de cada shard
+        Map<String, List<Integer>> porShard = new LinkedHashMap<>();
+        for (int i = 0; i < usuarios.size(); i++) {
+            int id = usuarios.get(i).getId();
+            if (id <= 0) {
+                resultado.registrarError(i, "Con shards el usuario debe tener ID asignado");
+            } else {
+                porShard.computeIfAbsent(anillo.shardDe(id), shard -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<List<Integer>> posicionesPorShard = new ArrayList<>(porShard.values());
+        List<CompletableFuture<ResultadoLote>> escrituras = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> entrada : porShard.entrySet()) {
+            IUsuarioDAO dao = daos.get(entrada.getKey());
+            List<UsuarioDay_2> lote = new ArrayList<>(entrada.getValue().size());
+            for (int posicion : entrada.getValue()) {
+                lote.add(usuarios.get(posicion));
+            }
+            escrituras.add(CompletableFuture.supplyAsync(() -> escritura.escribir(dao, lote, tamanoLote), executor));
+        }
+
+        // Se traducen las posiciones de cada shard a las de la lista original
+        for (int shard = 0; shard < escrituras.size(); shard++) {
+            List<Integer> posiciones = posicionesPorShard.get(shard);
+            ResultadoLote parcial = escrituras.get(shard).join();
+            int[] ids = parcial.getIds();
+            Map<Integer, String> errores = parcial.getErrores();
+            for (int i = 0; i < posiciones.size(); i++) {
+                String error = errores.get(i);
+                if (error != null) {
+                    resultado.registrarError(posiciones.get(i), error);
+                } else {
+                    resultado.registrarId(posiciones.get(i), ids[i]);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    @FunctionalInterface
+    private interface EscrituraLote {
+        ResultadoLote escribir(IUsuarioDAO dao, List<UsuarioDay_2> usuarios, int tamanoLote);
+    }
+
+    @Override
+    public int updateUsuario(UsuarioDay_2 usuario) {
+        return daoDe(usuario.getId()).updateUsuario(usuario);
+    }
+
+    @Override
+    public boolean deleteUsuario(int id) {
+        return daoDe(id).deleteUsuario(id);
+    }
+}
@@ -0,0 +1,294 @@
+package etl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Inserta filas en la tabla estudiantes por lotes, dentro de transacciones explícitas que se
+ * confirman cada cierto número de lotes, en lugar de una sentencia y un commit por fila.
+ *
+ * Dos formas de enviar cada lote:
+ * <ul>
+ *   <li>LOTES: addBatch/executeBatch con la sentencia de una fila. Con el driver de MySQL y
+ *   rewriteBatchedStatements (que ya activa {@link config.ConnectionPool}) el lote viaja como
+ *   un único INSERT multi-fila.</li>
+ *   <li>MULTIFILA: un INSERT ... VALUES (?, ?, ?), (?, ?, ?)... preparado con tantas filas como
+ *   el lote, para drivers que no reescriben los lotes.</li>
+ * </ul>
+ *
+ * Lo confirmado en los commits periódicos se queda en la tabla aunque la carga falle después;
+ * al cerrar sin {@link #confirmar()} se deshace solo lo pendiente.
+ *
+ * Con un identificador de ejecución cada fila se guarda además con su número de línea, y
+ * (id_ejecucion, linea) es clave única: repetir una carga que se cortó vuelve a escribir las
+ * mismas filas en lugar de duplicarlas (ver {@link ProcesadorEstudiantesAvanzado#procesarArchivoReanudable}).
+ */
+public class CargadorEstudiantesBD implements AutoCloseable {
+
+    /**
+     * Forma de enviar cada lote al servidor
+     */
+    public enum ModoInsercion {
+        LOTES,
+        MULTIFILA
+    }
+
+    public static final int TAMANO_LOTE_POR_DEFECTO = 1000;
+    public static final int LOTES_POR_TRANSACCION_POR_DEFECTO = 10;
+
+    // MySQL admite como mucho 65535 parámetros por sentencia preparada y cada fila usa 3
+    private static final int MAXIMO_FILAS_MULTIFILA = 65535 / 3;
+    // Con identificador de ejecución cada fila usa 5
+    private static final int MAXIMO_FILAS_MULTIFILA_EJECUCION = 65535 / 5;
+    private static final String SQL_INSERT = "INSERT INTO estudiantes (nombre, promedio, desviacion_estandar) VALUES ";
+    private static final String VALORES_FILA = "(?, ?, ?)";
+    private static final String SQL_INSERT_EJECUCION =
+            "INSERT INTO estudiantes (nombre, promedio, desviacion_estandar, id_ejecucion, linea) VALUES ";
+    private static final String VALORES_FILA_EJECUCION = "(?, ?, ?, ?, ?)";
+    private static final String SQL_ACTUALIZAR_EJECUCION = " ON DUPLICATE KEY UPDATE nombre = VALUES(nombre), " +
+            "promedio = VALUES(promedio), desviacion_estandar = VALUES(desviacion_estandar)";
+
+    private final Connection conn;
+    private final boolean autoCommitOriginal;
+    private final int tamanoLote;
+    private final int lotesPorTransaccion;
+    private final ModoInsercion modo;
+    private final String idEjecucion;
+    private final PreparedStatement sentencia;
+
+    // Filas del lote en curso; en modo LOTES ya están añadidas a la sentencia con addBatch
+    private final String[] nombres;
+    private final double[] promedios;
+    private final double[] desviaciones;
+    private final long[] lineas;
+    private int filasEnLote;
+
+    private int lotesSinConfirmar;
+    private long filasInsertadas;
+    private long lotesEnviados;
+    private long transacciones;
+    private final long inicioNanos = System.nanoTime();
+    private long nanosTotales = -1;
+
+    /**
+     * @param conn Conexión a usar; se pasa a autocommit desactivado y se restaura al cerrar
+     * @param tamanoLote Filas que se envían al servidor de una vez
+     * @param lotesPorTransaccion Lotes enviados entre un commit y el siguiente
+     * @param modo Forma de enviar cada lote
+     * @throws SQLException Si no se puede preparar la sentencia
+     */
+    public CargadorEstudiantesBD(Connection conn, int tamanoLote, int lotesPorTransaccion, ModoInsercion modo) throws SQLException {
+        this(conn, tamanoLote, lotesPorTransaccion, modo, null);
+    }
+
+    /**
+     * @param conn Conexión a usar; se pasa a autocommit desactivado y se restaura al cerrar
+     * @param tamanoLote Filas que se envían al servidor de una vez
+     * @param lotesPorTransaccion Lotes enviados entre un commit y el siguiente
+     * @param modo Forma de enviar cada lote
+     * @param idEjecucion Identificador de la ejecución para las filas agregadas con su línea, o
+     *                    null para insertar sin él. La tabla necesita las columnas id_ejecucion y linea
+     * @throws SQLException Si no se puede preparar la sentencia
+     */
+    public CargadorEstudiantesBD(Connection conn, int tamanoLote, int lotesPorTransaccion, ModoInsercion modo,
+                                 String idEjecucion) throws SQLException {
+        if (tamanoLote <= 0 || lotesPorTransaccion <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote y los lotes por transacción deben ser mayores que cero");
+        }
+        int maximoFilas = idEjecucion == null ? MAXIMO_FILAS_MULTIFILA : MAXIMO_FILAS_MULTIFILA_EJECUCION;
+        if (modo == ModoInsercion.MULTIFILA && tamanoLote > maximoFilas) {
+            throw new IllegalArgumentException("En modo MULTIFILA el lote no puede pasar de " + maximoFilas + " filas: " + tamanoLote);
+        }
+        this.conn = conn;
+        this.tamanoLote = tamanoLote;
+        this.lotesPorTransaccion = lotesPorTransaccion;
+        this.modo = modo;
+        this.idEjecucion = idEjecucion;
+
+        boolean multifila = modo == ModoInsercion.MULTIFILA;
+        this.nombres = multifila ? new String[tamanoLote] : null;
+        this.promedios = multifila ? new double[tamanoLote] : null;
+        this.desviaciones = multifila ? new double[tamanoLote] : null;
+        this.lineas = multifila && idEjecucion != null ? new long[tamanoLote] : null;
+
+        this.autoCommitOriginal = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        this.sentencia = conn.prepareStatement(sqlInsert(multifila ? tamanoLote : 1));
+    }
+
+    private String sqlInsert(int filas) {
+        String insert = idEjecucion == null ? SQL_INSERT : SQL_INSERT_EJECUCION;
+        String valores = idEjecucion == null ? VALORES_FILA : VALORES_FILA_EJECUCION;
+        StringBuilder sql = new StringBuilder(insert.length() + filas * (valores.length() + 2) + SQL_ACTUALIZAR_EJECUCION.length());
+        sql.append(insert);
+        for (int i = 0; i < filas; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(valores);
+        }
+        if (idEjecucion != null) {
+            sql.append(SQL_ACTUALIZAR_EJECUCION);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Añade una fila al lote en curso, enviándolo si se llena
+     * @return true si al enviar el lote se confirmó la transacción
+     * @throws SQLException Si falla el envío de un lote o un commit
+     */
+    public boolean agregar(String nombre, double promedio, double desviacionEstandar) throws SQLException {
+        if (idEjecucion != null) {
+            throw new IllegalStateException("Con identificador de ejecución hay que indicar la línea de cada fila");
+        }
+        return agregarFila(nombre, promedio, desviacionEstandar, 0);
+    }
+
+    /**
+     * Añade una fila de la ejecución al lote en curso, enviándolo si se llena
+     * @param linea Línea del archivo de la que sale la fila; junto con el identificador de
+     *              ejecución identifica la fila si se vuelve a cargar
+     * @return true si al enviar el lote se confirmó la transacción
+     * @throws SQLException Si falla el envío de un lote o un commit
+     */
+    public boolean agregar(String nombre, double promedio, double desviacionEstandar, long linea) throws SQLException {
+        if (idEjecucion == null) {
+            throw new IllegalStateException("Sin identificador de ejecución las filas no llevan línea");
+        }
+        return agregarFila(nombre, promedio, desviacionEstandar, linea);
+    }
+
+    private boolean agregarFila(String nombre, double promedio, double desviacionEstandar, long linea) throws SQLException {
+        if (modo == ModoInsercion.MULTIFILA) {
+            nombres[filasEnLote] = nombre;
+            promedios[filasEnLote] = promedio;
+            desviaciones[filasEnLote] = desviacionEstandar;
+            if (lineas != null) {
+                lineas[filasEnLote] = linea;
+            }
+        } else {
+            sentencia.setString(1, nombre);
+            sentencia.setDouble(2, promedio);
+            sentencia.setDouble(3, desviacionEstandar);
+            if (idEjecucion != null) {
+                sentencia.setString(4, idEjecucion);
+                sentencia.setLong(5, linea);
+            }
+            sentencia.addBatch();
+        }
+
+        return ++filasEnLote == tamanoLote && enviarLote();
+    }
+
+    /**
+     * Envía el lote incompleto y confirma la transacción en curso
+     * @throws SQLException Si falla el envío o el commit
+     */
+    public void confirmar() throws SQLException {
+        enviarLote();
+        if (lotesSinConfirmar > 0) {
+            commit();
+        }
+        nanosTotales = System.nanoTime() - inicioNanos;
+    }
+
+    // Devuelve true si con este lote se llegó a un commit
+    private boolean enviarLote() throws SQLException {
+        if (filasEnLote == 0) {
+            return false;
+        }
+
+        if (modo == ModoInsercion.MULTIFILA) {
+            if (filasEnLote == tamanoLote) {
+                asignarFilas(sentencia);
+                sentencia.executeUpdate();
+            } else {
+                // El último lote es más corto: se prepara una sentencia con sus filas justas
+                try (PreparedStatement ultimo = conn.prepareStatement(sqlInsert(filasEnLote))) {
+                    asignarFilas(ultimo);
+                    ultimo.executeUpdate();
+                }
+            }
+        } else {
+            sentencia.executeBatch();
+        }
+
+        filasInsertadas += filasEnLote;
+        filasEnLote = 0;
+        lotesEnviados++;
+        if (++lotesSinConfirmar == lotesPorTransaccion) {
+            commit();
+            return true;
+        }
+        return false;
+    }
+
+    private void asignarFilas(PreparedStatement stmt) throws SQLException {
+        int parametro = 1;
+        for (int i = 0; i < filasEnLote; i++) {
+            stmt.setString(parametro++, nombres[i]);
+            stmt.setDouble(parametro++, promedios[i]);
+            stmt.setDouble(parametro++, desviaciones[i]);
+            if (lineas != null) {
+                stmt.setString(parametro++, idEjecucion);
+                stmt.setLong(parametro++, lineas[i]);
+            }
+            nombres[i] = null;
+        }
+    }
+
+    private void commit() throws SQLException {
+        conn.commit();
+        lotesSinConfirmar = 0;
+        transacciones++;
+    }
+
+    /**
+     * @return Filas enviadas en lotes que se ejecutaron sin error (confirmadas o no)
+     */
+    public long getFilasInsertadas() {
+        return filasInsertadas;
+    }
+
+    public long getLotesEnviados() {
+        return lotesEnviados;
+    }
+
+    public long getTransacciones() {
+        return transacciones;
+    }
+
+    /**
+     * @return Filas por segundo desde que se creó el cargador hasta {@link #confirmar()} (o hasta ahora)
+     */
+    public double getFilasPorSegundo() {
+        long nanos = nanosTotales >= 0 ? nanosTotales : System.nanoTime() - inicioNanos;
+        return nanos == 0 ? 0.0 : filasInsertadas * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * Deshace lo que no se haya confirmado, restaura el autocommit y cierra la sentencia
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (filasEnLote > 0 || lotesSinConfirmar > 0) {
+                conn.rollback();
+            }
+        } finally {
+            try {
+                sentencia.close();
+            } finally {
+                conn.setAutoCommit(autoCommitOriginal);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Carga de estudiantes (%s): %d filas | %d lotes | %d transacciones | %.0f filas/s",
+                modo, filasInsertadas, lotesEnviados, transacciones, getFilasPorSegundo());
+    }
+}
@@ -0,0 +1,31 @@
+package etl;
+
+/**
+ * Métricas de una {@link IngestaDirectorio}, publicadas por JMX como
+ * etl:type=IngestaDirectorio,directorio=&lt;directorio de entrada&gt;
+ */
+public interface EstadisticasIngestaMXBean {
+
+    String getDirectorioEntrada();
+
+    /** Archivos detectados que esperan un hilo libre */
+    int getArchivosEnCola();
+
+    /** Máximo de archivos en cola a la vez desde el arranque */
+    int getMaximoArchivosEnCola();
+
+    /** Archivos que se están procesando ahora mismo */
+    int getArchivosEnProceso();
+
+    /** Archivos procesados y movidos al archivo desde el arranque */
+    long getArchivosProcesados();
+
+    /** Archivos cuyo procesamiento falló; se quedan en el directorio de entrada */
+    long getArchivosFallidos();
+
+    /** Tiempo medio de procesamiento de un archivo, sin contar la espera en cola */
+    double getTiempoMedioArchivoMs();
+
+    /** Megabytes de archivos procesados por segundo desde el arranque */
+    double getMegasPorSegundo();
+}
@@ -0,0 +1,113 @@
+package etl;
+
+import java.util.Arrays;
+
+/**
+ * Promedio, desviación estándar, mínimo y máximo de las notas de un estudiante calculados
+ * según llegan, en una sola pasada (algoritmo de Welford), sin guardar cada nota.
+ *
+ * Si hacen falta las notas originales se pueden guardar en un double[] con
+ * {@link #EstadisticasNotas(boolean)}.
+ */
+public final class EstadisticasNotas {
+
+    private static final int CAPACIDAD_INICIAL = 8;
+
+    private long cantidad;
+    // getPromedio() usa suma / cantidad, que da el mismo valor que sumar las notas al final;
+    // el promedio de Welford solo sirve para acumular m2
+    private double suma;
+    private double promedio;
+    // Suma de los cuadrados de las diferencias con el promedio, sum((xi - promedio)^2)
+    private double m2;
+    private double minimo = Double.NaN;
+    private double maximo = Double.NaN;
+
+    private double[] notas;
+
+    public EstadisticasNotas() {
+        this(false);
+    }
+
+    /**
+     * @param guardarNotas Si además de las estadísticas se guardan las notas para {@link #getNotas()}
+     */
+    public EstadisticasNotas(boolean guardarNotas) {
+        this.notas = guardarNotas ? new double[CAPACIDAD_INICIAL] : null;
+    }
+
+    public void agregar(double nota) {
+        if (notas != null) {
+            if (cantidad == notas.length) {
+                notas = Arrays.copyOf(notas, notas.length * 2);
+            }
+            notas[(int) cantidad] = nota;
+        }
+
+        cantidad++;
+        double diferencia = nota - promedio;
+        suma += nota;
+        promedio += diferencia / cantidad;
+        m2 += diferencia * (nota - promedio);
+
+        if (cantidad == 1) {
+            minimo = nota;
+            maximo = nota;
+        } else {
+            minimo = Math.min(minimo, nota);
+            maximo = Math.max(maximo, nota);
+        }
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * @return Promedio de las notas, 0.0 si no hay ninguna
+     */
+    public double getPromedio() {
+        return cantidad == 0 ? 0.0 : suma / cantidad;
+    }
+
+    /**
+     * Desviación estándar poblacional, sqrt(sum((xi - promedio)^2) / n)
+     *
+     * @return Desviación estándar, 0.0 si hay una nota o ninguna
+     */
+    public double getDesviacionEstandar() {
+        if (cantidad <= 1) {
+            return 0.0;
+        }
+        return Math.sqrt(m2 / cantidad);
+    }
+
+    /**
+     * @return Nota más baja, NaN si no hay ninguna
+     */
+    public double getMinimo() {
+        return minimo;
+    }
+
+    /**
+     * @return Nota más alta, NaN si no hay ninguna
+     */
+    public double getMaximo() {
+        return maximo;
+    }
+
+    public boolean isGuardaNotas() {
+        return notas != null;
+    }
+
+    /**
+     * @return Copia de las notas en el orden en que se agregaron
+     * @throws IllegalStateException Si se creó sin guardar las notas
+     */
+    public double[] getNotas() {
+        if (notas == null) {
+            throw new IllegalStateException("Las notas no se guardan; crea EstadisticasNotas(true) para conservarlas");
+        }
+        return Arrays.copyOf(notas, (int) cantidad);
+    }
+}
@@ -0,0 +1,369 @@
+package etl;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Modo demonio para ProcesadorEstudiantesAvanzado: vigila un directorio de entrada con
+ * WatchService y procesa cada archivo .txt que aparece, varios a la vez hasta el paralelismo
+ * indicado. Por cada archivo escribe &lt;nombre&gt;_resultados.txt en el directorio de salida
+ * (con la fecha de la entrada detrás si ya existe), guarda los estudiantes en la base de datos
+ * (perfil mysql_tl) y mueve el archivo de entrada al directorio de archivados.
+ *
+ * Cada archivo se procesa con {@link ProcesadorEstudiantesAvanzado#procesarArchivoReanudable},
+ * con el punto de control en el directorio de salida: si el proceso se corta, al arrancar de
+ * nuevo se recogen los archivos que quedaron en la entrada y se continúan donde iban. Los
+ * archivos que fallan también se quedan en la entrada hasta el siguiente arranque.
+ *
+ * Antes de procesar un archivo se espera a que su tamaño deje de cambiar, por si se está
+ * copiando todavía; aun así lo más seguro es escribirlo con otro nombre y renombrarlo a .txt.
+ * Cada archivo usa una conexión, así que el paralelismo no debería pasar de pool.maxSize.
+ */
+public class IngestaDirectorio implements EstadisticasIngestaMXBean, AutoCloseable {
+
+    public static final String EXTENSION_ENTRADA = ".txt";
+    public static final String SUFIJO_RESULTADOS = "_resultados.txt";
+    // Tiempo que el tamaño de un archivo tiene que seguir igual para darlo por completo
+    private static final long ESPERA_ARCHIVO_COMPLETO_MS = 500;
+
+    private final Path directorioEntrada;
+    private final Path directorioSalida;
+    private final Path directorioArchivados;
+    private final ProcesadorEstudiantesAvanzado procesador;
+    private final ThreadPoolExecutor ejecutor;
+
+    // Archivos en cola o en proceso, para no encolar dos veces el mismo por varios eventos
+    private final Set<Path> pendientes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger enProceso = new AtomicInteger();
+    private final AtomicInteger maximoEnCola = new AtomicInteger();
+    private final LongAdder procesados = new LongAdder();
+    private final LongAdder fallidos = new LongAdder();
+    private final LongAdder bytesProcesados = new LongAdder();
+    private final LongAdder nanosProcesando = new LongAdder();
+    private final long inicioNanos = System.nanoTime();
+
+    private WatchService vigilante;
+    private Thread hiloVigilante;
+    private ObjectName nombreJmx;
+
+    /**
+     * @param directorioEntrada Directorio donde se dejan los archivos de notas
+     * @param directorioSalida Directorio de los archivos de resultados y los puntos de control
+     * @param directorioArchivados Directorio al que se mueven los archivos ya procesados
+     * @param paralelismo Archivos que se procesan a la vez
+     */
+    public IngestaDirectorio(Path directorioEntrada, Path directorioSalida, Path directorioArchivados, int paralelismo) {
+        this(directorioEntrada, directorioSalida, directorioArchivados, paralelismo, new ProcesadorEstudiantesAvanzado());
+    }
+
+    /**
+     * @param procesador Procesador con el tamaño de lote y modo de inserción a usar
+     */
+    public IngestaDirectorio(Path directorioEntrada, Path directorioSalida, Path directorioArchivados, int paralelismo,
+                             ProcesadorEstudiantesAvanzado procesador) {
+        if (paralelismo <= 0) {
+            throw new IllegalArgumentException("El paralelismo debe ser mayor que cero: " + paralelismo);
+        }
+        this.directorioEntrada = directorioEntrada.toAbsolutePath();
+        this.directorioSalida = directorioSalida.toAbsolutePath();
+        this.directorioArchivados = directorioArchivados.toAbsolutePath();
+        this.procesador = procesador;
+
+        AtomicInteger numeroHilo = new AtomicInteger();
+        this.ejecutor = new ThreadPoolExecutor(paralelismo, paralelismo, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> new Thread(r, "ingesta-" + numeroHilo.incrementAndGet()));
+    }
+
+    /**
+     * Crea los directorios si no existen, encola los archivos que ya hay en la entrada y empieza
+     * a vigilarla en un hilo propio
+     * @throws IOException Si no se pueden crear los directorios o vigilar la entrada
+     */
+    public synchronized void iniciar() throws IOException {
+        if (vigilante != null) {
+            throw new IllegalStateException("La ingesta ya está iniciada");
+        }
+        Files.createDirectories(directorioEntrada);
+        Files.createDirectories(directorioSalida);
+        Files.createDirectories(directorioArchivados);
+
+        vigilante = directorioEntrada.getFileSystem().newWatchService();
+        directorioEntrada.register(vigilante, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        // Después de registrar, para no perder los que lleguen mientras se recorre el directorio
+        encolarExistentes();
+
+        hiloVigilante = new Thread(this::vigilar, "ingesta-vigilante");
+        hiloVigilante.start();
+        registrarJmx();
+        System.out.println("Vigilando " + directorioEntrada + " con " + ejecutor.getCorePoolSize() + " archivo(s) a la vez");
+    }
+
+    private void vigilar() {
+        try {
+            while (true) {
+                WatchKey clave = vigilante.take();
+                for (WatchEvent<?> evento : clave.pollEvents()) {
+                    if (evento.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Se perdieron eventos: se vuelve a mirar todo el directorio
+                        encolarExistentes();
+                    } else {
+                        encolar(directorioEntrada.resolve((Path) evento.context()));
+                    }
+                }
+                if (!clave.reset()) {
+                    System.err.println("El directorio de entrada ya no se puede vigilar: " + directorioEntrada);
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Se llamó a close()
+        } catch (IOException e) {
+            System.err.println("Error al recorrer el directorio de entrada: " + e.getMessage());
+        }
+    }
+
+    private void encolarExistentes() throws IOException {
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorioEntrada, "*" + EXTENSION_ENTRADA)) {
+            for (Path archivo : archivos) {
+                encolar(archivo);
+            }
+        }
+    }
+
+    private void encolar(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        if (!nombre.endsWith(EXTENSION_ENTRADA) || nombre.startsWith(".") || !pendientes.add(archivo)) {
+            return;
+        }
+        ejecutor.execute(() -> procesar(archivo));
+        maximoEnCola.accumulateAndGet(ejecutor.getQueue().size(), Math::max);
+    }
+
+    private void procesar(Path archivo) {
+        enProceso.incrementAndGet();
+        try {
+            if (!esperarArchivoCompleto(archivo)) {
+                return; // Ya no está: otro evento del mismo archivo después de archivarlo
+            }
+            long inicio = System.nanoTime();
+            long bytes = Files.size(archivo);
+
+            String nombre = archivo.getFileName().toString();
+            String base = nombre.substring(0, nombre.length() - EXTENSION_ENTRADA.length());
+            Path puntoControl = directorioSalida.resolve(nombre + ProcesadorEstudiantesAvanzado.EXTENSION_PUNTO_CONTROL);
+            Path resultados = archivoResultados(archivo, base, puntoControl);
+
+            // Se archiva antes de borrar el punto de control: si algo falla entre medias, al reanudar
+            // se vuelve a archivar con el mismo identificador de ejecución en lugar de insertarlo todo otra vez
+            if (procesador.procesarArchivoReanudable(archivo.toString(), resultados.toString(), puntoControl,
+                    () -> archivar(archivo))) {
+                procesados.increment();
+                bytesProcesados.add(bytes);
+                nanosProcesando.add(System.nanoTime() - inicio);
+                System.out.println("[ingesta] " + nombre + " procesado en "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) + " ms | " + this);
+            } else {
+                fallidos.increment();
+                System.err.println("[ingesta] " + nombre + " no se pudo procesar; se reanudará en el próximo arranque");
+            }
+        } catch (IOException e) {
+            fallidos.increment();
+            System.err.println("[ingesta] Error con " + archivo.getFileName() + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pendientes.remove(archivo);
+            enProceso.decrementAndGet();
+        }
+    }
+
+    /**
+     * Espera a que el tamaño y la fecha de modificación del archivo dejen de cambiar
+     * @return false si el archivo ya no existe
+     */
+    private boolean esperarArchivoCompleto(Path archivo) throws IOException, InterruptedException {
+        long tamano = -1;
+        long modificado = -1;
+        while (Files.exists(archivo)) {
+            long tamanoActual = Files.size(archivo);
+            long modificadoActual = Files.getLastModifiedTime(archivo).toMillis();
+            if (tamanoActual == tamano && modificadoActual == modificado) {
+                return true;
+            }
+            tamano = tamanoActual;
+            modificado = modificadoActual;
+            Thread.sleep(ESPERA_ARCHIVO_COMPLETO_MS);
+        }
+        return false;
+    }
+
+    /**
+     * Si ya hay unos resultados con el mismo nombre, de una entrada anterior, se les añade la fecha
+     * de modificación de la entrada para no pisarlos. Esa fecha no cambia entre arranques, así que
+     * al reanudar se vuelve al mismo archivo.
+     */
+    private Path archivoResultados(Path archivo, String base, Path puntoControl) throws IOException {
+        Path resultados = directorioSalida.resolve(base + SUFIJO_RESULTADOS);
+        Path conFecha = directorioSalida.resolve(base + SUFIJO_RESULTADOS + "." + Files.getLastModifiedTime(archivo).toMillis());
+        PuntoControl previo = PuntoControl.cargar(puntoControl);
+        if (previo != null && previo.correspondeA(archivo)) {
+            return Files.exists(conFecha) ? conFecha : resultados;
+        }
+        return Files.exists(resultados) ? conFecha : resultados;
+    }
+
+    // Si ya hay un archivado con el mismo nombre se le añade la hora para no pisarlo (sin
+    // ATOMIC_MOVE, que en Linux reemplaza el destino en lugar de fallar)
+    private void archivar(Path archivo) throws IOException {
+        Path destino = directorioArchivados.resolve(archivo.getFileName());
+        try {
+            Files.move(archivo, destino);
+        } catch (FileAlreadyExistsException e) {
+            Files.move(archivo, directorioArchivados.resolve(archivo.getFileName() + "." + System.currentTimeMillis()));
+        }
+    }
+
+    private void registrarJmx() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName("etl:type=IngestaDirectorio,directorio="
+                    + ObjectName.quote(directorioEntrada.toString()));
+            if (!servidor.isRegistered(nombre)) {
+                servidor.registerMBean(this, nombre);
+                nombreJmx = nombre;
+            }
+        } catch (JMException | RuntimeException e) {
+            System.err.println("No se pudo publicar por JMX la ingesta de " + directorioEntrada + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deja de vigilar la entrada y espera a que terminen los archivos en proceso. Los que estaban
+     * en cola no se empiezan: se quedan en la entrada y se recogen en el próximo arranque.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (vigilante != null) {
+                vigilante.close();
+                hiloVigilante.join();
+            }
+            // Con el vigilante parado ya no se encola nada más
+            List<Runnable> sinEmpezar = new ArrayList<>();
+            ejecutor.getQueue().drainTo(sinEmpezar);
+            ejecutor.shutdown();
+            if (!sinEmpezar.isEmpty()) {
+                System.out.println("[ingesta] " + sinEmpezar.size() + " archivo(s) en cola se quedan en la entrada para el próximo arranque");
+            }
+            ejecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            // No se espera más: lo que no haya terminado se reanudará desde su punto de control
+            Thread.currentThread().interrupt();
+            ejecutor.shutdownNow();
+            System.err.println("Se dejó de esperar a los archivos en proceso de " + directorioEntrada);
+        }
+        if (nombreJmx != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(nombreJmx);
+            } catch (JMException e) {
+                System.err.println("No se pudo retirar de JMX la ingesta de " + directorioEntrada + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public String getDirectorioEntrada() {
+        return directorioEntrada.toString();
+    }
+
+    @Override
+    public int getArchivosEnCola() {
+        return ejecutor.getQueue().size();
+    }
+
+    @Override
+    public int getMaximoArchivosEnCola() {
+        return maximoEnCola.get();
+    }
+
+    @Override
+    public int getArchivosEnProceso() {
+        return enProceso.get();
+    }
+
+    @Override
+    public long getArchivosProcesados() {
+        return procesados.sum();
+    }
+
+    @Override
+    public long getArchivosFallidos() {
+        return fallidos.sum();
+    }
+
+    @Override
+    public double getTiempoMedioArchivoMs() {
+        long archivos = procesados.sum();
+        return archivos == 0 ? 0.0 : nanosProcesando.sum() / 1_000_000.0 / archivos;
+    }
+
+    @Override
+    public double getMegasPorSegundo() {
+        double segundos = (System.nanoTime() - inicioNanos) / 1_000_000_000.0;
+        return segundos == 0 ? 0.0 : bytesProcesados.sum() / (1024.0 * 1024.0) / segundos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("en cola: %d (máx %d) | en proceso: %d | procesados: %d | fallidos: %d | medio %.0f ms | %.2f MB/s",
+                getArchivosEnCola(), getMaximoArchivosEnCola(), getArchivosEnProceso(), getArchivosProcesados(),
+                getArchivosFallidos(), getTiempoMedioArchivoMs(), getMegasPorSegundo());
+    }
+
+    /**
+     * Arranca la ingesta hasta que se detiene el proceso (Ctrl+C)
+     *
+     * Uso: IngestaDirectorio directorioEntrada directorioSalida directorioArchivados [paralelismo]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Uso: IngestaDirectorio directorioEntrada directorioSalida directorioArchivados [paralelismo]");
+            System.exit(1);
+        }
+        int paralelismo = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        IngestaDirectorio ingesta = new IngestaDirectorio(Paths.get(args[0]), Paths.get(args[1]), Paths.get(args[2]), paralelismo);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                ingesta.close();
+                System.out.println("Ingesta detenida | " + ingesta);
+            } catch (IOException e) {
+                System.err.println("Error al detener la ingesta: " + e.getMessage());
+            }
+        }, "ingesta-parada"));
+        ingesta.iniciar();
+    }
+}
@@ -0,0 +1,11 @@
+package etl;
+
+/**
+ * Forma de leer el archivo de estudiantes
+ */
+public enum ModoLectura {
+    /** Línea a línea con BufferedReader */
+    LINEAS,
+    /** Mapeado en memoria y separado en paralelo con {@link ParserEstudiantesMapeado} */
+    MAPEADO
+}
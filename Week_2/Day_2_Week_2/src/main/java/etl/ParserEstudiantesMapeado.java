@@ -0,0 +1,419 @@
+package etl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Lector del archivo de estudiantes ("nombre;nota;nota...") para archivos grandes.
+ *
+ * El archivo se divide en trozos que terminan en un fin de línea; cada trozo se mapea en
+ * memoria y se separa en campos directamente desde los bytes (sin decodificar la línea
+ * entera a String) en un hilo distinto. Los
+ * registros se entregan en el orden del archivo: el hilo que llama recoge los trozos en
+ * orden, y como solo hay unos pocos trozos leídos a la vez, la memoria no depende del
+ * tamaño del archivo.
+ *
+ * Separa los campos como String.split(";") en ProcesadorEstudiantesAvanzado: se ignoran las
+ * líneas en blanco y los campos vacíos del final, y se quitan los espacios de los extremos
+ * de cada campo. Los nombres se leen como UTF-8. Las notas con formato decimal simple se
+ * convierten sin crear un String, con el mismo resultado que Double.parseDouble; el resto
+ * (exponentes, NaN...) se pasan a Double.parseDouble.
+ */
+public class ParserEstudiantesMapeado {
+
+    /** Bytes aproximados de cada trozo; el trozo se alarga hasta el siguiente fin de línea */
+    public static final int TAMANO_TROZO_POR_DEFECTO = 32 * 1024 * 1024;
+
+    private static final byte SEPARADOR = ';';
+    private static final int BUFFER_BUSQUEDA = 8192;
+    // Bytes que se copian del mapeo de una vez para separar las líneas
+    private static final int TAMANO_BLOQUE = 64 * 1024;
+    // Hasta 15 dígitos la mantisa es exacta en un double, y 10^22 es la mayor potencia de 10
+    // exacta: mantisa / 10^decimales es entonces una sola división correctamente redondeada
+    private static final long MANTISA_MAXIMA = 999_999_999_999_999L;
+    private static final double[] POTENCIAS_DE_10 = new double[23];
+
+    static {
+        POTENCIAS_DE_10[0] = 1;
+        for (int i = 1; i < POTENCIAS_DE_10.length; i++) {
+            POTENCIAS_DE_10[i] = POTENCIAS_DE_10[i - 1] * 10;
+        }
+    }
+
+    private final int hilos;
+    private final int tamanoTrozo;
+
+    public ParserEstudiantesMapeado() {
+        this(Runtime.getRuntime().availableProcessors(), TAMANO_TROZO_POR_DEFECTO);
+    }
+
+    /**
+     * @param hilos Hilos que separan trozos a la vez
+     * @param tamanoTrozo Bytes aproximados de cada trozo
+     */
+    public ParserEstudiantesMapeado(int hilos, int tamanoTrozo) {
+        if (hilos <= 0 || tamanoTrozo <= 0) {
+            throw new IllegalArgumentException("Los hilos y el tamaño de trozo deben ser mayores que cero");
+        }
+        this.hilos = hilos;
+        this.tamanoTrozo = tamanoTrozo;
+    }
+
+    /**
+     * Lee todo el archivo
+     * @param archivo Archivo de estudiantes
+     * @return Registros en el orden del archivo
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public List<RegistroEstudiante> leer(Path archivo) throws IOException {
+        List<RegistroEstudiante> registros = new ArrayList<>();
+        procesar(archivo, registros::add);
+        return registros;
+    }
+
+    /**
+     * Recorre el archivo entregando cada registro en el hilo que llama, en el orden del archivo.
+     * Las líneas con errores se informan por System.err igual que en ProcesadorEstudiantesAvanzado
+     * @param archivo Archivo de estudiantes
+     * @param destino Recibe cada registro
+     * @return Número de líneas del archivo
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public long procesar(Path archivo, Consumer<RegistroEstudiante> destino) throws IOException {
+        return procesar(archivo, destino, null);
+    }
+
+    /**
+     * Igual que {@link #procesar(Path, Consumer)} calculando además el resumen de la cohorte:
+     * cada hilo resume su trozo y los resúmenes se suman en el hilo que llama
+     * @param resumen Resumen al que se suman los de cada trozo, o null para no calcularlo
+     */
+    public long procesar(Path archivo, Consumer<RegistroEstudiante> destino, ResumenCohorte resumen) throws IOException {
+        AtomicInteger numeroHilo = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "parser-estudiantes-" + numeroHilo.getAndIncrement());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            // Dos trozos por hilo: mientras se entrega uno, los hilos ya separan los siguientes
+            int maximoEnCurso = hilos * 2;
+            Deque<Future<Trozo>> enCurso = new ArrayDeque<>();
+            long inicio = 0;
+            long lineasAnteriores = 0;
+
+            while (inicio < tamano || !enCurso.isEmpty()) {
+                while (inicio < tamano && enCurso.size() < maximoEnCurso) {
+                    long desde = inicio;
+                    long hasta = finDeTrozo(canal, desde, tamano);
+                    enCurso.add(executor.submit(() -> {
+                        Trozo leido = new LectorTrozo(canal, desde, hasta).leer();
+                        if (resumen != null) {
+                            leido.resumen = resumen.vacio();
+                            leido.registros.forEach(leido.resumen::agregar);
+                        }
+                        return leido;
+                    }));
+                    inicio = hasta;
+                }
+
+                Trozo trozo = esperar(enCurso.poll());
+                for (ErrorLinea error : trozo.errores) {
+                    System.err.println("Error en línea " + (lineasAnteriores + error.linea) + ": " + error.detalle);
+                }
+                for (RegistroEstudiante registro : trozo.registros) {
+                    registro.desplazarLinea(lineasAnteriores);
+                    destino.accept(registro);
+                }
+                if (resumen != null) {
+                    resumen.combinar(trozo.resumen);
+                }
+                lineasAnteriores += trozo.lineas;
+            }
+            return lineasAnteriores;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Trozo esperar(Future<Trozo> trozo) throws IOException {
+        try {
+            return trozo.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Lectura interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error al leer el archivo de estudiantes", e.getCause());
+        }
+    }
+
+    /**
+     * Busca el final del trozo que empieza en inicio: justo después del primer fin de línea
+     * (\n, \r o \r\n) a partir de inicio + tamanoTrozo, o el final del archivo
+     */
+    private long finDeTrozo(FileChannel canal, long inicio, long tamano) throws IOException {
+        long posicion = inicio + tamanoTrozo;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BUSQUEDA);
+        while (posicion < tamano) {
+            buffer.clear();
+            int leidos = canal.read(buffer, posicion);
+            if (leidos <= 0) {
+                break;
+            }
+            for (int i = 0; i < leidos; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    return posicion + i + 1;
+                }
+                if (b == '\r') {
+                    long siguiente = posicion + i + 1;
+                    if (siguiente < tamano && leerByte(canal, siguiente) == '\n') {
+                        siguiente++;
+                    }
+                    return siguiente;
+                }
+            }
+            posicion += leidos;
+        }
+        return tamano;
+    }
+
+    private static byte leerByte(FileChannel canal, long posicion) throws IOException {
+        ByteBuffer uno = ByteBuffer.allocate(1);
+        canal.read(uno, posicion);
+        return uno.get(0);
+    }
+
+    /**
+     * Registros y errores de un trozo, con los números de línea contados desde el inicio del trozo
+     */
+    private static final class Trozo {
+        private final List<RegistroEstudiante> registros = new ArrayList<>();
+        private final List<ErrorLinea> errores = new ArrayList<>();
+        private long lineas;
+        private ResumenCohorte resumen;
+    }
+
+    private static final class ErrorLinea {
+        private final long linea;
+        private final String detalle;
+
+        ErrorLinea(long linea, String detalle) {
+            this.linea = linea;
+            this.detalle = detalle;
+        }
+    }
+
+    /**
+     * Separa las líneas de un trozo mapeado. Los bytes se copian del mapeo por bloques a un
+     * array, donde se separan los campos; cada trozo se lee en un solo hilo
+     */
+    private static final class LectorTrozo {
+        private final MappedByteBuffer datos;
+        private final Trozo trozo = new Trozo();
+        private byte[] bloque = new byte[TAMANO_BLOQUE];
+        private double[] notas = new double[16];
+        // Resultado de la última llamada a convertirNota
+        private double nota;
+
+        LectorTrozo(FileChannel canal, long inicio, long fin) throws IOException {
+            if (fin - inicio > Integer.MAX_VALUE) {
+                throw new IOException("Línea demasiado larga cerca de la posición " + inicio);
+            }
+            this.datos = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fin - inicio);
+        }
+
+        Trozo leer() {
+            long linea = 0;
+            int usados = 0;
+            while (true) {
+                int copiar = Math.min(bloque.length - usados, datos.remaining());
+                datos.get(bloque, usados, copiar);
+                usados += copiar;
+                boolean ultimoBloque = !datos.hasRemaining();
+
+                int posicion = 0;
+                while (posicion < usados) {
+                    int finLinea = posicion;
+                    while (finLinea < usados && bloque[finLinea] != '\n' && bloque[finLinea] != '\r') {
+                        finLinea++;
+                    }
+                    // La línea sigue en el siguiente bloque, o falta ver si tras \r viene \n
+                    if (!ultimoBloque && (finLinea == usados || (bloque[finLinea] == '\r' && finLinea + 1 == usados))) {
+                        break;
+                    }
+
+                    linea++;
+                    leerLinea(posicion, finLinea, linea);
+                    posicion = finLinea;
+                    if (posicion < usados) {
+                        boolean crlf = bloque[posicion] == '\r' && posicion + 1 < usados && bloque[posicion + 1] == '\n';
+                        posicion += crlf ? 2 : 1;
+                    }
+                }
+
+                if (ultimoBloque) {
+                    break;
+                }
+                // Lo que queda es el principio de una línea: se pasa al inicio del bloque
+                usados -= posicion;
+                System.arraycopy(bloque, posicion, bloque, 0, usados);
+                if (usados == bloque.length) {
+                    bloque = Arrays.copyOf(bloque, bloque.length * 2);
+                }
+            }
+            trozo.lineas = linea;
+            return trozo;
+        }
+
+        private void leerLinea(int desde, int hasta, long linea) {
+            if (desde == hasta || esBlanco(desde, hasta)) {
+                return;
+            }
+
+            // Como split(";"), los campos vacíos del final no cuentan
+            int fin = hasta;
+            while (fin > desde && bloque[fin - 1] == SEPARADOR) {
+                fin--;
+            }
+            if (fin == desde) {
+                trozo.errores.add(new ErrorLinea(linea, "Formato incorrecto - " + decodificar(desde, hasta)));
+                return;
+            }
+
+            int finNombre = buscarSeparador(desde, fin);
+            String nombre = decodificarSinEspacios(desde, finNombre);
+
+            int numeroNotas = 0;
+            int campo = finNombre + 1;
+            while (campo <= fin) {
+                int finCampo = buscarSeparador(campo, fin);
+                if (convertirNota(campo, finCampo)) {
+                    if (numeroNotas == notas.length) {
+                        notas = Arrays.copyOf(notas, numeroNotas * 2);
+                    }
+                    notas[numeroNotas++] = nota;
+                } else {
+                    trozo.errores.add(new ErrorLinea(linea, "No se pudo convertir la nota para el estudiante "
+                            + nombre + " - " + decodificar(campo, finCampo)));
+                }
+                campo = finCampo + 1;
+            }
+
+            trozo.registros.add(new RegistroEstudiante(nombre, Arrays.copyOf(notas, numeroNotas), linea));
+        }
+
+        private int buscarSeparador(int desde, int hasta) {
+            int i = desde;
+            while (i < hasta && bloque[i] != SEPARADOR) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * Convierte una nota y la deja en el campo nota. Con formato [+-]dígitos[.dígitos] y
+         * hasta 15 dígitos se calcula directamente; si no, se usa Double.parseDouble
+         * @return false si el campo no es un número
+         */
+        private boolean convertirNota(int desde, int hasta) {
+            int inicio = desde;
+            int fin = hasta;
+            while (inicio < fin && (bloque[inicio] & 0xff) <= ' ') {
+                inicio++;
+            }
+            while (fin > inicio && (bloque[fin - 1] & 0xff) <= ' ') {
+                fin--;
+            }
+
+            int i = inicio;
+            boolean negativa = false;
+            if (i < fin && (bloque[i] == '-' || bloque[i] == '+')) {
+                negativa = bloque[i] == '-';
+                i++;
+            }
+            long mantisa = 0;
+            int decimales = 0;
+            boolean punto = false;
+            boolean hayDigitos = false;
+            for (; i < fin; i++) {
+                byte b = bloque[i];
+                if (b >= '0' && b <= '9') {
+                    if (mantisa > MANTISA_MAXIMA / 10) {
+                        return convertirConParseDouble(inicio, fin);
+                    }
+                    mantisa = mantisa * 10 + (b - '0');
+                    hayDigitos = true;
+                    if (punto) {
+                        decimales++;
+                    }
+                } else if (b == '.' && !punto) {
+                    punto = true;
+                } else {
+                    return convertirConParseDouble(inicio, fin);
+                }
+            }
+            if (!hayDigitos || decimales >= POTENCIAS_DE_10.length) {
+                return convertirConParseDouble(inicio, fin);
+            }
+
+            double valor = mantisa / POTENCIAS_DE_10[decimales];
+            nota = negativa ? -valor : valor;
+            return true;
+        }
+
+        private boolean convertirConParseDouble(int desde, int hasta) {
+            try {
+                nota = Double.parseDouble(decodificar(desde, hasta));
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        // Igual que String.trim().isEmpty(): en UTF-8 los caracteres <= ' ' ocupan un byte
+        private boolean esBlanco(int desde, int hasta) {
+            for (int i = desde; i < hasta; i++) {
+                if ((bloque[i] & 0xff) > ' ') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String decodificarSinEspacios(int desde, int hasta) {
+            while (desde < hasta && (bloque[desde] & 0xff) <= ' ') {
+                desde++;
+            }
+            while (hasta > desde && (bloque[hasta - 1] & 0xff) <= ' ') {
+                hasta--;
+            }
+            return decodificar(desde, hasta);
+        }
+
+        private String decodificar(int desde, int hasta) {
+            return new String(bloque, desde, hasta - desde, StandardCharsets.UTF_8);
+        }
+    }
+}
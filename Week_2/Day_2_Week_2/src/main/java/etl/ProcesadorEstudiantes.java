@@ -1,9 +1,11 @@
 package etl;
 
 import java.io.*;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.function.Consumer;
 
 /**
  * Clase para procesar datos de estudiantes desde un archivo de texto,
@@ -11,83 +13,75 @@ import java.util.StringTokenizer;
  */
 public class ProcesadorEstudiantes {
 
+    /** Bytes de cada trozo del parser mapeado en {@link #procesarArchivoEnFlujo} */
+    static final int TAMANO_TROZO_FLUJO = 1024 * 1024;
+    // Ancho máximo de las barras del histograma en consola
+    private static final int ANCHO_HISTOGRAMA = 40;
+
     /**
      * Clase interna para representar los datos de un estudiante
      */
     static class Estudiante {
         private String nombre;
-        private List<Double> notas;
-        private double promedio;
-        private double desviacionEstandar;
+        private EstadisticasNotas estadisticas;
 
         public Estudiante(String nombre) {
+            this(nombre, false);
+        }
+
+        /**
+         * @param guardarNotas Si se conservan las notas en un double[] además de las estadísticas
+         */
+        public Estudiante(String nombre, boolean guardarNotas) {
             this.nombre = nombre;
-            this.notas = new ArrayList<>();
+            this.estadisticas = new EstadisticasNotas(guardarNotas);
         }
 
         public void agregarNota(double nota) {
-            notas.add(nota);
+            estadisticas.agregar(nota);
         }
 
         public String getNombre() {
             return nombre;
         }
 
-        public List<Double> getNotas() {
-            return notas;
-        }
-
-        public double getPromedio() {
-            return promedio;
+        /**
+         * @return Notas del estudiante; solo si se creó con guardarNotas
+         */
+        public double[] getNotas() {
+            return estadisticas.getNotas();
         }
 
-        public double getDesviacionEstandar() {
-            return desviacionEstandar;
+        public int getNumeroNotas() {
+            return (int) estadisticas.getCantidad();
         }
 
         /**
-         * Calcula el promedio de las notas del estudiante
+         * Promedio de las notas, calculado según se agregan
          */
-        public void calcularPromedio() {
-            if (notas.isEmpty()) {
-                promedio = 0.0;
-                return;
-            }
-
-            double suma = 0.0;
-            for (Double nota : notas) {
-                suma += nota;
-            }
-            promedio = suma / notas.size();
+        public double getPromedio() {
+            return estadisticas.getPromedio();
         }
 
         /**
-         * Calcula la desviación estándar de las notas del estudiante
+         * Desviación estándar de las notas, calculada según se agregan
          * fórmula: sqrt(sum((xi - promedio)^2) / n)
          */
-        public void calcularDesviacionEstandar() {
-            if (notas.size() <= 1) {
-                desviacionEstandar = 0.0;
-                return;
-            }
-
-            // Primero calculamos el promedio si no ha sido calculado
-            if (promedio == 0.0) {
-                calcularPromedio();
-            }
+        public double getDesviacionEstandar() {
+            return estadisticas.getDesviacionEstandar();
+        }
 
-            double sumaDiferenciasCuadradas = 0.0;
-            for (Double nota : notas) {
-                double diferencia = nota - promedio;
-                sumaDiferenciasCuadradas += Math.pow(diferencia, 2);
-            }
+        public double getNotaMinima() {
+            return estadisticas.getMinimo();
+        }
 
-            desviacionEstandar = Math.sqrt(sumaDiferenciasCuadradas / notas.size());
+        public double getNotaMaxima() {
+            return estadisticas.getMaximo();
         }
 
         @Override
         public String toString() {
-            return nombre + ";" + String.format("%.2f", promedio) + ";" + String.format("%.2f", desviacionEstandar);
+            return nombre + ";" + String.format("%.2f", getPromedio()) + ";" + String.format("%.2f", getDesviacionEstandar());
         }
     }
 
@@ -99,36 +93,119 @@ public class ProcesadorEstudiantes {
      * @throws IOException Si ocurre un error al leer o escribir los archivos
      */
     public static void procesarArchivo(String archivoEntrada, String archivoSalida) throws IOException {
+        procesarArchivo(archivoEntrada, archivoSalida, ModoLectura.LINEAS);
+    }
+
+    /**
+     * Igual que {@link #procesarArchivo(String, String)} eligiendo cómo se lee el archivo de entrada
+     *
+     * @param modo LINEAS con StringTokenizer, o MAPEADO para archivos grandes
+     */
+    public static void procesarArchivo(String archivoEntrada, String archivoSalida, ModoLectura modo) throws IOException {
         File archivo = new File(archivoEntrada);
         if (!archivo.exists()) {
             throw new IOException("El archivo de entrada no existe: " + archivoEntrada);
         }
 
-        List<Estudiante> estudiantes = leerArchivoEstudiantes(archivoEntrada);
-
-        // Calcular estadísticas para cada estudiante
-        for (Estudiante estudiante : estudiantes) {
-            estudiante.calcularPromedio();
-            estudiante.calcularDesviacionEstandar();
-        }
+        // Percentiles, histograma y mejores promedios de toda la cohorte, calculados al leer
+        ResumenCohorte cohorte = new ResumenCohorte();
+        List<Estudiante> estudiantes = modo == ModoLectura.MAPEADO
+                ? leerArchivoMapeado(archivoEntrada, cohorte)
+                : leerArchivoEstudiantes(archivoEntrada, cohorte);
 
         // Escribir resultados en el archivo de salida
         escribirArchivoResultados(estudiantes, archivoSalida);
 
         // Mostrar resultados en consola
-        mostrarResultados(estudiantes);
+        mostrarResultados(estudiantes, cohorte);
+    }
+
+    /**
+     * Procesa el archivo en flujo: cada estudiante se escribe en el archivo de salida y se muestra
+     * en consola en cuanto se lee, sin guardar la lista de estudiantes, así que la memoria usada no
+     * depende del tamaño del archivo. Con MAPEADO se leen por delante como mucho dos trozos de
+     * {@link #TAMANO_TROZO_FLUJO} bytes por hilo.
+     *
+     * @param archivoEntrada Ruta del archivo de entrada
+     * @param archivoSalida Ruta del archivo de salida
+     * @param modo LINEAS con StringTokenizer, o MAPEADO para archivos grandes
+     * @return Número de estudiantes procesados
+     * @throws IOException Si ocurre un error al leer o escribir los archivos
+     */
+    public static long procesarArchivoEnFlujo(String archivoEntrada, String archivoSalida, ModoLectura modo) throws IOException {
+        File archivo = new File(archivoEntrada);
+        if (!archivo.exists()) {
+            throw new IOException("El archivo de entrada no existe: " + archivoEntrada);
+        }
+
+        // Estadísticas de los promedios de todos los estudiantes, para el resumen final
+        EstadisticasNotas promedios = new EstadisticasNotas();
+        ResumenCohorte cohorte = new ResumenCohorte();
+
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(archivoSalida)))) {
+            pw.println("Nombre;Promedio;Desviación Estándar");
+            mostrarEncabezado();
+
+            Consumer<Estudiante> destino = estudiante -> {
+                pw.println(estudiante.toString());
+                mostrarEstudiante(estudiante);
+                promedios.agregar(estudiante.getPromedio());
+            };
+
+            if (modo == ModoLectura.MAPEADO) {
+                recorrerArchivoMapeado(archivoEntrada, new ParserEstudiantesMapeado(
+                        Runtime.getRuntime().availableProcessors(), TAMANO_TROZO_FLUJO), cohorte, destino);
+            } else {
+                recorrerArchivoEstudiantes(archivoEntrada, cohorte, destino);
+            }
+
+            if (pw.checkError()) {
+                throw new IOException("Error al escribir el archivo de salida: " + archivoSalida);
+            }
+        }
+
+        if (promedios.getCantidad() == 0) {
+            System.out.println("Advertencia: No se encontraron datos de estudiantes en el archivo.");
+        }
+        mostrarPie(promedios.getCantidad());
+        if (promedios.getCantidad() > 0) {
+            System.out.printf("Promedio general: %.2f (mínimo %.2f, máximo %.2f)%n",
+                    promedios.getPromedio(), promedios.getMinimo(), promedios.getMaximo());
+        }
+        mostrarResumenCohorte(cohorte);
+        return promedios.getCantidad();
     }
 
     /**
      * Lee el archivo de entrada y crea una lista de objetos Estudiante
      *
      * @param archivoEntrada Ruta del archivo de entrada
+     * @param cohorte Resumen de la cohorte al que se agregan las notas y los promedios
      * @return Lista de estudiantes con sus notas
      * @throws IOException Si ocurre un error al leer el archivo
      */
-    private static List<Estudiante> leerArchivoEstudiantes(String archivoEntrada) throws IOException {
+    private static List<Estudiante> leerArchivoEstudiantes(String archivoEntrada, ResumenCohorte cohorte) throws IOException {
         List<Estudiante> estudiantes = new ArrayList<>();
 
+        recorrerArchivoEstudiantes(archivoEntrada, cohorte, estudiantes::add);
+
+        if (estudiantes.isEmpty()) {
+            System.out.println("Advertencia: No se encontraron datos de estudiantes en el archivo.");
+        }
+
+        return estudiantes;
+    }
+
+    /**
+     * Lee el archivo de entrada línea a línea y entrega cada estudiante según se lee
+     *
+     * @param archivoEntrada Ruta del archivo de entrada
+     * @param cohorte Resumen de la cohorte al que se agregan las notas y los promedios
+     * @param destino Recibe cada estudiante con sus notas
+     * @throws IOException Si ocurre un error al leer el archivo
+     */
+    private static void recorrerArchivoEstudiantes(String archivoEntrada, ResumenCohorte cohorte,
+                                                   Consumer<Estudiante> destino) throws IOException {
         try (BufferedReader br = new BufferedReader(new FileReader(archivoEntrada))) {
             String linea;
             int numeroLinea = 0;
@@ -151,17 +228,34 @@ public class ProcesadorEstudiantes {
                         try {
                             double nota = Double.parseDouble(tokenizer.nextToken().trim());
                             estudiante.agregarNota(nota);
+                            cohorte.agregarNota(nota);
                         } catch (NumberFormatException e) {
                             System.err.println("Error en línea " + numeroLinea + ": No se pudo convertir nota para estudiante " + nombre + " - " + e.getMessage());
                         }
                     }
 
-                    estudiantes.add(estudiante);
+                    cohorte.agregarEstudiante(nombre, estudiante.getPromedio(), estudiante.getNumeroNotas());
+                    destino.accept(estudiante);
                 } else {
                     System.err.println("Error en línea " + numeroLinea + ": Formato incorrecto - " + linea);
                 }
             }
         }
+    }
+
+    /**
+     * Lee el archivo de entrada con {@link ParserEstudiantesMapeado}. Los campos se separan como
+     * con String.split(";"), así que las líneas con campos vacíos pueden diferir de StringTokenizer
+     *
+     * @param archivoEntrada Ruta del archivo de entrada
+     * @param cohorte Resumen de la cohorte al que se suman los de cada trozo
+     * @return Lista de estudiantes con sus notas, en el orden del archivo
+     * @throws IOException Si ocurre un error al leer el archivo
+     */
+    private static List<Estudiante> leerArchivoMapeado(String archivoEntrada, ResumenCohorte cohorte) throws IOException {
+        List<Estudiante> estudiantes = new ArrayList<>();
+
+        recorrerArchivoMapeado(archivoEntrada, new ParserEstudiantesMapeado(), cohorte, estudiantes::add);
 
         if (estudiantes.isEmpty()) {
             System.out.println("Advertencia: No se encontraron datos de estudiantes en el archivo.");
@@ -170,6 +264,26 @@ public class ProcesadorEstudiantes {
         return estudiantes;
     }
 
+    /**
+     * Recorre el archivo de entrada con el parser dado, entregando cada estudiante en el orden del archivo
+     *
+     * @param archivoEntrada Ruta del archivo de entrada
+     * @param parser Parser con los hilos y el tamaño de trozo a usar
+     * @param cohorte Resumen de la cohorte; cada hilo del parser resume sus trozos y se suman aquí
+     * @param destino Recibe cada estudiante con sus notas
+     * @throws IOException Si ocurre un error al leer el archivo
+     */
+    private static void recorrerArchivoMapeado(String archivoEntrada, ParserEstudiantesMapeado parser,
+                                               ResumenCohorte cohorte, Consumer<Estudiante> destino) throws IOException {
+        parser.procesar(Paths.get(archivoEntrada), registro -> {
+            Estudiante estudiante = new Estudiante(registro.getNombre());
+            for (int i = 0; i < registro.getNumeroNotas(); i++) {
+                estudiante.agregarNota(registro.getNota(i));
+            }
+            destino.accept(estudiante);
+        }, cohorte);
+    }
+
     /**
      * Escribe los resultados en el archivo de salida
      *
@@ -193,21 +307,77 @@ public class ProcesadorEstudiantes {
      * Muestra los resultados en la consola
      *
      * @param estudiantes Lista de estudiantes con sus estadísticas calculadas
+     * @param cohorte Resumen de toda la cohorte
      */
-    private static void mostrarResultados(List<Estudiante> estudiantes) {
+    private static void mostrarResultados(List<Estudiante> estudiantes, ResumenCohorte cohorte) {
+        mostrarEncabezado();
+
+        for (Estudiante estudiante : estudiantes) {
+            mostrarEstudiante(estudiante);
+        }
+
+        mostrarPie(estudiantes.size());
+        mostrarResumenCohorte(cohorte);
+    }
+
+    private static void mostrarEncabezado() {
         System.out.println("==== RESULTADOS DEL PROCESAMIENTO ====");
         System.out.println("Nombre | Promedio | Desviación Estándar");
         System.out.println("-----------------------------------------");
+    }
 
-        for (Estudiante estudiante : estudiantes) {
-            System.out.printf("%-20s | %-8.2f | %-8.2f%n",
-                    estudiante.getNombre(),
-                    estudiante.getPromedio(),
-                    estudiante.getDesviacionEstandar());
-        }
+    private static void mostrarEstudiante(Estudiante estudiante) {
+        System.out.printf("%-20s | %-8.2f | %-8.2f%n",
+                estudiante.getNombre(),
+                estudiante.getPromedio(),
+                estudiante.getDesviacionEstandar());
+    }
 
+    private static void mostrarPie(long totalEstudiantes) {
         System.out.println("-----------------------------------------");
-        System.out.println("Total de estudiantes procesados: " + estudiantes.size());
+        System.out.println("Total de estudiantes procesados: " + totalEstudiantes);
+    }
+
+    /**
+     * Muestra los percentiles, el histograma de notas y los mejores promedios de la cohorte
+     *
+     * @param cohorte Resumen calculado al leer el archivo
+     */
+    private static void mostrarResumenCohorte(ResumenCohorte cohorte) {
+        HistogramaNotas notas = cohorte.getNotas();
+        HistogramaNotas promedios = cohorte.getPromedios();
+        if (notas.getTotal() == 0) {
+            return;
+        }
+
+        System.out.println("\n==== RESUMEN DE LA COHORTE ====");
+        System.out.printf("Promedios: p50 %.2f | p90 %.2f | p99 %.2f (%d estudiantes con notas)%n",
+                promedios.percentil(50), promedios.percentil(90), promedios.percentil(99), promedios.getTotal());
+        System.out.printf("Notas:     p50 %.2f | p90 %.2f | p99 %.2f (%d notas)%n",
+                notas.percentil(50), notas.percentil(90), notas.percentil(99), notas.getTotal());
+        if (notas.getFueraDeRango() > 0) {
+            System.out.println("Notas fuera del rango 0-10 (no incluidas): " + notas.getFueraDeRango());
+        }
+
+        System.out.println("Histograma de notas:");
+        long[] porPunto = notas.contarPorPunto();
+        long maximo = 1;
+        for (long cantidad : porPunto) {
+            maximo = Math.max(maximo, cantidad);
+        }
+        for (int punto = 0; punto < porPunto.length; punto++) {
+            int ancho = (int) (porPunto[punto] * ANCHO_HISTOGRAMA / maximo);
+            String rango = punto == porPunto.length - 1
+                    ? "[" + punto + ", " + (punto + 1) + "]"
+                    : "[" + punto + ", " + (punto + 1) + ")";
+            System.out.printf("%-8s | %10d | %s%n", rango, porPunto[punto], "#".repeat(ancho));
+        }
+
+        System.out.println("Mejores promedios:");
+        int puesto = 1;
+        for (TopEstudiantes.Puesto mejor : cohorte.getMejores()) {
+            System.out.printf("%3d. %-20s | %-8.2f%n", puesto++, mejor.getNombre(), mejor.getPromedio());
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -1,9 +1,19 @@
 package etl;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 import config.DatabaseConnection;
 
@@ -13,80 +23,103 @@ import config.DatabaseConnection;
  */
 public class ProcesadorEstudiantesAvanzado {
 
+    /** Extensión del fichero de punto de control que se crea junto al archivo de entrada */
+    public static final String EXTENSION_PUNTO_CONTROL = ".punto_control";
+
+    /**
+     * Paso que se da cuando el archivo ya está procesado, antes de borrar el punto de control
+     * (por ejemplo, sacar el archivo de entrada de la bandeja)
+     */
+    @FunctionalInterface
+    public interface AccionFinal {
+        void ejecutar() throws IOException;
+    }
+
+    private final int tamanoLote;
+    private final int lotesPorTransaccion;
+    private final CargadorEstudiantesBD.ModoInsercion modoInsercion;
+
+    public ProcesadorEstudiantesAvanzado() {
+        this(CargadorEstudiantesBD.TAMANO_LOTE_POR_DEFECTO, CargadorEstudiantesBD.LOTES_POR_TRANSACCION_POR_DEFECTO,
+                CargadorEstudiantesBD.ModoInsercion.LOTES);
+    }
+
+    /**
+     * @param tamanoLote Estudiantes que se insertan en la base de datos de una vez
+     * @param lotesPorTransaccion Lotes entre un commit y el siguiente
+     * @param modoInsercion Forma de enviar cada lote (ver {@link CargadorEstudiantesBD})
+     */
+    public ProcesadorEstudiantesAvanzado(int tamanoLote, int lotesPorTransaccion,
+                                         CargadorEstudiantesBD.ModoInsercion modoInsercion) {
+        if (tamanoLote <= 0 || lotesPorTransaccion <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote y los lotes por transacción deben ser mayores que cero");
+        }
+        this.tamanoLote = tamanoLote;
+        this.lotesPorTransaccion = lotesPorTransaccion;
+        this.modoInsercion = modoInsercion;
+    }
+
     static class Estudiante {
         private String nombre;
-        private List<Double> notas;
-        private double promedio;
-        private double desviacionEstandar;
+        private EstadisticasNotas estadisticas;
 
         public Estudiante(String nombre) {
+            this(nombre, false);
+        }
+
+        /**
+         * @param guardarNotas Si se conservan las notas en un double[] además de las estadísticas
+         */
+        public Estudiante(String nombre, boolean guardarNotas) {
             this.nombre = nombre;
-            this.notas = new ArrayList<>();
+            this.estadisticas = new EstadisticasNotas(guardarNotas);
         }
 
         public void agregarNota(double nota) {
-            notas.add(nota);
+            estadisticas.agregar(nota);
         }
 
         public String getNombre() {
             return nombre;
         }
 
-        public List<Double> getNotas() {
-            return notas;
-        }
-
-        public double getPromedio() {
-            return promedio;
+        /**
+         * @return Notas del estudiante; solo si se creó con guardarNotas
+         */
+        public double[] getNotas() {
+            return estadisticas.getNotas();
         }
 
-        public double getDesviacionEstandar() {
-            return desviacionEstandar;
+        public int getNumeroNotas() {
+            return (int) estadisticas.getCantidad();
         }
 
         /**
-         * Calcula el promedio de las notas del estudiante
+         * Promedio de las notas, calculado según se agregan
          */
-        public void calcularPromedio() {
-            if (notas.isEmpty()) {
-                promedio = 0.0;
-                return;
-            }
-
-            double suma = 0.0;
-            for (Double nota : notas) {
-                suma += nota;
-            }
-            promedio = suma / notas.size();
+        public double getPromedio() {
+            return estadisticas.getPromedio();
         }
 
         /**
-         * Calcula la desviación estándar de las notas del estudiante
+         * Desviación estándar de las notas, calculada según se agregan
          * fórmula: sqrt(sum((xi - promedio)^2) / n)
          */
-        public void calcularDesviacionEstandar() {
-            if (notas.size() <= 1) {
-                desviacionEstandar = 0.0;
-                return;
-            }
-
-            // Primero calculamos el promedio si no ha sido calculado
-            if (promedio == 0.0) {
-                calcularPromedio();
-            }
+        public double getDesviacionEstandar() {
+            return estadisticas.getDesviacionEstandar();
+        }
 
-            double sumaDiferenciasCuadradas = 0.0;
-            for (Double nota : notas) {
-                double diferencia = nota - promedio;
-                sumaDiferenciasCuadradas += Math.pow(diferencia, 2);
-            }
+        public double getNotaMinima() {
+            return estadisticas.getMinimo();
+        }
 
-            desviacionEstandar = Math.sqrt(sumaDiferenciasCuadradas / notas.size());
+        public double getNotaMaxima() {
+            return estadisticas.getMaximo();
         }
 
         @Override
         public String toString() {
-            return nombre + ";" + String.format("%.2f", promedio) + ";" + String.format("%.2f", desviacionEstandar);
+            return nombre + ";" + String.format("%.2f", getPromedio()) + ";" + String.format("%.2f", getDesviacionEstandar());
         }
     }
 
@@ -98,14 +131,19 @@ public class ProcesadorEstudiantesAvanzado {
      * @param archivoSalida Ruta del archivo de salida
      */
     public void procesarArchivo(String archivoEntrada, String archivoSalida) {
-        try {
-            List<Estudiante> estudiantes = leerArchivoEstudiantes(archivoEntrada);
+        procesarArchivo(archivoEntrada, archivoSalida, ModoLectura.LINEAS);
+    }
 
-            // Calcular estadísticas para cada estudiante
-            for (Estudiante estudiante : estudiantes) {
-                estudiante.calcularPromedio();
-                estudiante.calcularDesviacionEstandar();
-            }
+    /**
+     * Igual que {@link #procesarArchivo(String, String)} eligiendo cómo se lee el archivo de entrada
+     *
+     * @param modo LINEAS con String.split(), o MAPEADO para archivos grandes
+     */
+    public void procesarArchivo(String archivoEntrada, String archivoSalida, ModoLectura modo) {
+        try {
+            List<Estudiante> estudiantes = modo == ModoLectura.MAPEADO
+                    ? leerArchivoMapeado(archivoEntrada)
+                    : leerArchivoEstudiantes(archivoEntrada);
 
             // Escribir resultados en el archivo de salida
             escribirArchivoResultados(estudiantes, archivoSalida);
@@ -128,6 +166,160 @@ public class ProcesadorEstudiantesAvanzado {
         }
     }
 
+    /**
+     * Igual que {@link #procesarArchivoReanudable(String, String, Path, AccionFinal)} con el punto
+     * de control junto al archivo de entrada (archivoEntrada + {@link #EXTENSION_PUNTO_CONTROL})
+     */
+    public boolean procesarArchivoReanudable(String archivoEntrada, String archivoSalida) {
+        return procesarArchivoReanudable(archivoEntrada, archivoSalida, Paths.get(archivoEntrada + EXTENSION_PUNTO_CONTROL));
+    }
+
+    /**
+     * Igual que {@link #procesarArchivoReanudable(String, String, Path, AccionFinal)} sin ningún
+     * paso final
+     */
+    public boolean procesarArchivoReanudable(String archivoEntrada, String archivoSalida, Path ficheroControl) {
+        return procesarArchivoReanudable(archivoEntrada, archivoSalida, ficheroControl, () -> { });
+    }
+
+    /**
+     * Procesa el archivo en flujo guardando un punto de control tras cada commit en la base de
+     * datos: el byte y la línea del archivo de entrada hasta los que está todo confirmado y el
+     * tamaño del archivo de resultados en ese momento. Si la ejecución se corta, al repetirla se
+     * recorta el archivo de resultados a ese tamaño y la lectura sigue desde ese byte, sin volver
+     * a procesar lo anterior.
+     *
+     * Cada fila se inserta con un identificador de ejecución y su número de línea, que son clave
+     * única en la tabla: las líneas que se llegaron a confirmar después del último punto de control
+     * guardado se vuelven a escribir en lugar de duplicarse. Para eso el identificador se guarda en
+     * un primer punto de control antes de insertar nada. Si el punto de control no corresponde a
+     * los archivos (la entrada cambió o el archivo de resultados falta o es más corto), se borran
+     * las filas de su ejecución antes de empezar de nuevo, salvo que la ejecución hubiera terminado.
+     *
+     * Al terminar se guarda un último punto de control al final de la entrada, se da el paso final
+     * y solo entonces se borra el punto de control. Si el paso final falla o el proceso se corta
+     * antes de borrarlo, la siguiente ejecución reanuda desde el final con el mismo identificador:
+     * no vuelve a insertar nada y repite el paso final.
+     *
+     * A diferencia de {@link #procesarArchivo(String, String)} no guarda la lista de estudiantes
+     * ni la muestra en consola; solo un resumen al final.
+     *
+     * @param archivoEntrada Ruta del archivo de entrada
+     * @param archivoSalida Ruta del archivo de salida
+     * @param ficheroControl Fichero donde se guarda el punto de control
+     * @param alTerminar Paso que se da con el archivo ya procesado, antes de borrar el punto de control
+     * @return true si se procesó el archivo hasta el final y se dio el paso final
+     */
+    public boolean procesarArchivoReanudable(String archivoEntrada, String archivoSalida, Path ficheroControl,
+                                             AccionFinal alTerminar) {
+        Path entrada = Paths.get(archivoEntrada);
+        Path salida = Paths.get(archivoSalida);
+
+        try {
+            if (!Files.exists(entrada)) {
+                throw new IOException("El archivo de entrada no existe: " + archivoEntrada);
+            }
+
+            PuntoControl previo = PuntoControl.cargar(ficheroControl);
+            String idDescartado = null;
+            if (previo != null && (!previo.correspondeA(entrada) || !Files.exists(salida)
+                    || Files.size(salida) < previo.getTamanoSalida())) {
+                System.err.println("El punto de control no corresponde a estos archivos, se procesa el archivo desde el principio");
+                // Las filas de una ejecución que llegó al final son buenas aunque no se llegara a borrar su punto de control
+                if (!previo.estaTerminado()) {
+                    idDescartado = previo.getIdEjecucion();
+                }
+                previo = null;
+            }
+            String idEjecucion = previo != null ? previo.getIdEjecucion() : UUID.randomUUID().toString();
+            if (previo != null) {
+                System.out.println("Reanudando la ejecución " + idEjecucion + " tras la línea " + previo.getLinea()
+                        + " (byte " + previo.getDesplazamiento() + ")");
+            }
+
+            long tamanoEntrada = Files.size(entrada);
+            long modificacionEntrada = Files.getLastModifiedTime(entrada).toMillis();
+            long lineasNuevas = 0;
+
+            try (FileChannel canalEntrada = FileChannel.open(entrada, StandardOpenOption.READ);
+                 FileChannel canalSalida = FileChannel.open(salida, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 Connection conn = DatabaseConnection.getConnection("mysql_tl")) {
+
+                crearTablaEstudiantesSiNoExiste(conn);
+                prepararTablaReanudable(conn);
+                if (idDescartado != null) {
+                    borrarEjecucion(conn, idDescartado);
+                }
+
+                // Lo escrito en el archivo de resultados después del último punto de control se descarta
+                canalSalida.truncate(previo != null ? previo.getTamanoSalida() : 0);
+                canalSalida.position(canalSalida.size());
+                PrintWriter pw = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                        Channels.newOutputStream(canalSalida), StandardCharsets.UTF_8)));
+                if (previo == null) {
+                    pw.println("Nombre;Promedio;Desviación Estándar");
+                    // El identificador queda guardado antes del primer commit, para que una ejecución
+                    // cortada justo después no se repita con otro identificador
+                    pw.flush();
+                    canalSalida.force(true);
+                    new PuntoControl(idEjecucion, tamanoEntrada, modificacionEntrada, 0, 0,
+                            canalSalida.size()).guardar(ficheroControl);
+                }
+
+                LectorLineas lector = new LectorLineas(canalEntrada, previo != null ? previo.getDesplazamiento() : 0);
+                long numeroLinea = previo != null ? previo.getLinea() : 0;
+
+                try (CargadorEstudiantesBD cargador = new CargadorEstudiantesBD(conn, tamanoLote, lotesPorTransaccion,
+                        modoInsercion, idEjecucion)) {
+                    String linea;
+                    while ((linea = lector.leerLinea()) != null) {
+                        numeroLinea++;
+                        lineasNuevas++;
+                        Estudiante estudiante = parsearLinea(linea, numeroLinea);
+                        if (estudiante == null) {
+                            continue;
+                        }
+
+                        pw.println(estudiante.toString());
+                        if (cargador.agregar(estudiante.getNombre(), estudiante.getPromedio(),
+                                estudiante.getDesviacionEstandar(), numeroLinea)) {
+                            // Lo insertado hasta aquí ya está confirmado: se apunta hasta dónde llega,
+                            // con los resultados ya en disco para que no queden más cortos que lo apuntado
+                            pw.flush();
+                            canalSalida.force(true);
+                            new PuntoControl(idEjecucion, tamanoEntrada, modificacionEntrada, lector.getPosicion(),
+                                    numeroLinea, canalSalida.size()).guardar(ficheroControl);
+                        }
+                    }
+                    cargador.confirmar();
+                    pw.flush();
+                    if (pw.checkError()) {
+                        throw new IOException("Error al escribir el archivo de salida: " + archivoSalida);
+                    }
+                    canalSalida.force(true);
+                    new PuntoControl(idEjecucion, tamanoEntrada, modificacionEntrada, lector.getPosicion(),
+                            numeroLinea, canalSalida.size()).guardar(ficheroControl);
+
+                    System.out.println("Líneas procesadas en esta ejecución: " + lineasNuevas + " (total " + numeroLinea + ")");
+                    System.out.println(cargador);
+                }
+            }
+
+            alTerminar.ejecutar();
+            Files.deleteIfExists(ficheroControl);
+            System.out.println("\nEl archivo de resultados ha sido generado exitosamente: " + archivoSalida);
+            return true;
+
+        } catch (IOException e) {
+            System.err.println("Error al procesar el archivo (se puede reanudar): " + e.getMessage());
+            e.printStackTrace();
+        } catch (SQLException e) {
+            System.err.println("Error al interactuar con la base de datos (se puede reanudar): " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
     /**
      * Lee el archivo de entrada y crea una lista de objetos Estudiante
      * Implementación con String.split() en lugar de StringTokenizer
@@ -150,33 +342,74 @@ public class ProcesadorEstudiantesAvanzado {
 
             while ((linea = br.readLine()) != null) {
                 numeroLinea++;
-                if (linea.trim().isEmpty()) {
-                    continue; // Ignorar líneas vacías
+                Estudiante estudiante = parsearLinea(linea, numeroLinea);
+                if (estudiante != null) {
+                    estudiantes.add(estudiante);
                 }
+            }
+        }
 
-                // Usando String.split() para separar los datos
-                String[] datos = linea.split(";");
+        return estudiantes;
+    }
+
+    /**
+     * Separa una línea "nombre;nota;nota..." con String.split()
+     *
+     * @param linea Línea del archivo de entrada
+     * @param numeroLinea Número de la línea, para los mensajes de error
+     * @return Estudiante con sus notas, o null si la línea está vacía o no tiene el formato esperado
+     */
+    private Estudiante parsearLinea(String linea, long numeroLinea) {
+        if (linea.trim().isEmpty()) {
+            return null; // Ignorar líneas vacías
+        }
 
-                if (datos.length >= 1) {
-                    String nombre = datos[0].trim();
-                    Estudiante estudiante = new Estudiante(nombre);
+        // Usando String.split() para separar los datos
+        String[] datos = linea.split(";");
 
-                    // Leer todas las notas (empezando desde el índice 1)
-                    for (int i = 1; i < datos.length; i++) {
-                        try {
-                            double nota = Double.parseDouble(datos[i].trim());
-                            estudiante.agregarNota(nota);
-                        } catch (NumberFormatException e) {
-                            System.err.println("Error en línea " + numeroLinea + ": No se pudo convertir la nota para el estudiante " + nombre + " - " + datos[i]);
-                        }
-                    }
+        if (datos.length >= 1) {
+            String nombre = datos[0].trim();
+            Estudiante estudiante = new Estudiante(nombre);
 
-                    estudiantes.add(estudiante);
-                } else {
-                    System.err.println("Error en línea " + numeroLinea + ": Formato incorrecto - " + linea);
+            // Leer todas las notas (empezando desde el índice 1)
+            for (int i = 1; i < datos.length; i++) {
+                try {
+                    double nota = Double.parseDouble(datos[i].trim());
+                    estudiante.agregarNota(nota);
+                } catch (NumberFormatException e) {
+                    System.err.println("Error en línea " + numeroLinea + ": No se pudo convertir la nota para el estudiante " + nombre + " - " + datos[i]);
                 }
             }
+
+            return estudiante;
         }
+        System.err.println("Error en línea " + numeroLinea + ": Formato incorrecto - " + linea);
+        return null;
+    }
+
+    /**
+     * Lee el archivo de entrada con {@link ParserEstudiantesMapeado}, que separa los campos
+     * igual que leerArchivoEstudiantes
+     *
+     * @param archivoEntrada Ruta del archivo de entrada
+     * @return Lista de estudiantes con sus notas, en el orden del archivo
+     * @throws IOException Si ocurre un error al leer el archivo
+     */
+    private List<Estudiante> leerArchivoMapeado(String archivoEntrada) throws IOException {
+        List<Estudiante> estudiantes = new ArrayList<>();
+
+        File archivo = new File(archivoEntrada);
+        if (!archivo.exists()) {
+            throw new IOException("El archivo de entrada no existe: " + archivoEntrada);
+        }
+
+        new ParserEstudiantesMapeado().procesar(archivo.toPath(), registro -> {
+            Estudiante estudiante = new Estudiante(registro.getNombre());
+            for (int i = 0; i < registro.getNumeroNotas(); i++) {
+                estudiante.agregarNota(registro.getNota(i));
+            }
+            estudiantes.add(estudiante);
+        });
 
         return estudiantes;
     }
@@ -201,7 +434,8 @@ public class ProcesadorEstudiantesAvanzado {
     }
 
     /**
-     * Persiste los datos de los estudiantes en la base de datos
+     * Persiste los datos de los estudiantes en la base de datos por lotes, con un commit
+     * cada lotesPorTransaccion lotes
      *
      * @param estudiantes Lista de estudiantes a persistir
      * @throws SQLException Si ocurre un error al interactuar con la base de datos
@@ -212,21 +446,14 @@ public class ProcesadorEstudiantesAvanzado {
             // Verificar si existe la tabla, si no, crearla
             crearTablaEstudiantesSiNoExiste(conn);
 
-            // Preparar la sentencia SQL para insertar estudiantes
-            String sql = "INSERT INTO estudiantes (nombre, promedio, desviacion_estandar) VALUES (?, ?, ?)";
-
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                int registrosInsertados = 0;
-
+            try (CargadorEstudiantesBD cargador = new CargadorEstudiantesBD(conn, tamanoLote, lotesPorTransaccion, modoInsercion)) {
                 for (Estudiante estudiante : estudiantes) {
-                    pstmt.setString(1, estudiante.getNombre());
-                    pstmt.setDouble(2, estudiante.getPromedio());
-                    pstmt.setDouble(3, estudiante.getDesviacionEstandar());
-
-                    registrosInsertados += pstmt.executeUpdate();
+                    cargador.agregar(estudiante.getNombre(), estudiante.getPromedio(), estudiante.getDesviacionEstandar());
                 }
+                cargador.confirmar();
 
-                System.out.println("Se han insertado " + registrosInsertados + " registros en la base de datos.");
+                System.out.println("Se han insertado " + cargador.getFilasInsertadas() + " registros en la base de datos.");
+                System.out.println(cargador);
             }
         }
     }
@@ -243,13 +470,61 @@ public class ProcesadorEstudiantesAvanzado {
                 "nombre VARCHAR(100) NOT NULL, " +
                 "promedio DOUBLE NOT NULL, " +
                 "desviacion_estandar DOUBLE NOT NULL, " +
-                "fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+                "fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                "id_ejecucion VARCHAR(36) NULL, " +
+                "linea BIGINT NULL, " +
+                "UNIQUE KEY uk_estudiantes_ejecucion_linea (id_ejecucion, linea))";
 
         try (Statement stmt = conn.createStatement()) {
             stmt.execute(sql);
         }
     }
 
+    /**
+     * Añade a una tabla de estudiantes creada antes de {@link #procesarArchivoReanudable} las
+     * columnas id_ejecucion y linea y su clave única. Las filas sin ejecución las dejan a NULL,
+     * que no cuenta para la clave única.
+     *
+     * @param conn Conexión a la base de datos
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos
+     */
+    private void prepararTablaReanudable(Connection conn) throws SQLException {
+        String checkColumnSql = "SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE table_schema = DATABASE() " +
+                "AND table_name = 'estudiantes' " +
+                "AND column_name = 'id_ejecucion'";
+
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(checkColumnSql)) {
+                if (!rs.next() || rs.getInt(1) > 0) {
+                    return;
+                }
+            }
+            stmt.executeUpdate("ALTER TABLE estudiantes ADD COLUMN id_ejecucion VARCHAR(36) NULL");
+            stmt.executeUpdate("ALTER TABLE estudiantes ADD COLUMN linea BIGINT NULL");
+            stmt.executeUpdate("ALTER TABLE estudiantes ADD UNIQUE KEY uk_estudiantes_ejecucion_linea (id_ejecucion, linea)");
+            System.out.println("Columnas 'id_ejecucion' y 'linea' añadidas a la tabla estudiantes.");
+        }
+    }
+
+    /**
+     * Borra las filas insertadas por una ejecución que no se va a reanudar
+     *
+     * @param conn Conexión a la base de datos
+     * @param idEjecucion Identificador de la ejecución descartada
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos
+     */
+    private void borrarEjecucion(Connection conn, String idEjecucion) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM estudiantes WHERE id_ejecucion = ?")) {
+            stmt.setString(1, idEjecucion);
+            int borradas = stmt.executeUpdate();
+            if (!conn.getAutoCommit()) {
+                conn.commit();
+            }
+            System.out.println("Borradas " + borradas + " filas de la ejecución descartada " + idEjecucion);
+        }
+    }
+
     /**
      * Muestra los resultados en la consola
      *
@@ -270,4 +545,91 @@ public class ProcesadorEstudiantesAvanzado {
         System.out.println("-----------------------------------------");
         System.out.println("Total de estudiantes procesados: " + estudiantes.size());
     }
-}
\ No newline at end of file
+
+    /**
+     * Lee las líneas del archivo como UTF-8 desde un byte dado, llevando la cuenta de la posición
+     * para saber dónde empieza la línea siguiente. Corta las líneas como BufferedReader.readLine()
+     * (\n, \r o \r\n).
+     */
+    private static final class LectorLineas {
+        private static final int TAMANO_BUFFER = 64 * 1024;
+
+        private final FileChannel canal;
+        private final byte[] buffer = new byte[TAMANO_BUFFER];
+        private int posicion;
+        private int limite;
+        // Posición en el archivo del primer byte del buffer
+        private long inicioBuffer;
+        // Bytes de una línea que empezó en un buffer anterior
+        private byte[] pendiente = new byte[256];
+
+        LectorLineas(FileChannel canal, long desde) throws IOException {
+            this.canal = canal;
+            this.inicioBuffer = desde;
+            canal.position(desde);
+        }
+
+        /**
+         * @return Byte del archivo donde empieza la siguiente línea por leer
+         */
+        long getPosicion() {
+            return inicioBuffer + posicion;
+        }
+
+        /**
+         * @return Siguiente línea sin el fin de línea, o null al final del archivo
+         */
+        String leerLinea() throws IOException {
+            int acumulados = 0;
+            while (true) {
+                if (posicion == limite && !llenar()) {
+                    return acumulados == 0 ? null : new String(pendiente, 0, acumulados, StandardCharsets.UTF_8);
+                }
+
+                int desde = posicion;
+                while (posicion < limite && buffer[posicion] != '\n' && buffer[posicion] != '\r') {
+                    posicion++;
+                }
+                if (posicion == limite) {
+                    acumulados = acumular(acumulados, desde, limite);
+                    continue;
+                }
+
+                String linea;
+                if (acumulados == 0) {
+                    linea = new String(buffer, desde, posicion - desde, StandardCharsets.UTF_8);
+                } else {
+                    acumulados = acumular(acumulados, desde, posicion);
+                    linea = new String(pendiente, 0, acumulados, StandardCharsets.UTF_8);
+                }
+
+                // El \n de un \r\n puede estar ya en el buffer siguiente
+                if (buffer[posicion++] == '\r' && (posicion < limite || llenar()) && buffer[posicion] == '\n') {
+                    posicion++;
+                }
+                return linea;
+            }
+        }
+
+        private int acumular(int acumulados, int desde, int hasta) {
+            int bytes = hasta - desde;
+            if (acumulados + bytes > pendiente.length) {
+                pendiente = Arrays.copyOf(pendiente, Math.max(pendiente.length * 2, acumulados + bytes));
+            }
+            System.arraycopy(buffer, desde, pendiente, acumulados, bytes);
+            return acumulados + bytes;
+        }
+
+        private boolean llenar() throws IOException {
+            inicioBuffer += limite;
+            posicion = 0;
+            limite = 0;
+            int leidos = canal.read(ByteBuffer.wrap(buffer));
+            if (leidos <= 0) {
+                return false;
+            }
+            limite = leidos;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package etl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Hasta dónde llegó una ejecución de {@link ProcesadorEstudiantesAvanzado#procesarArchivoReanudable}:
+ * el byte y la línea del archivo de entrada tras el último commit y el tamaño que tenía entonces
+ * el archivo de resultados. Se guarda en un fichero aparte junto con el tamaño y la fecha de
+ * modificación del archivo de entrada, para no reanudar sobre un archivo distinto.
+ */
+final class PuntoControl {
+
+    private static final int VERSION = 1;
+
+    private final String idEjecucion;
+    private final long tamanoEntrada;
+    private final long modificacionEntrada;
+    private final long desplazamiento;
+    private final long linea;
+    private final long tamanoSalida;
+
+    PuntoControl(String idEjecucion, long tamanoEntrada, long modificacionEntrada,
+                 long desplazamiento, long linea, long tamanoSalida) {
+        this.idEjecucion = idEjecucion;
+        this.tamanoEntrada = tamanoEntrada;
+        this.modificacionEntrada = modificacionEntrada;
+        this.desplazamiento = desplazamiento;
+        this.linea = linea;
+        this.tamanoSalida = tamanoSalida;
+    }
+
+    /**
+     * @return Punto de control guardado, o null si no hay ninguno o no se puede leer
+     */
+    static PuntoControl cargar(Path fichero) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichero)))) {
+            if (in.readInt() != VERSION) {
+                System.err.println("Punto de control con otra versión, se procesa el archivo desde el principio");
+                return null;
+            }
+            return new PuntoControl(in.readUTF(), in.readLong(), in.readLong(), in.readLong(), in.readLong(), in.readLong());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("No se pudo leer el punto de control (" + e.getMessage() + "), se procesa el archivo desde el principio");
+            return null;
+        }
+    }
+
+    // Se escribe en un fichero temporal, se lleva a disco y se renombra: ni un corte de la
+    // ejecución ni uno de luz dejan un punto de control a medias
+    void guardar(Path fichero) throws IOException {
+        Path directorio = fichero.toAbsolutePath().getParent();
+        Path temporal = Files.createTempFile(directorio, "punto_control", ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal)))) {
+                out.writeInt(VERSION);
+                out.writeUTF(idEjecucion);
+                out.writeLong(tamanoEntrada);
+                out.writeLong(modificacionEntrada);
+                out.writeLong(desplazamiento);
+                out.writeLong(linea);
+                out.writeLong(tamanoSalida);
+                out.flush();
+                canal.force(true);
+            }
+            Files.move(temporal, fichero, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * @return true si el archivo de entrada sigue teniendo el tamaño y la fecha de modificación guardados
+     */
+    boolean correspondeA(Path entrada) throws IOException {
+        return Files.size(entrada) == tamanoEntrada
+                && Files.getLastModifiedTime(entrada).toMillis() == modificacionEntrada;
+    }
+
+    /**
+     * @return true si la ejecución llegó al final del archivo de entrada
+     */
+    boolean estaTerminado() {
+        return desplazamiento >= tamanoEntrada;
+    }
+
+    String getIdEjecucion() {
+        return idEjecucion;
+    }
+
+    /**
+     * @return Byte del archivo de entrada donde empieza la primera línea sin confirmar
+     */
+    long getDesplazamiento() {
+        return desplazamiento;
+    }
+
+    /**
+     * @return Última línea confirmada del archivo de entrada
+     */
+    long getLinea() {
+        return linea;
+    }
+
+    long getTamanoSalida() {
+        return tamanoSalida;
+    }
+}
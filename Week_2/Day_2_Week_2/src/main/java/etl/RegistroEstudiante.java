@@ -0,0 +1,55 @@
+package etl;
+
+import java.util.Arrays;
+
+/**
+ * Línea "nombre;nota;nota..." del archivo de estudiantes ya separada en campos
+ */
+public final class RegistroEstudiante {
+
+    private final String nombre;
+    private final double[] notas;
+    private long linea;
+
+    RegistroEstudiante(String nombre, double[] notas, long linea) {
+        this.nombre = nombre;
+        this.notas = notas;
+        this.linea = linea;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * @return Notas que se pudieron convertir, en el orden del archivo
+     */
+    public double[] getNotas() {
+        return notas.clone();
+    }
+
+    public int getNumeroNotas() {
+        return notas.length;
+    }
+
+    public double getNota(int indice) {
+        return notas[indice];
+    }
+
+    /**
+     * @return Número de línea en el archivo, empezando en 1
+     */
+    public long getLinea() {
+        return linea;
+    }
+
+    // Los trozos numeran sus líneas desde 1; al juntarlos se suman las líneas de los anteriores
+    void desplazarLinea(long lineasAnteriores) {
+        linea += lineasAnteriores;
+    }
+
+    @Override
+    public String toString() {
+        return nombre + Arrays.toString(notas);
+    }
+}
@@ -0,0 +1,112 @@
+package etl;
+
+import java.util.List;
+
+/**
+ * Estadísticas de toda la cohorte que se calculan según se lee el archivo, sin guardar ni
+ * ordenar a los estudiantes: histograma y percentiles de todas las notas y de los promedios
+ * ({@link HistogramaNotas}) y los mejores promedios ({@link TopEstudiantes}).
+ *
+ * Los resúmenes se pueden combinar: {@link ParserEstudiantesMapeado} calcula uno por trozo en
+ * sus hilos y los va sumando en el orden del archivo.
+ */
+public final class ResumenCohorte {
+
+    public static final int TOP_POR_DEFECTO = 10;
+
+    private final HistogramaNotas notas = new HistogramaNotas();
+    private final HistogramaNotas promedios = new HistogramaNotas();
+    private final int top;
+    private final TopEstudiantes mejores;
+    private long estudiantes;
+    private long estudiantesSinNotas;
+
+    public ResumenCohorte() {
+        this(TOP_POR_DEFECTO);
+    }
+
+    /**
+     * @param top Número de mejores estudiantes que se guardan
+     */
+    public ResumenCohorte(int top) {
+        this.top = top;
+        this.mejores = new TopEstudiantes(top);
+    }
+
+    /**
+     * @return Resumen vacío que guarda los mismos mejores estudiantes, para un trozo del archivo
+     */
+    ResumenCohorte vacio() {
+        return new ResumenCohorte(top);
+    }
+
+    public void agregarNota(double nota) {
+        notas.agregar(nota);
+    }
+
+    /**
+     * Cuenta un estudiante cuyas notas ya se agregaron con {@link #agregarNota}. Los que no
+     * tienen notas no entran en los promedios
+     */
+    public void agregarEstudiante(String nombre, double promedio, long numeroNotas) {
+        estudiantes++;
+        if (numeroNotas == 0) {
+            estudiantesSinNotas++;
+            return;
+        }
+        promedios.agregar(promedio);
+        mejores.agregar(nombre, promedio);
+    }
+
+    /**
+     * Agrega las notas y el promedio de un registro del parser
+     */
+    public void agregar(RegistroEstudiante registro) {
+        double suma = 0.0;
+        for (int i = 0; i < registro.getNumeroNotas(); i++) {
+            double nota = registro.getNota(i);
+            notas.agregar(nota);
+            suma += nota;
+        }
+        // Mismo promedio que EstadisticasNotas: suma en orden y una división al final
+        int numeroNotas = registro.getNumeroNotas();
+        agregarEstudiante(registro.getNombre(), numeroNotas == 0 ? 0.0 : suma / numeroNotas, numeroNotas);
+    }
+
+    /**
+     * Suma a este resumen lo contado en otro
+     */
+    public void combinar(ResumenCohorte otro) {
+        notas.combinar(otro.notas);
+        promedios.combinar(otro.promedios);
+        mejores.combinar(otro.mejores);
+        estudiantes += otro.estudiantes;
+        estudiantesSinNotas += otro.estudiantesSinNotas;
+    }
+
+    /**
+     * @return Histograma de todas las notas de la cohorte
+     */
+    public HistogramaNotas getNotas() {
+        return notas;
+    }
+
+    /**
+     * @return Histograma de los promedios de los estudiantes con alguna nota
+     */
+    public HistogramaNotas getPromedios() {
+        return promedios;
+    }
+
+    public List<TopEstudiantes.Puesto> getMejores() {
+        return mejores.getMejores();
+    }
+
+    public long getEstudiantes() {
+        return estudiantes;
+    }
+
+    public long getEstudiantesSinNotas() {
+        return estudiantesSinNotas;
+    }
+}
@@ -0,0 +1,98 @@
+package etl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Los N estudiantes con mejor promedio, guardados en un montículo de tamaño N cuya cabeza es
+ * el peor de ellos: cada estudiante nuevo solo se compara con esa cabeza. A igual promedio va
+ * antes el nombre menor, para que el resultado no dependa del orden en que se combinan los trozos.
+ */
+public final class TopEstudiantes {
+
+    /**
+     * Nombre y promedio de uno de los mejores estudiantes
+     */
+    public static final class Puesto {
+        private final String nombre;
+        private final double promedio;
+
+        private Puesto(String nombre, double promedio) {
+            this.nombre = nombre;
+            this.promedio = promedio;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public double getPromedio() {
+            return promedio;
+        }
+
+        @Override
+        public String toString() {
+            return nombre + ";" + String.format("%.2f", promedio);
+        }
+    }
+
+    // De mejor a peor
+    private static final Comparator<Puesto> MEJOR_PRIMERO = Comparator.comparingDouble(Puesto::getPromedio).reversed()
+            .thenComparing(Puesto::getNombre, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final int maximo;
+    private final PriorityQueue<Puesto> puestos;
+
+    /**
+     * @param maximo Número de estudiantes que se guardan
+     */
+    public TopEstudiantes(int maximo) {
+        if (maximo <= 0) {
+            throw new IllegalArgumentException("El número de estudiantes debe ser mayor que cero: " + maximo);
+        }
+        this.maximo = maximo;
+        // La cabeza es el peor de los guardados
+        this.puestos = new PriorityQueue<>(maximo, MEJOR_PRIMERO.reversed());
+    }
+
+    /**
+     * Tiene en cuenta un estudiante; los promedios NaN se ignoran
+     */
+    public void agregar(String nombre, double promedio) {
+        if (Double.isNaN(promedio)) {
+            return;
+        }
+        if (puestos.size() < maximo) {
+            puestos.add(new Puesto(nombre, promedio));
+            return;
+        }
+        if (promedio < puestos.peek().promedio) {
+            return; // Caso habitual con muchos estudiantes: no entra y no se crea nada
+        }
+        Puesto candidato = new Puesto(nombre, promedio);
+        if (MEJOR_PRIMERO.compare(candidato, puestos.peek()) < 0) {
+            puestos.poll();
+            puestos.add(candidato);
+        }
+    }
+
+    /**
+     * Añade los estudiantes guardados en otro
+     */
+    public void combinar(TopEstudiantes otro) {
+        for (Puesto puesto : otro.puestos) {
+            agregar(puesto.nombre, puesto.promedio);
+        }
+    }
+
+    /**
+     * @return Estudiantes guardados, de mejor a peor promedio
+     */
+    public List<Puesto> getMejores() {
+        List<Puesto> mejores = new ArrayList<>(puestos);
+        mejores.sort(MEJOR_PRIMERO);
+        return mejores;
+    }
+}
@@ -2,17 +2,29 @@ package service;
 
 import dao.IUsuarioDAO;
 import model.UsuarioDay_2;
+import utils.CargadorPorLotes;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Clase de servicio que implementa la lógica de negocio relacionada con los usuarios.
  * Actúa como intermediaria entre la capa de acceso a datos y la capa de presentación.
+ * Hay que cerrarlo al terminar para detener los hilos del cargador por lotes.
  */
-public class UsuarioServicio {
+public class UsuarioServicio implements AutoCloseable {
+
+    // Tiempo que se esperan más búsquedas por ID para agruparlas en una sola consulta
+    private static final long VENTANA_CARGA_MS = 2;
 
     private final IUsuarioDAO usuarioDAO;
+    private final CargadorPorLotes<Integer, UsuarioDay_2> cargadorUsuarios;
 
     /**
      * Constructor que recibe la implementación del DAO a utilizar
@@ -21,24 +33,50 @@ public class UsuarioServicio {
      */
     public UsuarioServicio(IUsuarioDAO usuarioDAO) {
         this.usuarioDAO = usuarioDAO;
+        this.cargadorUsuarios = new CargadorPorLotes<>(
+                usuarioDAO::getUsuariosByIds, VENTANA_CARGA_MS, IUsuarioDAO.TAMANO_MAXIMO_IN);
+    }
+
+    /**
+     * Busca un usuario por ID de forma asíncrona. Las búsquedas hechas casi a la vez
+     * (por ejemplo, desde un bucle o desde varios hilos) se agrupan en una sola consulta IN.
+     *
+     * @param id ID del usuario
+     * @return Futuro con el usuario, o null si no existe
+     */
+    public CompletableFuture<UsuarioDay_2> buscarUsuario(int id) {
+        return cargadorUsuarios.cargar(id);
+    }
+
+    /**
+     * Busca varios usuarios por ID con consultas IN en lugar de una consulta por usuario
+     *
+     * @param ids IDs de los usuarios
+     * @return Usuarios encontrados por ID, en el orden de los IDs pedidos
+     */
+    public Map<Integer, UsuarioDay_2> buscarUsuarios(Collection<Integer> ids) {
+        return usuarioDAO.getUsuariosByIds(ids);
     }
 
     /**
      * Método que obtiene y muestra la lista de todos los usuarios
      */
     public void mostrarUsuarios() {
-        List<UsuarioDay_2> usuarios = usuarioDAO.getAllUsuarios();
+        // Se recorren en streaming para no cargar la tabla completa en memoria
+        try (Stream<UsuarioDay_2> usuarios = usuarioDAO.streamUsuarios()) {
+            Iterator<UsuarioDay_2> iterador = usuarios.iterator();
 
-        if (usuarios.isEmpty()) {
-            System.out.println("No se encontraron usuarios en la base de datos.");
-            return;
-        }
+            if (!iterador.hasNext()) {
+                System.out.println("No se encontraron usuarios en la base de datos.");
+                return;
+            }
 
-        System.out.println("==== LISTA DE USUARIOS ====");
-        for (UsuarioDay_2 usuario : usuarios) {
-            System.out.println(usuario);
+            System.out.println("==== LISTA DE USUARIOS ====");
+            while (iterador.hasNext()) {
+                System.out.println(iterador.next());
+            }
+            System.out.println("==========================");
         }
-        System.out.println("==========================");
     }
 
     /**
@@ -50,6 +88,17 @@ public class UsuarioServicio {
         return usuarioDAO.getAllUsuarios();
     }
 
+    /**
+     * Cuenta los usuarios recorriéndolos en streaming, sin cargarlos en memoria
+     *
+     * @return Número de usuarios
+     */
+    public long contarUsuarios() {
+        try (Stream<UsuarioDay_2> usuarios = usuarioDAO.streamUsuarios()) {
+            return usuarios.count();
+        }
+    }
+
     /**
      * Metodo que limpia y valida los datos de los usuarios
      * - Elimina espacios en blanco en los nombres con trim()
@@ -57,47 +106,84 @@ public class UsuarioServicio {
      * - Valida que tanto el nombre como el email no sean null ni estén vacíos
      */
     public List<UsuarioDay_2> limpiarYValidarUsuarios() {
-        List<UsuarioDay_2> usuarios = usuarioDAO.getAllUsuarios();
         List<UsuarioDay_2> usuariosLimpios = new ArrayList<>();
+        limpiarYValidarUsuarios(usuariosLimpios::add);
+        return usuariosLimpios;
+    }
+
+    /**
+     * Limpia y valida los usuarios en streaming, entregando cada usuario válido al consumidor
+     * en cuanto se lee. La memoria usada no depende del número de filas de la tabla.
+     *
+     * @param destino Consumidor que recibe los usuarios válidos ya limpios
+     * @return Número de usuarios válidos
+     */
+    public long limpiarYValidarUsuarios(Consumer<UsuarioDay_2> destino) {
+        long validos = 0;
 
         System.out.println("==== LIMPIEZA Y VALIDACIÓN DE USUARIOS ====");
-        for (UsuarioDay_2 usuario : usuarios) {
-            boolean esValido = true;
+        try (Stream<UsuarioDay_2> usuarios = usuarioDAO.streamUsuarios()) {
+            Iterator<UsuarioDay_2> iterador = usuarios.iterator();
+            while (iterador.hasNext()) {
+                UsuarioDay_2 usuario = iterador.next();
+                if (limpiarYValidar(usuario)) {
+                    destino.accept(usuario);
+                    validos++;
+                }
+            }
+        }
+        System.out.println("==========================================");
 
-            String nombreMostrar = (usuario.getNombre() != null) ? usuario.getNombre() : "null";
-            String emailMostrar = (usuario.getEmail() != null) ? usuario.getEmail() : "null";
+        return validos;
+    }
 
-            // Verificar si el nombre es null o vacío
-            if (usuario.getNombre() == null || usuario.getNombre().trim().isEmpty()) {
-                System.out.println("Usuario ID " + usuario.getId() + " (" + nombreMostrar + ", " + emailMostrar + "): INVÁLIDO - Nombre es null o vacío");
-                esValido = false;
-            } else {
-                // Limpiar espacios en blanco del nombre
-                usuario.setNombre(usuario.getNombre().trim());
-            }
+    /**
+     * Lanza las búsquedas por ID pendientes y detiene los hilos del cargador por lotes
+     */
+    @Override
+    public void close() {
+        cargadorUsuarios.cerrar();
+    }
+
+    /**
+     * Limpia un usuario y comprueba si es válido, informando por consola
+     *
+     * @param usuario Usuario a limpiar (se modifica)
+     * @return true si el usuario es válido
+     */
+    private boolean limpiarYValidar(UsuarioDay_2 usuario) {
+        boolean esValido = true;
+
+        String nombreMostrar = (usuario.getNombre() != null) ? usuario.getNombre() : "null";
+        String emailMostrar = (usuario.getEmail() != null) ? usuario.getEmail() : "null";
+
+        // Verificar si el nombre es null o vacío
+        if (usuario.getNombre() == null || usuario.getNombre().trim().isEmpty()) {
+            System.out.println("Usuario ID " + usuario.getId() + " (" + nombreMostrar + ", " + emailMostrar + "): INVÁLIDO - Nombre es null o vacío");
+            esValido = false;
+        } else {
+            // Limpiar espacios en blanco del nombre
+            usuario.setNombre(usuario.getNombre().trim());
+        }
 
-            // Verificar si el email es null o vacío
-            if (usuario.getEmail() == null || usuario.getEmail().trim().isEmpty()) {
-                System.out.println("Usuario ID " + usuario.getId() + " (" + nombreMostrar + ", " + emailMostrar + "): INVÁLIDO - Email es null o vacío");
+        // Verificar si el email es null o vacío
+        if (usuario.getEmail() == null || usuario.getEmail().trim().isEmpty()) {
+            System.out.println("Usuario ID " + usuario.getId() + " (" + nombreMostrar + ", " + emailMostrar + "): INVÁLIDO - Email es null o vacío");
+            esValido = false;
+        } else {
+            // Verificar formato de email (contiene @)
+            if (!usuario.getEmail().contains("@")) {
+                System.out.println("Usuario ID " + usuario.getId() + " (" + nombreMostrar + ", " + emailMostrar + "): INVÁLIDO - Email con formato incorrecto");
                 esValido = false;
             } else {
-                // Verificar formato de email (contiene @)
-                if (!usuario.getEmail().contains("@")) {
-                    System.out.println("Usuario ID " + usuario.getId() + " (" + nombreMostrar + ", " + emailMostrar + "): INVÁLIDO - Email con formato incorrecto");
-                    esValido = false;
-                } else {
-                    // Convertir email a minúsculas
-                    usuario.setEmail(usuario.getEmail().toLowerCase());
-                }
-            }
-
-            if (esValido) {
-                usuariosLimpios.add(usuario);
-                System.out.println("Usuario " + usuario.getNombre() + " (" + usuario.getEmail() + "): VÁLIDO");
+                // Convertir email a minúsculas
+                usuario.setEmail(usuario.getEmail().toLowerCase());
             }
         }
-        System.out.println("==========================================");
 
-        return usuariosLimpios;
+        if (esValido) {
+            System.out.println("Usuario " + usuario.getNombre() + " (" + usuario.getEmail() + "): VÁLIDO");
+        }
+        return esValido;
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Agrupa peticiones individuales por clave en cargas por lotes (patrón DataLoader).
+ *
+ * Las claves pedidas con {@link #cargar} dentro de una ventana corta de tiempo se acumulan
+ * y se resuelven con una sola llamada a la función de carga por lotes (por ejemplo, una
+ * consulta con WHERE id IN (...)). Si se llena el lote antes de que acabe la ventana se
+ * lanza en ese momento. Las peticiones repetidas de una misma clave en la misma ventana
+ * comparten el resultado.
+ */
+public class CargadorPorLotes<K, V> {
+
+    /**
+     * Función que carga varias claves de una vez
+     */
+    @FunctionalInterface
+    public interface CargaPorLotes<K, V> {
+        /**
+         * @param claves Claves a cargar, sin repetidos
+         * @return Valores encontrados por clave (las claves sin valor pueden faltar)
+         * @throws Exception Si falla la carga; se propaga a todas las peticiones del lote
+         */
+        Map<K, V> cargar(List<K> claves) throws Exception;
+    }
+
+    private static final AtomicInteger CONTADOR_HILOS = new AtomicInteger();
+
+    private final CargaPorLotes<K, V> carga;
+    private final long ventanaMs;
+    private final int tamanoMaximoLote;
+    private final ScheduledExecutorService temporizador;
+    private final ExecutorService ejecutor;
+
+    // Lote que se está acumulando; se sustituye por uno nuevo al lanzarlo
+    private Map<K, CompletableFuture<V>> pendientes = new LinkedHashMap<>();
+    private long lotesLanzados;
+    private long clavesPedidas;
+
+    /**
+     * @param carga Función que resuelve un lote de claves
+     * @param ventanaMs Tiempo que se esperan más peticiones antes de lanzar el lote
+     * @param tamanoMaximoLote Número de claves a partir del cual el lote se lanza sin esperar
+     */
+    public CargadorPorLotes(CargaPorLotes<K, V> carga, long ventanaMs, int tamanoMaximoLote) {
+        if (tamanoMaximoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo de lote debe ser mayor que cero: " + tamanoMaximoLote);
+        }
+        this.carga = carga;
+        this.ventanaMs = ventanaMs;
+        this.tamanoMaximoLote = tamanoMaximoLote;
+        this.temporizador = Executors.newSingleThreadScheduledExecutor(r -> crearHilo(r, "cargador-lotes-temporizador"));
+        this.ejecutor = Executors.newCachedThreadPool(r -> crearHilo(r, "cargador-lotes-" + CONTADOR_HILOS.incrementAndGet()));
+    }
+
+    private static Thread crearHilo(Runnable tarea, String nombre) {
+        Thread hilo = new Thread(tarea, nombre);
+        hilo.setDaemon(true);
+        return hilo;
+    }
+
+    /**
+     * Pide una clave. El resultado llega cuando se carga el lote en el que quedó incluida.
+     * @param clave Clave a cargar
+     * @return Futuro con el valor, o null si la carga no lo devolvió
+     */
+    public CompletableFuture<V> cargar(K clave) {
+        Map<K, CompletableFuture<V>> lleno = null;
+        CompletableFuture<V> futuro;
+
+        synchronized (this) {
+            clavesPedidas++;
+            futuro = pendientes.get(clave);
+            if (futuro != null) {
+                return futuro;
+            }
+            futuro = new CompletableFuture<>();
+            pendientes.put(clave, futuro);
+
+            if (pendientes.size() >= tamanoMaximoLote) {
+                lleno = sacarPendientes();
+            } else if (pendientes.size() == 1) {
+                // Primera clave de la ventana: se programa el lanzamiento del lote
+                Map<K, CompletableFuture<V>> lote = pendientes;
+                temporizador.schedule(() -> lanzarSiSigue(lote), ventanaMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (lleno != null) {
+            lanzar(lleno);
+        }
+        return futuro;
+    }
+
+    /**
+     * Pide varias claves, que se agrupan con el resto de peticiones de la ventana
+     * @param claves Claves a cargar
+     * @return Futuro con los valores encontrados, en el orden de las claves
+     */
+    public CompletableFuture<Map<K, V>> cargarVarias(Collection<K> claves) {
+        Map<K, CompletableFuture<V>> futuros = new LinkedHashMap<>();
+        for (K clave : claves) {
+            futuros.put(clave, cargar(clave));
+        }
+        return CompletableFuture.allOf(futuros.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignorado -> {
+                    Map<K, V> valores = new LinkedHashMap<>();
+                    futuros.forEach((clave, futuro) -> {
+                        V valor = futuro.join();
+                        if (valor != null) {
+                            valores.put(clave, valor);
+                        }
+                    });
+                    return valores;
+                });
+    }
+
+    /**
+     * Lanza en este momento el lote que se esté acumulando
+     */
+    public void vaciar() {
+        Map<K, CompletableFuture<V>> lote;
+        synchronized (this) {
+            lote = sacarPendientes();
+        }
+        lanzar(lote);
+    }
+
+    /**
+     * Lanza el lote pendiente y detiene los hilos del cargador
+     */
+    public void cerrar() {
+        vaciar();
+        temporizador.shutdown();
+        ejecutor.shutdown();
+    }
+
+    public synchronized long getLotesLanzados() {
+        return lotesLanzados;
+    }
+
+    public synchronized long getClavesPedidas() {
+        return clavesPedidas;
+    }
+
+    private Map<K, CompletableFuture<V>> sacarPendientes() {
+        Map<K, CompletableFuture<V>> lote = pendientes;
+        pendientes = new LinkedHashMap<>();
+        if (!lote.isEmpty()) {
+            lotesLanzados++;
+        }
+        return lote;
+    }
+
+    private void lanzarSiSigue(Map<K, CompletableFuture<V>> lote) {
+        synchronized (this) {
+            // Si el lote ya se lanzó por estar lleno, no hay nada que hacer
+            if (lote != pendientes) {
+                return;
+            }
+            sacarPendientes();
+        }
+        lanzar(lote);
+    }
+
+    private void lanzar(Map<K, CompletableFuture<V>> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        ejecutor.execute(() -> {
+            try {
+                Map<K, V> valores = carga.cargar(new ArrayList<>(lote.keySet()));
+                lote.forEach((clave, futuro) -> futuro.complete(valores.get(clave)));
+            } catch (Exception e) {
+                lote.values().forEach(futuro -> futuro.completeExceptionally(e));
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cargador por lotes: %d claves pedidas | %d lotes lanzados", getClavesPedidas(), getLotesLanzados());
+    }
+}
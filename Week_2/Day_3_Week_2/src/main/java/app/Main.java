@@ -3,6 +3,8 @@ package app;
 import model.UsuarioDay_2;
 import validator.UsuarioValidator;
 import validator.UsuarioValidatorDB;
+import validator.ValidacionEnParalelo;
+import validator.ValidacionSQL;
 import dao.UsuarioDAO;
 
 import java.util.ArrayList;
@@ -25,7 +27,13 @@ public class Main {
             System.out.println("\nSeleccione una opción:");
             System.out.println("1. Cargar y validar usuarios");
             System.out.println("2. Validar usuarios existentes en la base de datos");
-            System.out.println("3. Salir");
+            System.out.println("3. Validar usuarios existentes en paralelo");
+            System.out.println("4. Resumen de validación calculado en la base de datos");
+            System.out.println("5. Comprobar que la validación en SQL coincide con la de Java");
+            System.out.println("6. Preparar la tabla para la validación incremental (una sola vez)");
+            System.out.println("7. Validación incremental (solo usuarios cambiados desde la anterior)");
+            System.out.println("8. Resumen de validación por columnas");
+            System.out.println("9. Salir");
             System.out.print("Opción: ");
 
             try {
@@ -39,6 +47,24 @@ public class Main {
                         validarUsuariosExistentes();
                         break;
                     case 3:
+                        validarUsuariosEnParalelo();
+                        break;
+                    case 4:
+                        new UsuarioValidatorDB().generarResumenValidacionSQL(true);
+                        break;
+                    case 5:
+                        comprobarValidacionSQL();
+                        break;
+                    case 6:
+                        UsuarioDAO.prepararValidacionIncremental();
+                        break;
+                    case 7:
+                        new UsuarioValidatorDB().generarReporteValidacionIncremental(false);
+                        break;
+                    case 8:
+                        new UsuarioValidatorDB().generarResumenValidacionColumnar(true);
+                        break;
+                    case 9:
                         System.out.println("Saliendo del sistema...");
                         break;
                     default:
@@ -48,7 +74,7 @@ public class Main {
             } catch (NumberFormatException e) {
                 System.out.println("Por favor, ingrese un número válido.");
             }
-        } while (opcion != 3);
+        } while (opcion != 9);
 
         scanner.close();
     }
@@ -103,4 +129,24 @@ public class Main {
         UsuarioValidatorDB validador = new UsuarioValidatorDB();
         validador.generarReporteValidacion();
     }
+
+    private static void validarUsuariosEnParalelo() {
+        System.out.println("\n=== VALIDACIÓN EN PARALELO DE USUARIOS EXISTENTES ===");
+
+        UsuarioValidatorDB validador = new UsuarioValidatorDB();
+        validador.generarReporteValidacionEnParalelo(Runtime.getRuntime().availableProcessors(),
+                ValidacionEnParalelo.CAPACIDAD_COLA_POR_DEFECTO);
+    }
+
+    private static void comprobarValidacionSQL() {
+        System.out.println("\n=== COMPARACIÓN DE LA VALIDACIÓN EN SQL CON LA VALIDACIÓN EN JAVA ===");
+
+        List<String> diferencias = new ValidacionSQL().compararConJava(new UsuarioValidatorDB());
+        if (diferencias.isEmpty()) {
+            System.out.println("Las dos validaciones coinciden para todos los usuarios.");
+        } else {
+            System.out.println("Usuarios en los que no coinciden: " + diferencias.size());
+            diferencias.forEach(System.out::println);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package benchmark;
+
+import model.UsuarioDay_2;
+import validator.MotorValidacion;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.regex.Pattern;
+
+/**
+ * Compara la validación de usuarios tal como la hacía UsuarioValidatorDB (Matcher por email,
+ * LocalDate.now() y Period por usuario y el motivo como texto) con {@link MotorValidacion}.
+ * Los usuarios se generan en memoria para medir solo la validación.
+ *
+ * Mide tiempo y bytes reservados por usuario (ThreadMXBean de HotSpot) tras un calentamiento.
+ * Termina con código 1 si el motor reserva memoria por usuario. Que las dos versiones rechacen
+ * los mismos usuarios por el mismo motivo lo comprueba MotorValidacionTest.
+ *
+ * Uso: MotorValidacionBenchmark [usuarios] [repeticiones]
+ */
+public class MotorValidacionBenchmark {
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(MotorValidacion.EMAIL_REGEX);
+    // Por debajo de esto, lo medido es el propio ThreadMXBean y no la validación
+    private static final double BYTES_POR_USUARIO_TOLERADOS = 0.01;
+
+    /**
+     * Forma de validar todos los usuarios de la muestra
+     */
+    @FunctionalInterface
+    private interface Validacion {
+        long validar(UsuarioDay_2[] usuarios);
+    }
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        UsuarioDay_2[] usuarios = generarUsuarios(cantidad);
+
+        System.out.println("=== BENCHMARK VALIDACIÓN (" + cantidad + " usuarios, " + repeticiones + " repeticiones) ===");
+
+        Validacion anterior = muestra -> {
+            long invalidos = 0;
+            for (UsuarioDay_2 usuario : muestra) {
+                if (motivoAnterior(usuario) != null) {
+                    invalidos++;
+                }
+            }
+            return invalidos;
+        };
+        // El motor se crea una vez por lote, como en ValidacionEnParalelo
+        Validacion motor = muestra -> {
+            MotorValidacion reglas = MotorValidacion.paraHoy();
+            long invalidos = 0;
+            for (UsuarioDay_2 usuario : muestra) {
+                if (reglas.comprobar(usuario) != null) {
+                    invalidos++;
+                }
+            }
+            return invalidos;
+        };
+
+        // Calentamiento de la JIT con ambas versiones
+        medir(usuarios, anterior, repeticiones, null);
+        medir(usuarios, motor, repeticiones, null);
+
+        double[] medidaAnterior = medir(usuarios, anterior, repeticiones, "Regex + Period por usuario");
+        double[] medidaMotor = medir(usuarios, motor, repeticiones, "MotorValidacion");
+        System.out.printf("Mejora: x%.2f%n", medidaAnterior[0] / medidaMotor[0]);
+
+        if (medidaMotor[1] > BYTES_POR_USUARIO_TOLERADOS) {
+            System.err.printf("MotorValidacion reserva %.2f bytes por usuario%n", medidaMotor[1]);
+            System.exit(1);
+        }
+        System.out.println("MotorValidacion no reserva memoria por usuario");
+    }
+
+    // Reglas originales de UsuarioValidator y UsuarioValidatorDB
+    private static String motivoAnterior(UsuarioDay_2 usuario) {
+        String email = usuario.getEmail();
+        if (email == null || !EMAIL_PATTERN.matcher(email).matches()) {
+            return "Email inválido";
+        }
+        LocalDate fechaNacimiento = usuario.getFechaNacimiento();
+        if (fechaNacimiento == null) {
+            return "Fecha de nacimiento no válida";
+        }
+        if (Period.between(fechaNacimiento, LocalDate.now()).getYears() < 18) {
+            return "Menor de 18 años";
+        }
+        return null;
+    }
+
+    /**
+     * @return Nanosegundos y bytes reservados por usuario
+     */
+    private static double[] medir(UsuarioDay_2[] usuarios, Validacion validacion, int repeticiones, String etiqueta) {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().getId();
+        long control = 0;
+
+        long bytesInicio = hilos.getThreadAllocatedBytes(hilo);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < repeticiones; i++) {
+            control += validacion.validar(usuarios);
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = hilos.getThreadAllocatedBytes(hilo) - bytesInicio;
+
+        long validaciones = (long) usuarios.length * repeticiones;
+        double nanosPorUsuario = (double) nanos / validaciones;
+        double bytesPorUsuario = (double) bytes / validaciones;
+        if (etiqueta != null) {
+            System.out.printf("%-28s %8.1f ns/usuario  %8.2f bytes/usuario  (inválidos %d)%n",
+                    etiqueta, nanosPorUsuario, bytesPorUsuario, control / repeticiones);
+        }
+        return new double[]{nanosPorUsuario, bytesPorUsuario};
+    }
+
+    // Mezcla de emails válidos, mal formados y vacíos, y de mayores, menores y sin fecha
+    private static UsuarioDay_2[] generarUsuarios(int cantidad) {
+        String[] emails = {"usuario%d@ejemplo.com", "nombre.apellido%d@correo.empresa.es", "sin_arroba%d.com",
+                "usuario%d@dominio", "usuario%d@ejemplo.comercial", "a-b_%d@sub-dominio.io"};
+        LocalDate hoy = LocalDate.now();
+        UsuarioDay_2[] usuarios = new UsuarioDay_2[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            String email = i % 50 == 0 ? null : String.format(emails[i % emails.length], i);
+            LocalDate fechaNacimiento = i % 40 == 0 ? null : hoy.minusDays(3000 + (i * 37L) % 20000);
+            usuarios[i] = new UsuarioDay_2(i + 1, "Usuario " + i, email, fechaNacimiento, i % 2 == 0 ? "DNI" : "NIE");
+        }
+        return usuarios;
+    }
+}
@@ -5,7 +5,6 @@ import model.UsuarioDay_2;
 import validator.UsuarioValidator;
 
 import java.sql.*;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -67,25 +66,11 @@ public class UsuarioDAO {
         List<UsuarioDay_2> usuarios = new ArrayList<>();
         String sql = "SELECT id, nombre, email, fecha_nacimiento FROM usuarios";
 
-        try (Connection conn = DatabaseConnection.getConnection("mysql_jdbcdemo");
+        try (Connection conn = DatabaseConnection.getConnectionLectura("mysql_jdbcdemo");
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                String nombre = rs.getString("nombre");
-                String email = rs.getString("email");
-
-                // Manejar posible fecha nula
-                LocalDate fechaNacimiento = null;
-                Date fechaSQL = rs.getDate("fecha_nacimiento");
-                if (fechaSQL != null) {
-                    fechaNacimiento = fechaSQL.toLocalDate();
-                }
-
-                UsuarioDay_2 usuario = new UsuarioDay_2(id, nombre, email, fechaNacimiento);
-                usuarios.add(usuario);
-            }
+            usuarios.addAll(MapeadorUsuarioDay2.INSTANCIA.mapearTodas(rs));
 
         } catch (SQLException e) {
             System.err.println("Error al obtener usuarios de la base de datos: " + e.getMessage());
@@ -109,17 +94,7 @@ public class UsuarioDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    String nombre = rs.getString("nombre");
-                    String email = rs.getString("email");
-
-                    // Manejar posible fecha nula
-                    LocalDate fechaNacimiento = null;
-                    Date fechaSQL = rs.getDate("fecha_nacimiento");
-                    if (fechaSQL != null) {
-                        fechaNacimiento = fechaSQL.toLocalDate();
-                    }
-
-                    return new UsuarioDay_2(id, nombre, email, fechaNacimiento);
+                    return MapeadorUsuarioDay2.INSTANCIA.preparar(rs).mapRow(rs);
                 }
             }
 
@@ -202,7 +177,9 @@ public class UsuarioDAO {
                 "nombre VARCHAR(100) NOT NULL," +
                 "email VARCHAR(100) NOT NULL," +
                 "fecha_nacimiento DATE," +
-                "fecha_registro TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+                "fecha_registro TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                "fecha_modificacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP," +
+                "INDEX idx_usuarios_fecha_modificacion (fecha_modificacion))";
 
         try (Connection conn = DatabaseConnection.getConnection("mysql_jdbcdemo");
              Statement stmt = conn.createStatement()) {
@@ -215,6 +192,65 @@ public class UsuarioDAO {
         }
     }
 
+    /**
+     * Prepara una tabla usuarios ya existente para la validación incremental: añade la columna
+     * fecha_modificacion, que cambia en cada INSERT y UPDATE, y la indexa para buscar las filas
+     * cambiadas. Se ejecuta una vez, al preparar la base de datos; las tablas creadas con
+     * {@link #crearTablaUsuarios()} ya la tienen.
+     *
+     * Si fecha_registro se había declarado con ON UPDATE CURRENT_TIMESTAMP, se le quita para que
+     * vuelva a guardar solo la fecha de alta.
+     */
+    public static void prepararValidacionIncremental() {
+        String checkRegistroSql = "SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE table_schema = DATABASE() " +
+                "AND table_name = 'usuarios' " +
+                "AND column_name = 'fecha_registro' " +
+                "AND UPPER(extra) LIKE '%ON UPDATE%'";
+        String registroSql = "ALTER TABLE usuarios MODIFY fecha_registro TIMESTAMP DEFAULT CURRENT_TIMESTAMP";
+        String checkColumnSql = "SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE table_schema = DATABASE() " +
+                "AND table_name = 'usuarios' " +
+                "AND column_name = 'fecha_modificacion'";
+        // Las filas existentes toman la hora del ALTER: la siguiente validación incremental las revisa todas
+        String alterTableSql = "ALTER TABLE usuarios ADD COLUMN fecha_modificacion TIMESTAMP " +
+                "DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP";
+        String checkIndexSql = "SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() " +
+                "AND table_name = 'usuarios' " +
+                "AND index_name = 'idx_usuarios_fecha_modificacion'";
+        String indexSql = "CREATE INDEX idx_usuarios_fecha_modificacion ON usuarios (fecha_modificacion)";
+
+        try (Connection conn = DatabaseConnection.getConnection("mysql_jdbcdemo");
+             Statement stmt = conn.createStatement()) {
+
+            // MODIFY puede reconstruir la tabla, así que solo se ejecuta si hace falta
+            try (ResultSet rs = stmt.executeQuery(checkRegistroSql)) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    stmt.executeUpdate(registroSql);
+                    System.out.println("Columna 'fecha_registro' ya no cambia en cada UPDATE.");
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery(checkColumnSql)) {
+                if (rs.next() && rs.getInt(1) == 0) {
+                    stmt.executeUpdate(alterTableSql);
+                    System.out.println("Columna 'fecha_modificacion' añadida correctamente.");
+                } else {
+                    System.out.println("Columna 'fecha_modificacion' ya existe.");
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery(checkIndexSql)) {
+                if (rs.next() && rs.getInt(1) == 0) {
+                    stmt.executeUpdate(indexSql);
+                    System.out.println("Índice sobre 'fecha_modificacion' creado correctamente.");
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al preparar la tabla para la validación incremental: " + e.getMessage());
+        }
+    }
+
     public static void agregarColumnaFechaNacimiento() {
         String checkColumnSql = "SELECT COUNT(*) FROM information_schema.columns " +
                 "WHERE table_schema = DATABASE() " +
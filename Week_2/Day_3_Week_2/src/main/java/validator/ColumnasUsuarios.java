@@ -0,0 +1,110 @@
+package validator;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Usuarios guardados por columnas para {@link ValidadorColumnar}: un array por campo que crece
+ * según se añaden filas, sin crear un objeto por usuario. La fecha de nacimiento se guarda como
+ * día desde 1970-01-01 ({@link ValidadorColumnar#SIN_FECHA} si no tiene).
+ */
+public class ColumnasUsuarios {
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    private final boolean conNombres;
+    private int[] ids;
+    private String[] nombres;
+    private String[] emails;
+    private long[] diasNacimiento;
+    private int filas;
+
+    /**
+     * @param conNombres Si se guarda también el nombre (solo hace falta si la regla lo revisa)
+     */
+    public ColumnasUsuarios(boolean conNombres) {
+        this(conNombres, CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * @param conNombres Si se guarda también el nombre (solo hace falta si la regla lo revisa)
+     * @param capacidad Filas previstas, para no tener que ampliar los arrays
+     */
+    public ColumnasUsuarios(boolean conNombres, int capacidad) {
+        int inicial = Math.max(capacidad, 1);
+        this.conNombres = conNombres;
+        this.ids = new int[inicial];
+        this.nombres = conNombres ? new String[inicial] : null;
+        this.emails = new String[inicial];
+        this.diasNacimiento = new long[inicial];
+    }
+
+    public void agregar(int id, String nombre, String email, LocalDate fechaNacimiento) {
+        agregar(id, nombre, email, fechaNacimiento == null ? ValidadorColumnar.SIN_FECHA : fechaNacimiento.toEpochDay());
+    }
+
+    /**
+     * @param diaNacimiento LocalDate.toEpochDay() de la fecha de nacimiento, o {@link ValidadorColumnar#SIN_FECHA}
+     */
+    public void agregar(int id, String nombre, String email, long diaNacimiento) {
+        if (filas == ids.length) {
+            int capacidad = filas + (filas >> 1) + 1;
+            ids = Arrays.copyOf(ids, capacidad);
+            emails = Arrays.copyOf(emails, capacidad);
+            diasNacimiento = Arrays.copyOf(diasNacimiento, capacidad);
+            if (conNombres) {
+                nombres = Arrays.copyOf(nombres, capacidad);
+            }
+        }
+        ids[filas] = id;
+        if (conNombres) {
+            nombres[filas] = nombre;
+        }
+        emails[filas] = email;
+        diasNacimiento[filas] = diaNacimiento;
+        filas++;
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    /**
+     * @return ID del usuario de una fila, para traducir las filas de un {@link ResultadoColumnar}
+     */
+    public int getId(int fila) {
+        return ids[fila];
+    }
+
+    /**
+     * Ajusta los arrays al número de filas, que es lo que espera ValidadorColumnar
+     */
+    private void ajustar() {
+        if (ids.length != filas) {
+            ids = Arrays.copyOf(ids, filas);
+            emails = Arrays.copyOf(emails, filas);
+            diasNacimiento = Arrays.copyOf(diasNacimiento, filas);
+            if (conNombres) {
+                nombres = Arrays.copyOf(nombres, filas);
+            }
+        }
+    }
+
+    /**
+     * @return Columna de nombres, o null si no se guardan
+     */
+    String[] getNombres() {
+        ajustar();
+        return nombres;
+    }
+
+    String[] getEmails() {
+        ajustar();
+        return emails;
+    }
+
+    long[] getDiasNacimiento() {
+        ajustar();
+        return diasNacimiento;
+    }
+}
@@ -0,0 +1,28 @@
+package validator;
+
+/**
+ * Motivos por los que se rechaza un usuario. {@link MotorValidacion} comprueba EMAIL, FECHA y
+ * MENOR en ese orden; NOMBRE es para reglas que también revisan el nombre (ver
+ * {@link ValidadorColumnar.Regla}). Los códigos de {@link ResultadoColumnar} dependen del
+ * orden de declaración, así que los motivos nuevos van al final.
+ */
+public enum MotivoRechazo {
+
+    EMAIL("Email inválido"),
+    FECHA("Fecha de nacimiento no válida"),
+    MENOR("Menor de 18 años"),
+    NOMBRE("Nombre no válido");
+
+    private final String descripcion;
+
+    MotivoRechazo(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * @return Texto del motivo que se muestra en los reportes (también el que devuelve la versión SQL)
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
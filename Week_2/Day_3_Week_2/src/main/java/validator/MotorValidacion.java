@@ -0,0 +1,152 @@
+package validator;
+
+import model.UsuarioDay_2;
+
+import java.time.LocalDate;
+
+/**
+ * Reglas de validación de usuarios pensadas para validar muchos usuarios seguidos sin crear
+ * objetos por usuario.
+ *
+ * El email se comprueba recorriéndolo una vez a mano en lugar de con un Matcher, y la edad
+ * se compara con una fecha límite calculada al crear el motor (hoy menos 18 años) en lugar de
+ * pedir la fecha actual y calcular un Period para cada usuario. Por eso conviene crear un
+ * motor por lote: el día se fija al crearlo.
+ */
+public final class MotorValidacion {
+
+    /**
+     * Expresión equivalente a {@link #validarEmail(CharSequence)}, usada con matches().
+     * \w es [A-Za-z0-9_] y [\w-\.] admite además el guion y el punto
+     */
+    public static final String EMAIL_REGEX = "^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$";
+    public static final int EDAD_MINIMA = 18;
+
+    private static final int LONGITUD_MINIMA_DOMINIO = 2;
+    private static final int LONGITUD_MAXIMA_DOMINIO = 4;
+
+    private final LocalDate hoy;
+    // Último día de nacimiento con el que ya se tiene la edad mínima
+    private final LocalDate fechaLimite;
+    private final long diaLimite;
+
+    /**
+     * @param hoy Día con el que se calculan las edades
+     */
+    public MotorValidacion(LocalDate hoy) {
+        this.hoy = hoy;
+        this.fechaLimite = hoy.minusYears(EDAD_MINIMA);
+        this.diaLimite = fechaLimite.toEpochDay();
+    }
+
+    /**
+     * @return Motor que calcula las edades con la fecha actual
+     */
+    public static MotorValidacion paraHoy() {
+        return new MotorValidacion(LocalDate.now());
+    }
+
+    public LocalDate getHoy() {
+        return hoy;
+    }
+
+    /**
+     * Comprueba un usuario sin crear objetos
+     * @return Primer motivo por el que se rechaza, o null si es válido
+     */
+    public MotivoRechazo comprobar(UsuarioDay_2 usuario) {
+        return comprobar(usuario.getEmail(), usuario.getFechaNacimiento());
+    }
+
+    /**
+     * @param email Email del usuario
+     * @param fechaNacimiento Fecha de nacimiento del usuario
+     * @return Primer motivo por el que se rechaza, o null si es válido
+     */
+    public MotivoRechazo comprobar(CharSequence email, LocalDate fechaNacimiento) {
+        if (!validarEmail(email)) {
+            return MotivoRechazo.EMAIL;
+        }
+        if (fechaNacimiento == null) {
+            return MotivoRechazo.FECHA;
+        }
+        return esMayorDeEdad(fechaNacimiento) ? null : MotivoRechazo.MENOR;
+    }
+
+    /**
+     * Versión para datos en columnas, con la fecha como día desde 1970-01-01
+     * @param email Email del usuario
+     * @param diaNacimiento LocalDate.toEpochDay() de la fecha de nacimiento, o
+     *                      {@link ValidadorColumnar#SIN_FECHA} si no tiene
+     * @return Primer motivo por el que se rechaza, o null si es válido
+     */
+    public MotivoRechazo comprobar(CharSequence email, long diaNacimiento) {
+        if (!validarEmail(email)) {
+            return MotivoRechazo.EMAIL;
+        }
+        if (diaNacimiento == ValidadorColumnar.SIN_FECHA) {
+            return MotivoRechazo.FECHA;
+        }
+        return diaNacimiento <= diaLimite ? null : MotivoRechazo.MENOR;
+    }
+
+    /**
+     * Da lo mismo que Period.between(fechaNacimiento, hoy).getYears() >= 18, también para los
+     * nacidos un 29 de febrero (minusYears pasa al 28 en los años no bisiestos)
+     */
+    public boolean esMayorDeEdad(LocalDate fechaNacimiento) {
+        return fechaNacimiento != null && !fechaNacimiento.isAfter(fechaLimite);
+    }
+
+    /**
+     * Comprueba el formato del email en una pasada: una parte local de letras, dígitos, _, . y -,
+     * una @ y un dominio de al menos dos etiquetas no vacías de letras, dígitos, _ y - separadas
+     * por puntos, con la última de 2 a 4 caracteres
+     * @param email Email a comprobar (null no es válido)
+     * @return true si el email tiene un formato válido
+     */
+    public static boolean validarEmail(CharSequence email) {
+        if (email == null) {
+            return false;
+        }
+        int longitud = email.length();
+
+        int i = 0;
+        while (i < longitud && email.charAt(i) != '@') {
+            char c = email.charAt(i);
+            if (!esCaracterPalabra(c) && c != '.') {
+                return false;
+            }
+            i++;
+        }
+        if (i == 0 || i == longitud) {
+            return false;
+        }
+
+        // Dominio: etiquetas separadas por puntos, ya sin @ ni puntos seguidos
+        int etiquetas = 1;
+        int longitudEtiqueta = 0;
+        for (i++; i < longitud; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                if (longitudEtiqueta == 0) {
+                    return false;
+                }
+                etiquetas++;
+                longitudEtiqueta = 0;
+            } else if (esCaracterPalabra(c)) {
+                longitudEtiqueta++;
+            } else {
+                return false;
+            }
+        }
+        return etiquetas >= 2
+                && longitudEtiqueta >= LONGITUD_MINIMA_DOMINIO
+                && longitudEtiqueta <= LONGITUD_MAXIMA_DOMINIO;
+    }
+
+    // [\w-]: letras y dígitos ASCII, _ y -
+    private static boolean esCaracterPalabra(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+}
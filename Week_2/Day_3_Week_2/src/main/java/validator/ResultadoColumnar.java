@@ -0,0 +1,93 @@
+package validator;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resultado de {@link ValidadorColumnar}: un bit por fila válida y un byte por fila con el
+ * código de su motivo de rechazo (0 si es válida), en lugar de un objeto por usuario
+ */
+public class ResultadoColumnar {
+
+    /** Código de las filas válidas */
+    public static final byte VALIDO = 0;
+
+    private static final MotivoRechazo[] MOTIVOS = MotivoRechazo.values();
+
+    private final BitSet validos;
+    private final byte[] codigos;
+
+    ResultadoColumnar(BitSet validos, byte[] codigos) {
+        this.validos = validos;
+        this.codigos = codigos;
+    }
+
+    /**
+     * @return Código compacto de un motivo (su posición en MotivoRechazo más uno)
+     */
+    public static byte codigo(MotivoRechazo motivo) {
+        return (byte) (motivo.ordinal() + 1);
+    }
+
+    /**
+     * @return Motivo de un código, o null si es {@link #VALIDO}
+     */
+    public static MotivoRechazo motivo(byte codigo) {
+        return codigo == VALIDO ? null : MOTIVOS[codigo - 1];
+    }
+
+    public int getTotal() {
+        return codigos.length;
+    }
+
+    public int getNumeroValidos() {
+        return validos.cardinality();
+    }
+
+    public int getNumeroInvalidos() {
+        return codigos.length - validos.cardinality();
+    }
+
+    public boolean isValido(int fila) {
+        return validos.get(fila);
+    }
+
+    /**
+     * @return Motivo de rechazo de la fila, o null si es válida
+     */
+    public MotivoRechazo getMotivo(int fila) {
+        return motivo(codigos[fila]);
+    }
+
+    /**
+     * @return Filas válidas. Es el BitSet del resultado, no una copia
+     */
+    public BitSet getValidos() {
+        return validos;
+    }
+
+    /**
+     * @return Código de cada fila (ver {@link #motivo(byte)}). Es el array del resultado, no una copia
+     */
+    public byte[] getCodigos() {
+        return codigos;
+    }
+
+    /**
+     * @return Número de filas inválidas por motivo
+     */
+    public Map<MotivoRechazo, Long> contarPorMotivo() {
+        long[] cuentas = new long[MOTIVOS.length + 1];
+        for (byte codigo : codigos) {
+            cuentas[codigo]++;
+        }
+        Map<MotivoRechazo, Long> porMotivo = new EnumMap<>(MotivoRechazo.class);
+        for (MotivoRechazo motivo : MOTIVOS) {
+            if (cuentas[codigo(motivo)] > 0) {
+                porMotivo.put(motivo, cuentas[codigo(motivo)]);
+            }
+        }
+        return porMotivo;
+    }
+}
@@ -4,11 +4,8 @@ import java.time.LocalDate;
 import java.time.Period;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.regex.Pattern;
 
 public class UsuarioValidator {
-    private static final String EMAIL_REGEX = "^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$";
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     public static boolean validarUsuario(UsuarioDay_2 usuario) {
@@ -30,11 +27,12 @@ public class UsuarioValidator {
     }
 
     public static boolean validarEmail(String email) {
-        return email != null && EMAIL_PATTERN.matcher(email).matches();
+        return MotorValidacion.validarEmail(email);
     }
 
+    // Para validar muchos usuarios mejor un MotorValidacion por lote, que fija el día una vez
     public static boolean validarEdad(LocalDate fechaNacimiento) {
-        return fechaNacimiento != null && calcularEdad(fechaNacimiento) >= 18;
+        return MotorValidacion.paraHoy().esMayorDeEdad(fechaNacimiento);
     }
 
     public static int calcularEdad(LocalDate fechaNacimiento) {
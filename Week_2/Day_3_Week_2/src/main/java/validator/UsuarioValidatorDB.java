@@ -1,68 +1,45 @@
 package validator;
 
 import config.DatabaseConnection;
+import dao.IUsuarioDAO;
+import dao.JdbcStreams;
+import dao.MapeadorUsuarioDay2;
+import dao.RowMapper;
 import model.UsuarioDay_2;
 
 import java.sql.*;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Clase para leer usuarios de la base de datos y validarlos
  */
 public class UsuarioValidatorDB {
 
+    private static final String PERFIL = "mysql_jdbcdemo";
+    private static final String SQL_USUARIOS = "SELECT id, nombre, email, fecha_nacimiento FROM usuarios";
+
     /**
      * Lee todos los usuarios de la base de datos y los valida
      * @return Lista de resultados de validación
      */
     public List<ResultadoValidacion> leerYValidarUsuarios() {
         List<ResultadoValidacion> resultados = new ArrayList<>();
-        String sql = "SELECT id, nombre, email, fecha_nacimiento FROM usuarios";
 
-        try (Connection conn = DatabaseConnection.getConnection("mysql_jdbcdemo");
+        try (Connection conn = DatabaseConnection.getConnectionLectura(PERFIL);
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = stmt.executeQuery(SQL_USUARIOS)) {
 
             System.out.println("Conectado a la base de datos. Leyendo usuarios...");
 
-            while (rs.next()) {
-                // Extraer datos del resultado
-                int id = rs.getInt("id");
-                String nombre = rs.getString("nombre");
-                String email = rs.getString("email");
-                LocalDate fechaNacimiento = null;
-
-                // Manejar posibles valores nulos en fecha_nacimiento
-                Date fechaSQL = rs.getDate("fecha_nacimiento");
-                if (fechaSQL != null) {
-                    fechaNacimiento = fechaSQL.toLocalDate();
-                }
-
-                // Crear usuario
-                UsuarioDay_2 usuario = new UsuarioDay_2(id, nombre, email, fechaNacimiento);
-
-                // Silenciar la salida por consola durante la validación
-                boolean esValido = silenciarYValidar(usuario);
-                String motivo = "";
-
-                // Si no es válido, determinar la razón
-                if (!esValido) {
-                    if (!UsuarioValidator.validarEmail(email)) {
-                        motivo = "Email inválido";
-                    } else if (fechaNacimiento != null && !UsuarioValidator.validarEdad(fechaNacimiento)) {
-                        motivo = "Menor de 18 años";
-                    } else if (fechaNacimiento == null) {
-                        motivo = "Fecha de nacimiento no válida";
-                    } else {
-                        motivo = "Error de validación desconocido";
-                    }
-                }
+            // Los índices de las columnas se resuelven una vez para todo el ResultSet
+            RowMapper<UsuarioDay_2> mapper = MapeadorUsuarioDay2.INSTANCIA.preparar(rs);
+            MotorValidacion motor = MotorValidacion.paraHoy();
 
-                // Crear resultado de validación y añadirlo incluso si no es válido
-                ResultadoValidacion resultado = new ResultadoValidacion(usuario, esValido, motivo);
-                resultados.add(resultado);
+            while (rs.next()) {
+                resultados.add(validar(mapper.mapRow(rs), motor));
             }
 
         } catch (SQLException e) {
@@ -72,15 +49,30 @@ public class UsuarioValidatorDB {
         return resultados;
     }
 
+    /**
+     * Lee los usuarios a través de un DAO y los valida. Con {@link dao.UsuarioDAOSharded}
+     * los shards se leen en paralelo y los resultados llegan según van saliendo de cada uno.
+     * @param usuarioDAO DAO del que se leen los usuarios
+     * @return Lista de resultados de validación
+     */
+    public List<ResultadoValidacion> leerYValidarUsuarios(IUsuarioDAO usuarioDAO) {
+        try (Stream<UsuarioDay_2> usuarios = usuarioDAO.streamUsuarios()) {
+            MotorValidacion motor = MotorValidacion.paraHoy();
+            return usuarios.map(usuario -> validar(usuario, motor)).collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            System.err.println("Error al leer usuarios de la base de datos: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Valida un usuario sin imprimir mensajes en consola
      * @param usuario Usuario a validar
+     * @param motor Reglas con el día fijado para todo el lote
      * @return Resultado de la validación
      */
-    private boolean silenciarYValidar(UsuarioDay_2 usuario) {
-        boolean emailValido = UsuarioValidator.validarEmail(usuario.getEmail());
-        boolean edadValida = UsuarioValidator.validarEdad(usuario.getFechaNacimiento());
-        return emailValido && edadValida;
+    static ResultadoValidacion validar(UsuarioDay_2 usuario, MotorValidacion motor) {
+        return new ResultadoValidacion(usuario, motor.comprobar(usuario));
     }
 
     /**
@@ -125,6 +117,158 @@ public class UsuarioValidatorDB {
                 (resultados.size() > 0 ? (usuariosInvalidos * 100 / resultados.size()) : 0) + "%)");
     }
 
+    /**
+     * Genera el reporte validando en tubería con {@link ValidacionEnParalelo}: los usuarios se
+     * leen en streaming y se validan en varios hilos, y cada inválido se imprime según se detecta.
+     * No guarda los resultados, así que la memoria no crece con el número de usuarios; a cambio
+     * no lista los válidos uno a uno y el orden de los inválidos no es el de la tabla.
+     * @param hilos Hilos validadores
+     * @param capacidadCola Bloques de usuarios que pueden esperar entre lector, validadores y agregador
+     */
+    public void generarReporteValidacionEnParalelo(int hilos, int capacidadCola) {
+        System.out.println("\n===== REPORTE DE VALIDACIÓN DE USUARIOS (" + hilos + " hilos) =====");
+        System.out.println("\n----- USUARIOS INVÁLIDOS -----");
+
+        ValidacionEnParalelo.Resumen resumen = new ValidacionEnParalelo(hilos, capacidadCola).validar(
+                () -> JdbcStreams.consultarIndexado(PERFIL, SQL_USUARIOS, JdbcStreams.FETCH_SIZE_POR_DEFECTO,
+                        MapeadorUsuarioDay2.INSTANCIA),
+                resultado -> {
+                    UsuarioDay_2 u = resultado.getUsuario();
+                    System.out.println("INVÁLIDO - ID: " + u.getId() + ", Nombre: " + u.getNombre() +
+                            ", Email: " + u.getEmail() + ", Fecha Nac.: " +
+                            (u.getFechaNacimiento() != null ? u.getFechaNacimiento() : "N/A") +
+                            " - Motivo: " + resultado.getMotivo());
+                });
+
+        if (resumen.getError() != null) {
+            System.err.println("La validación no terminó: " + resumen.getError());
+        }
+        long total = resumen.getTotal();
+        System.out.println("\n----- RESUMEN -----");
+        System.out.println("Total de usuarios validados: " + total);
+        System.out.println("Usuarios válidos: " + resumen.getValidos() + " (" +
+                (total > 0 ? (resumen.getValidos() * 100 / total) : 0) + "%)");
+        System.out.println("Usuarios inválidos: " + resumen.getInvalidos() + " (" +
+                (total > 0 ? (resumen.getInvalidos() * 100 / total) : 0) + "%)");
+        resumen.getMotivos().forEach((motivo, cantidad) -> System.out.println("  " + motivo + ": " + cantidad));
+        System.out.printf("Velocidad: %.0f usuarios/s%n", resumen.getUsuariosPorSegundo());
+    }
+
+    /**
+     * Genera el resumen de la validación calculándolo en la base de datos con {@link ValidacionSQL}:
+     * solo viajan los totales por motivo y, si se piden, los IDs de los usuarios inválidos
+     * @param incluirInvalidos Si se listan los IDs inválidos con su motivo
+     */
+    public void generarResumenValidacionSQL(boolean incluirInvalidos) {
+        ValidacionSQL validacionSQL = new ValidacionSQL();
+        ValidacionEnParalelo.Resumen resumen = validacionSQL.resumir();
+        if (resumen.getError() != null) {
+            return;
+        }
+
+        long total = resumen.getTotal();
+        System.out.println("\n===== RESUMEN DE VALIDACIÓN (CALCULADO EN LA BASE DE DATOS) =====");
+        System.out.println("Total de usuarios en base de datos: " + total);
+        System.out.println("Usuarios válidos: " + resumen.getValidos() + " (" +
+                (total > 0 ? (resumen.getValidos() * 100 / total) : 0) + "%)");
+        System.out.println("Usuarios inválidos: " + resumen.getInvalidos() + " (" +
+                (total > 0 ? (resumen.getInvalidos() * 100 / total) : 0) + "%)");
+        resumen.getMotivos().forEach((motivo, cantidad) -> System.out.println("  " + motivo + ": " + cantidad));
+
+        if (incluirInvalidos) {
+            System.out.println("\n----- USUARIOS INVÁLIDOS -----");
+            validacionSQL.obtenerInvalidos().forEach((id, motivo) ->
+                    System.out.println("INVÁLIDO - ID: " + id + " - Motivo: " + motivo));
+        }
+    }
+
+    /**
+     * Genera el reporte acumulado con {@link ValidacionIncremental}: solo se validan los usuarios
+     * insertados o modificados desde la ejecución anterior, y el resto se toma del estado guardado
+     * @param completa true para descartar el estado y validar toda la tabla
+     */
+    public void generarReporteValidacionIncremental(boolean completa) {
+        ValidacionIncremental.Resultado resultado = new ValidacionIncremental().ejecutar(completa);
+        if (resultado == null) {
+            return;
+        }
+
+        ValidacionEnParalelo.Resumen resumen = resultado.getResumen();
+        long total = resumen.getTotal();
+        System.out.println("\n===== REPORTE DE VALIDACIÓN INCREMENTAL =====");
+        System.out.println("Usuarios revisados en esta ejecución: " + resultado.getRevisados() +
+                (resultado.getCumpleanos() > 0 ? " (+" + resultado.getCumpleanos() + " que ya cumplieron 18 años)" : "") +
+                (resultado.hayBorrados() ? " | se quitaron usuarios borrados" : ""));
+        System.out.println("Total de usuarios en base de datos: " + total);
+
+        System.out.println("\n----- USUARIOS INVÁLIDOS -----");
+        resultado.getInvalidos().forEach((id, motivo) -> System.out.println("INVÁLIDO - ID: " + id + " - Motivo: " + motivo));
+
+        System.out.println("\n----- RESUMEN -----");
+        System.out.println("Usuarios válidos: " + resumen.getValidos() + " (" +
+                (total > 0 ? (resumen.getValidos() * 100 / total) : 0) + "%)");
+        System.out.println("Usuarios inválidos: " + resumen.getInvalidos() + " (" +
+                (total > 0 ? (resumen.getInvalidos() * 100 / total) : 0) + "%)");
+        resumen.getMotivos().forEach((motivo, cantidad) -> System.out.println("  " + motivo + ": " + cantidad));
+    }
+
+    /**
+     * Genera el resumen leyendo solo las columnas que se validan a arrays (sin crear un
+     * UsuarioDay_2 por fila) y validándolas por trozos en paralelo con {@link ValidadorColumnar}
+     * @param incluirInvalidos Si se listan los IDs inválidos con su motivo
+     */
+    public void generarResumenValidacionColumnar(boolean incluirInvalidos) {
+        long inicio = System.nanoTime();
+        ColumnasUsuarios columnas = leerColumnas();
+        if (columnas == null) {
+            return;
+        }
+        ResultadoColumnar resultado = new ValidadorColumnar(MotorValidacion.paraHoy()).validar(columnas);
+        long nanos = System.nanoTime() - inicio;
+
+        int total = resultado.getTotal();
+        System.out.println("\n===== RESUMEN DE VALIDACIÓN POR COLUMNAS =====");
+        System.out.println("Total de usuarios en base de datos: " + total);
+        System.out.println("Usuarios válidos: " + resultado.getNumeroValidos() + " (" +
+                (total > 0 ? (resultado.getNumeroValidos() * 100L / total) : 0) + "%)");
+        System.out.println("Usuarios inválidos: " + resultado.getNumeroInvalidos() + " (" +
+                (total > 0 ? (resultado.getNumeroInvalidos() * 100L / total) : 0) + "%)");
+        resultado.contarPorMotivo().forEach((motivo, cantidad) ->
+                System.out.println("  " + motivo.getDescripcion() + ": " + cantidad));
+        System.out.printf("Velocidad: %.0f usuarios/s%n", nanos == 0 ? 0 : total / (nanos / 1_000_000_000.0));
+
+        if (incluirInvalidos) {
+            System.out.println("\n----- USUARIOS INVÁLIDOS -----");
+            for (int fila = 0; fila < total; fila++) {
+                if (!resultado.isValido(fila)) {
+                    System.out.println("INVÁLIDO - ID: " + columnas.getId(fila) + " - Motivo: " +
+                            resultado.getMotivo(fila).getDescripcion());
+                }
+            }
+        }
+    }
+
+    private static ColumnasUsuarios leerColumnas() {
+        ColumnasUsuarios columnas = new ColumnasUsuarios(false);
+
+        try (Connection conn = DatabaseConnection.getConnectionLectura(PERFIL);
+             Statement stmt = conn.createStatement()) {
+
+            stmt.setFetchSize(JdbcStreams.FETCH_SIZE_POR_DEFECTO);
+            try (ResultSet rs = stmt.executeQuery("SELECT id, email, fecha_nacimiento FROM usuarios")) {
+                while (rs.next()) {
+                    Date fechaNacimiento = rs.getDate(3);
+                    columnas.agregar(rs.getInt(1), null, rs.getString(2),
+                            fechaNacimiento == null ? ValidadorColumnar.SIN_FECHA : fechaNacimiento.toLocalDate().toEpochDay());
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al leer usuarios de la base de datos: " + e.getMessage());
+            return null;
+        }
+        return columnas;
+    }
+
     /**
      * Clase interna para almacenar el resultado de una validación
      */
@@ -132,6 +276,7 @@ public class UsuarioValidatorDB {
         private UsuarioDay_2 usuario;
         private boolean valido;
         private String motivo;
+        private MotivoRechazo codigo;
 
         public ResultadoValidacion(UsuarioDay_2 usuario, boolean valido, String motivo) {
             this.usuario = usuario;
@@ -139,6 +284,14 @@ public class UsuarioValidatorDB {
             this.motivo = motivo;
         }
 
+        /**
+         * @param codigo Motivo del rechazo, o null si el usuario es válido
+         */
+        public ResultadoValidacion(UsuarioDay_2 usuario, MotivoRechazo codigo) {
+            this(usuario, codigo == null, codigo == null ? "" : codigo.getDescripcion());
+            this.codigo = codigo;
+        }
+
         public UsuarioDay_2 getUsuario() {
             return usuario;
         }
@@ -150,5 +303,13 @@ public class UsuarioValidatorDB {
         public String getMotivo() {
             return motivo;
         }
+
+        /**
+         * @return Motivo del rechazo, o null si el usuario es válido (o si el resultado no se
+         *         creó con un {@link MotivoRechazo})
+         */
+        public MotivoRechazo getCodigo() {
+            return codigo;
+        }
     }
 }
\ No newline at end of file
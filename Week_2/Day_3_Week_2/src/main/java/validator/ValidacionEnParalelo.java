@@ -0,0 +1,252 @@
+package validator;
+
+import model.UsuarioDay_2;
+import validator.UsuarioValidatorDB.ResultadoValidacion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Validación de usuarios en tubería: un hilo lector, varios hilos validadores y el hilo
+ * que llama como agregador.
+ *
+ * El lector recorre la fuente y deja los usuarios en bloques en una cola acotada; los
+ * validadores toman bloques, validan cada usuario y pasan al agregador el número de válidos
+ * y los inválidos; el agregador cuenta y entrega cada inválido según llega. Como las dos
+ * colas están acotadas, la memoria usada no depende del número de usuarios, y la validación
+ * reparte el trabajo entre tantos hilos como núcleos haya.
+ *
+ * Todos los validadores comparten un {@link MotorValidacion} creado al empezar, así que las
+ * edades de toda la ejecución se calculan con el mismo día y validar un usuario válido no
+ * crea ningún objeto.
+ */
+public class ValidacionEnParalelo {
+
+    /** Usuarios por bloque: cada paso por la cola lleva un bloque, no un usuario */
+    public static final int TAMANO_BLOQUE = 256;
+    /** Bloques que pueden esperar en cada cola */
+    public static final int CAPACIDAD_COLA_POR_DEFECTO = 64;
+
+    private static final List<UsuarioDay_2> FIN_LECTURA = Collections.emptyList();
+    private static final Bloque FIN_VALIDACION = new Bloque(0, Collections.emptyList());
+
+    /**
+     * Origen de los usuarios, que se abre en el hilo lector
+     */
+    @FunctionalInterface
+    public interface FuenteUsuarios {
+        Stream<UsuarioDay_2> abrir() throws Exception;
+    }
+
+    private final int hilos;
+    private final int capacidadCola;
+
+    public ValidacionEnParalelo() {
+        this(Runtime.getRuntime().availableProcessors(), CAPACIDAD_COLA_POR_DEFECTO);
+    }
+
+    /**
+     * @param hilos Hilos validadores
+     * @param capacidadCola Bloques de {@link #TAMANO_BLOQUE} usuarios que caben en cada cola
+     */
+    public ValidacionEnParalelo(int hilos, int capacidadCola) {
+        if (hilos <= 0 || capacidadCola <= 0) {
+            throw new IllegalArgumentException("Los hilos y la capacidad de la cola deben ser mayores que cero");
+        }
+        this.hilos = hilos;
+        this.capacidadCola = capacidadCola;
+    }
+
+    /**
+     * Valida todos los usuarios de la fuente
+     * @param fuente Origen de los usuarios (el Stream se cierra al terminar)
+     * @param alInvalido Recibe cada usuario inválido en el hilo que llama, según se detecta
+     * @return Recuento de la validación
+     */
+    public Resumen validar(FuenteUsuarios fuente, Consumer<ResultadoValidacion> alInvalido) {
+        BlockingQueue<List<UsuarioDay_2>> pendientes = new ArrayBlockingQueue<>(capacidadCola);
+        BlockingQueue<Bloque> validados = new ArrayBlockingQueue<>(capacidadCola);
+        AtomicReference<Exception> errorLectura = new AtomicReference<>();
+        AtomicReference<RuntimeException> errorValidacion = new AtomicReference<>();
+        AtomicInteger numeroHilo = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(hilos + 1, r -> {
+            Thread hilo = new Thread(r, "validacion-" + numeroHilo.getAndIncrement());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        long inicio = System.nanoTime();
+        MotorValidacion motor = MotorValidacion.paraHoy();
+        Resumen resumen = new Resumen();
+        try {
+            executor.execute(() -> leer(fuente, pendientes, errorLectura));
+            for (int i = 0; i < hilos; i++) {
+                executor.execute(() -> validarBloques(pendientes, validados, motor, errorValidacion));
+            }
+
+            int terminados = 0;
+            while (terminados < hilos) {
+                Bloque bloque = validados.take();
+                if (bloque == FIN_VALIDACION) {
+                    terminados++;
+                    continue;
+                }
+                resumen.validos += bloque.validos;
+                for (ResultadoValidacion invalido : bloque.invalidos) {
+                    resumen.invalidos++;
+                    resumen.motivos.merge(invalido.getMotivo(), 1L, Long::sum);
+                    alInvalido.accept(invalido);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resumen.error = "Validación interrumpida";
+        } finally {
+            // Si el agregador falla, interrumpe al lector y a los validadores bloqueados en las colas
+            executor.shutdownNow();
+        }
+
+        if (errorLectura.get() != null && resumen.error == null) {
+            resumen.error = errorLectura.get().getMessage();
+        }
+        if (errorValidacion.get() != null && resumen.error == null) {
+            resumen.error = "Error al validar usuarios: " + errorValidacion.get();
+        }
+        resumen.nanos = System.nanoTime() - inicio;
+        return resumen;
+    }
+
+    private void leer(FuenteUsuarios fuente, BlockingQueue<List<UsuarioDay_2>> pendientes,
+                      AtomicReference<Exception> errorLectura) {
+        try {
+            try (Stream<UsuarioDay_2> usuarios = fuente.abrir()) {
+                List<UsuarioDay_2> bloque = new ArrayList<>(TAMANO_BLOQUE);
+                Iterator<UsuarioDay_2> iterador = usuarios.iterator();
+                while (iterador.hasNext()) {
+                    bloque.add(iterador.next());
+                    if (bloque.size() == TAMANO_BLOQUE) {
+                        pendientes.put(bloque);
+                        bloque = new ArrayList<>(TAMANO_BLOQUE);
+                    }
+                }
+                if (!bloque.isEmpty()) {
+                    pendientes.put(bloque);
+                }
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                System.err.println("Error al leer usuarios para validar: " + e.getMessage());
+                errorLectura.set(e);
+            }
+            // Un aviso de fin por validador, también si la lectura falló a medias
+            for (int i = 0; i < hilos; i++) {
+                pendientes.put(FIN_LECTURA);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void validarBloques(BlockingQueue<List<UsuarioDay_2>> pendientes, BlockingQueue<Bloque> validados,
+                                       MotorValidacion motor, AtomicReference<RuntimeException> errorValidacion) {
+        try {
+            try {
+                while (true) {
+                    List<UsuarioDay_2> usuarios = pendientes.take();
+                    if (usuarios == FIN_LECTURA) {
+                        break;
+                    }
+                    int validos = 0;
+                    List<ResultadoValidacion> invalidos = new ArrayList<>();
+                    for (UsuarioDay_2 usuario : usuarios) {
+                        // Solo los inválidos necesitan un ResultadoValidacion para llegar al agregador
+                        MotivoRechazo motivo = motor.comprobar(usuario);
+                        if (motivo == null) {
+                            validos++;
+                        } else {
+                            invalidos.add(new ResultadoValidacion(usuario, motivo));
+                        }
+                    }
+                    validados.put(new Bloque(validos, invalidos));
+                }
+            } catch (InterruptedException e) {
+                // Solo pasa cuando el agregador ya terminó: el put del finally lanza enseguida
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                System.err.println("Error al validar usuarios: " + e);
+                errorValidacion.compareAndSet(null, e);
+            } finally {
+                // El agregador espera un aviso de fin por validador, también si este falló
+                validados.put(FIN_VALIDACION);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Resultado de validar un bloque, que pasa de un validador al agregador
+     */
+    private static final class Bloque {
+        private final int validos;
+        private final List<ResultadoValidacion> invalidos;
+
+        Bloque(int validos, List<ResultadoValidacion> invalidos) {
+            this.validos = validos;
+            this.invalidos = invalidos;
+        }
+    }
+
+    /**
+     * Recuento de una validación (también lo usa {@link ValidacionSQL})
+     */
+    public static class Resumen {
+        long validos;
+        long invalidos;
+        final Map<String, Long> motivos = new TreeMap<>();
+        long nanos;
+        String error;
+
+        public long getTotal() {
+            return validos + invalidos;
+        }
+
+        public long getValidos() {
+            return validos;
+        }
+
+        public long getInvalidos() {
+            return invalidos;
+        }
+
+        /**
+         * @return Número de usuarios inválidos por motivo
+         */
+        public Map<String, Long> getMotivos() {
+            return Collections.unmodifiableMap(motivos);
+        }
+
+        public double getUsuariosPorSegundo() {
+            return nanos == 0 ? 0 : getTotal() / (nanos / 1_000_000_000.0);
+        }
+
+        /**
+         * @return Mensaje del error que detuvo la validación, o null si terminó
+         */
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package validator;
+
+import config.DatabaseConnection;
+import dao.MapeadorUsuarioDay2;
+import dao.RowMapper;
+import model.UsuarioDay_2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Validación incremental de la tabla usuarios usando fecha_modificacion como marca de agua.
+ *
+ * El resultado acumulado se guarda en un fichero de estado: los IDs válidos (como BitSet),
+ * los inválidos con su motivo y la marca de agua de la última ejecución. Cada ejecución solo
+ * vuelve a leer y validar las filas con fecha_modificacion posterior a la marca, y las mezcla
+ * con el estado. Las tablas anteriores a esa columna se preparan una vez con
+ * {@link dao.UsuarioDAO#prepararValidacionIncremental()}.
+ *
+ * Además de las filas modificadas:
+ * <ul>
+ *   <li>Los rechazados por ser menores se revisan en local en cada ejecución, porque pueden
+ *       cumplir 18 años sin que cambie su fila.</li>
+ *   <li>Si el número de filas de la tabla no cuadra con el estado es que se borraron usuarios,
+ *       y se leen solo los IDs para quitarlos del estado.</li>
+ *   <li>La marca de agua se guarda con un margen hacia atrás para no perder filas de
+ *       transacciones que confirmaron tarde o que llegaron con retraso a una réplica.</li>
+ * </ul>
+ */
+public class ValidacionIncremental {
+
+    public static final String FICHERO_ESTADO_POR_DEFECTO = "validacion_usuarios.estado";
+    /** Segundos que se restan a la marca de agua al guardarla */
+    public static final long MARGEN_MARCA_SEG = 300;
+
+    private static final String PERFIL = "mysql_jdbcdemo";
+    // La versión 2 guarda el motivo por su código (MotivoRechazo) en lugar de su texto
+    private static final int VERSION_ESTADO = 2;
+    private static final String SQL_USUARIOS = "SELECT id, nombre, email, fecha_nacimiento FROM usuarios";
+    private static final String SQL_CAMBIADOS = SQL_USUARIOS + " WHERE fecha_modificacion >= ?";
+
+    private final Path ficheroEstado;
+
+    public ValidacionIncremental() {
+        this(Paths.get(FICHERO_ESTADO_POR_DEFECTO));
+    }
+
+    /**
+     * @param ficheroEstado Fichero donde se guarda el resultado acumulado entre ejecuciones
+     */
+    public ValidacionIncremental(Path ficheroEstado) {
+        this.ficheroEstado = ficheroEstado;
+    }
+
+    /**
+     * Valida los usuarios cambiados desde la última ejecución y actualiza el estado
+     * @param completa true para ignorar el estado guardado y validar toda la tabla
+     * @return Resultado acumulado de toda la tabla, o null si no se pudo completar
+     */
+    public Resultado ejecutar(boolean completa) {
+        long inicio = System.nanoTime();
+        Estado estado = completa ? new Estado() : cargarEstado();
+
+        try (Connection conn = DatabaseConnection.getConnectionLectura(PERFIL)) {
+            Timestamp ahora = horaServidor(conn);
+            MotorValidacion motor = MotorValidacion.paraHoy();
+            int revisados = revisarCambiados(conn, estado, motor);
+            int cumpleanos = revisarMenores(estado, motor);
+            boolean hayBorrados = quitarBorrados(conn, estado);
+
+            estado.marca = new Timestamp(ahora.getTime() - MARGEN_MARCA_SEG * 1000);
+            guardarEstado(estado);
+
+            return new Resultado(estado, revisados, cumpleanos, hayBorrados, System.nanoTime() - inicio);
+        } catch (SQLException | IOException e) {
+            System.err.println("Error en la validación incremental: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Timestamp horaServidor(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP")) {
+            rs.next();
+            return rs.getTimestamp(1);
+        }
+    }
+
+    private static int revisarCambiados(Connection conn, Estado estado, MotorValidacion motor) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(estado.marca == null ? SQL_USUARIOS : SQL_CAMBIADOS)) {
+            if (estado.marca != null) {
+                stmt.setTimestamp(1, estado.marca);
+            }
+            int revisados = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<UsuarioDay_2> mapper = MapeadorUsuarioDay2.INSTANCIA.preparar(rs);
+                while (rs.next()) {
+                    estado.registrar(mapper.mapRow(rs), motor);
+                    revisados++;
+                }
+            }
+            return revisados;
+        }
+    }
+
+    // Los menores que ya han cumplido 18 pasan a válidos sin consultar la base de datos
+    private static int revisarMenores(Estado estado, MotorValidacion motor) {
+        int cumpleanos = 0;
+        Iterator<Map.Entry<Integer, Invalido>> it = estado.invalidos.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Invalido> entrada = it.next();
+            Invalido invalido = entrada.getValue();
+            if (invalido.motivo == MotivoRechazo.MENOR && motor.esMayorDeEdad(invalido.fechaNacimiento)) {
+                it.remove();
+                estado.validos.set(entrada.getKey());
+                cumpleanos++;
+            }
+        }
+        return cumpleanos;
+    }
+
+    private static boolean quitarBorrados(Connection conn, Estado estado) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM usuarios")) {
+            rs.next();
+            if (rs.getLong(1) == estado.total()) {
+                return false;
+            }
+        }
+
+        BitSet existentes = new BitSet();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id FROM usuarios")) {
+            while (rs.next()) {
+                existentes.set(rs.getInt(1));
+            }
+        }
+        estado.validos.and(existentes);
+        estado.invalidos.keySet().removeIf(id -> !existentes.get(id));
+        return true;
+    }
+
+    private Estado cargarEstado() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(ficheroEstado)))) {
+            if (in.readInt() != VERSION_ESTADO) {
+                System.err.println("Estado de validación con otra versión, se valida toda la tabla");
+                return new Estado();
+            }
+            Estado estado = new Estado();
+            estado.marca = new Timestamp(in.readLong());
+
+            long[] palabras = new long[in.readInt()];
+            for (int i = 0; i < palabras.length; i++) {
+                palabras[i] = in.readLong();
+            }
+            estado.validos = BitSet.valueOf(palabras);
+
+            int invalidos = in.readInt();
+            for (int i = 0; i < invalidos; i++) {
+                int id = in.readInt();
+                MotivoRechazo motivo = MotivoRechazo.valueOf(in.readUTF());
+                long dia = in.readLong();
+                estado.invalidos.put(id, new Invalido(motivo, dia == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(dia)));
+            }
+            return estado;
+        } catch (NoSuchFileException e) {
+            System.out.println("No hay estado de validación anterior, se valida toda la tabla");
+            return new Estado();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("No se pudo leer el estado de validación (" + e.getMessage() + "), se valida toda la tabla");
+            return new Estado();
+        }
+    }
+
+    // Se escribe en un fichero temporal y se renombra para no dejar un estado a medias
+    private void guardarEstado(Estado estado) throws IOException {
+        Path directorio = ficheroEstado.toAbsolutePath().getParent();
+        Path temporal = Files.createTempFile(directorio, "validacion", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+                out.writeInt(VERSION_ESTADO);
+                out.writeLong(estado.marca.getTime());
+
+                long[] palabras = estado.validos.toLongArray();
+                out.writeInt(palabras.length);
+                for (long palabra : palabras) {
+                    out.writeLong(palabra);
+                }
+
+                out.writeInt(estado.invalidos.size());
+                for (Map.Entry<Integer, Invalido> entrada : estado.invalidos.entrySet()) {
+                    out.writeInt(entrada.getKey());
+                    out.writeUTF(entrada.getValue().motivo.name());
+                    LocalDate fecha = entrada.getValue().fechaNacimiento;
+                    out.writeLong(fecha == null ? Long.MIN_VALUE : fecha.toEpochDay());
+                }
+            }
+            Files.move(temporal, ficheroEstado, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Resultado acumulado guardado entre ejecuciones. Los IDs de usuario son positivos,
+     * así que los válidos caben en un BitSet (un bit por ID).
+     */
+    private static class Estado {
+        private Timestamp marca;
+        private BitSet validos = new BitSet();
+        private final Map<Integer, Invalido> invalidos = new TreeMap<>();
+
+        void registrar(UsuarioDay_2 usuario, MotorValidacion motor) {
+            MotivoRechazo motivo = motor.comprobar(usuario);
+            if (motivo == null) {
+                validos.set(usuario.getId());
+                invalidos.remove(usuario.getId());
+            } else {
+                validos.clear(usuario.getId());
+                invalidos.put(usuario.getId(), new Invalido(motivo, usuario.getFechaNacimiento()));
+            }
+        }
+
+        long total() {
+            return validos.cardinality() + invalidos.size();
+        }
+    }
+
+    private static class Invalido {
+        private final MotivoRechazo motivo;
+        // Solo hace falta para los menores, que se revisan cada vez
+        private final LocalDate fechaNacimiento;
+
+        Invalido(MotivoRechazo motivo, LocalDate fechaNacimiento) {
+            this.motivo = motivo;
+            this.fechaNacimiento = fechaNacimiento;
+        }
+    }
+
+    /**
+     * Resumen acumulado tras una ejecución incremental
+     */
+    public static class Resultado {
+        private final ValidacionEnParalelo.Resumen resumen = new ValidacionEnParalelo.Resumen();
+        private final Map<Integer, String> invalidos = new TreeMap<>();
+        private final int revisados;
+        private final int cumpleanos;
+        private final boolean hayBorrados;
+
+        private Resultado(Estado estado, int revisados, int cumpleanos, boolean hayBorrados, long nanos) {
+            this.revisados = revisados;
+            this.cumpleanos = cumpleanos;
+            this.hayBorrados = hayBorrados;
+            resumen.validos = estado.validos.cardinality();
+            resumen.invalidos = estado.invalidos.size();
+            for (Map.Entry<Integer, Invalido> entrada : estado.invalidos.entrySet()) {
+                String motivo = entrada.getValue().motivo.getDescripcion();
+                invalidos.put(entrada.getKey(), motivo);
+                resumen.motivos.merge(motivo, 1L, Long::sum);
+            }
+            resumen.nanos = nanos;
+        }
+
+        /**
+         * @return Recuento acumulado de toda la tabla
+         */
+        public ValidacionEnParalelo.Resumen getResumen() {
+            return resumen;
+        }
+
+        /**
+         * @return Motivo de rechazo por ID de todos los inválidos, ordenados por ID
+         */
+        public Map<Integer, String> getInvalidos() {
+            return Collections.unmodifiableMap(invalidos);
+        }
+
+        /**
+         * @return Filas leídas y validadas en esta ejecución
+         */
+        public int getRevisados() {
+            return revisados;
+        }
+
+        /**
+         * @return Menores que han pasado a válidos por cumplir 18 años
+         */
+        public int getCumpleanos() {
+            return cumpleanos;
+        }
+
+        public boolean hayBorrados() {
+            return hayBorrados;
+        }
+    }
+}
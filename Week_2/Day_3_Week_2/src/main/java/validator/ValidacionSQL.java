@@ -0,0 +1,146 @@
+package validator;
+
+import config.DatabaseConnection;
+import validator.UsuarioValidatorDB.ResultadoValidacion;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Las reglas de {@link UsuarioValidator} traducidas a SQL, para que la base de datos calcule
+ * el resumen de la validación y devuelva solo los totales (o solo los IDs inválidos) en lugar
+ * de todas las filas.
+ *
+ * La versión Java sigue siendo la referencia: {@link #compararConJava(UsuarioValidatorDB)}
+ * valida la tabla por los dos caminos y lista las diferencias. Las expresiones están
+ * pensadas para MySQL 8 (REGEXP con ICU).
+ */
+public class ValidacionSQL {
+
+    private static final String PERFIL = "mysql_jdbcdemo";
+
+    // Misma expresión que MotorValidacion.EMAIL_REGEX, escrita sin \w (en Java, sin modo
+    // Unicode, equivale a [A-Za-z0-9_]) y con \z: el $ de ICU también acepta un salto de
+    // línea final, que matches() de Java rechaza
+    private static final String EMAIL_REGEX_SQL = "^[-.A-Za-z0-9_]+@([-A-Za-z0-9_]+[.])+[-A-Za-z0-9_]{2,4}\\z";
+
+    // Mismo orden de comprobación que MotorValidacion.comprobar; NULL si el usuario es válido.
+    // La edad se compara con la fecha límite (hoy menos 18 años), que da el mismo resultado que
+    // Period.between(...).getYears() >= 18, incluidos los nacidos un 29 de febrero.
+    // Visible en el paquete para la prueba de coherencia con MotorValidacion
+    static final String EXPRESION_MOTIVO =
+            "CASE WHEN email IS NULL OR NOT (email REGEXP ?) THEN '" + MotivoRechazo.EMAIL.getDescripcion() + "' " +
+            "WHEN fecha_nacimiento IS NULL THEN '" + MotivoRechazo.FECHA.getDescripcion() + "' " +
+            "WHEN fecha_nacimiento > ? THEN '" + MotivoRechazo.MENOR.getDescripcion() + "' " +
+            "ELSE NULL END";
+
+    private static final String SQL_RESUMEN =
+            "SELECT motivo, COUNT(*) FROM (SELECT " + EXPRESION_MOTIVO + " AS motivo FROM usuarios) v GROUP BY motivo";
+    private static final String SQL_INVALIDOS =
+            "SELECT id, motivo FROM (SELECT id, " + EXPRESION_MOTIVO + " AS motivo FROM usuarios) v " +
+            "WHERE motivo IS NOT NULL ORDER BY id";
+
+    /**
+     * Calcula en la base de datos cuántos usuarios son válidos y cuántos inválidos por motivo
+     * @return Recuento de la validación (con el error si la consulta falló)
+     */
+    public ValidacionEnParalelo.Resumen resumir() {
+        ValidacionEnParalelo.Resumen resumen = new ValidacionEnParalelo.Resumen();
+        long inicio = System.nanoTime();
+
+        try (Connection conn = DatabaseConnection.getConnectionLectura(PERFIL);
+             PreparedStatement stmt = conn.prepareStatement(SQL_RESUMEN)) {
+
+            establecerParametros(stmt, LocalDate.now());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String motivo = rs.getString(1);
+                    long cantidad = rs.getLong(2);
+                    if (motivo == null) {
+                        resumen.validos += cantidad;
+                    } else {
+                        resumen.invalidos += cantidad;
+                        resumen.motivos.put(motivo, cantidad);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al calcular el resumen de validación en la base de datos: " + e.getMessage());
+            resumen.error = e.getMessage();
+        }
+
+        resumen.nanos = System.nanoTime() - inicio;
+        return resumen;
+    }
+
+    /**
+     * Obtiene de la base de datos solo los usuarios inválidos
+     * @return Motivo de rechazo por ID, ordenados por ID; vacío si hubo error
+     */
+    public Map<Integer, String> obtenerInvalidos() {
+        Map<Integer, String> invalidos = new LinkedHashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnectionLectura(PERFIL);
+             PreparedStatement stmt = conn.prepareStatement(SQL_INVALIDOS)) {
+
+            establecerParametros(stmt, LocalDate.now());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    invalidos.put(rs.getInt(1), rs.getString(2));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener los usuarios inválidos de la base de datos: " + e.getMessage());
+            invalidos.clear();
+        }
+        return invalidos;
+    }
+
+    /**
+     * Valida la tabla con las reglas en Java y con las reglas en SQL y compara el resultado
+     * de cada usuario
+     * @param validadorJava Validación de referencia
+     * @return Descripción de cada usuario en el que no coinciden (vacía si coinciden todos)
+     */
+    public List<String> compararConJava(UsuarioValidatorDB validadorJava) {
+        Map<Integer, String> invalidosSQL = obtenerInvalidos();
+        List<String> diferencias = new ArrayList<>();
+
+        for (ResultadoValidacion resultado : validadorJava.leerYValidarUsuarios()) {
+            int id = resultado.getUsuario().getId();
+            String motivoJava = resultado.isValido() ? null : resultado.getMotivo();
+            String motivoSQL = invalidosSQL.remove(id);
+            if (motivoJava == null ? motivoSQL != null : !motivoJava.equals(motivoSQL)) {
+                diferencias.add("ID " + id + " (email " + resultado.getUsuario().getEmail() + ", nacimiento "
+                        + resultado.getUsuario().getFechaNacimiento() + "): Java=" + describir(motivoJava)
+                        + ", SQL=" + describir(motivoSQL));
+            }
+        }
+        // Inválidos en SQL que la lectura Java no devolvió (por ejemplo, filas nuevas entre las dos lecturas)
+        for (Map.Entry<Integer, String> sobrante : invalidosSQL.entrySet()) {
+            diferencias.add("ID " + sobrante.getKey() + ": solo en SQL, " + sobrante.getValue());
+        }
+        return diferencias;
+    }
+
+    private static String describir(String motivo) {
+        return motivo == null ? "válido" : motivo;
+    }
+
+    /**
+     * Da valor a los dos parámetros de {@link #EXPRESION_MOTIVO}, que van los primeros en la sentencia
+     * @param hoy Día con el que se calculan las edades
+     */
+    static void establecerParametros(PreparedStatement stmt, LocalDate hoy) throws SQLException {
+        stmt.setString(1, EMAIL_REGEX_SQL);
+        stmt.setDate(2, Date.valueOf(hoy.minusYears(MotorValidacion.EDAD_MINIMA)));
+    }
+}
@@ -0,0 +1,137 @@
+package validator;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Validación por lotes de usuarios guardados en columnas (un array por campo) en lugar de
+ * un objeto por usuario.
+ *
+ * El lote se reparte en trozos de {@link #TAMANO_TROZO} filas que se validan en paralelo en
+ * un ForkJoinPool. Cada trozo escribe sus propias palabras del BitSet de válidos (el tamaño
+ * es múltiplo de 64) y sus posiciones del array de códigos, así que los trozos no comparten
+ * nada y el resultado no necesita sincronización. Validar no crea objetos por fila.
+ */
+public class ValidadorColumnar {
+
+    /** Filas que valida cada tarea; múltiplo de 64 para que cada una tenga sus palabras del BitSet */
+    public static final int TAMANO_TROZO = 4096;
+    /** Valor de la columna de fechas para los usuarios sin fecha de nacimiento */
+    public static final long SIN_FECHA = Long.MIN_VALUE;
+
+    /**
+     * Reglas que se aplican a cada fila. No deben crear objetos ni guardar estado, porque se
+     * llaman desde varios hilos a la vez
+     */
+    @FunctionalInterface
+    public interface Regla {
+        /**
+         * @param nombre Nombre del usuario (null si el lote no tiene columna de nombres)
+         * @param email Email del usuario
+         * @param diaNacimiento Día de nacimiento (LocalDate.toEpochDay()) o {@link #SIN_FECHA}
+         * @return Primer motivo por el que se rechaza, o null si es válido
+         */
+        MotivoRechazo comprobar(String nombre, String email, long diaNacimiento);
+    }
+
+    private final Regla regla;
+    private final ForkJoinPool pool;
+
+    /**
+     * Valida con las reglas de {@link MotorValidacion} en el pool común
+     */
+    public ValidadorColumnar(MotorValidacion motor) {
+        this((nombre, email, diaNacimiento) -> motor.comprobar(email, diaNacimiento), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param regla Reglas que se aplican a cada fila
+     * @param pool Hilos donde se validan los trozos
+     */
+    public ValidadorColumnar(Regla regla, ForkJoinPool pool) {
+        this.regla = regla;
+        this.pool = pool;
+    }
+
+    /**
+     * Valida un lote sin columna de nombres
+     * @see #validar(String[], String[], long[])
+     */
+    public ResultadoColumnar validar(String[] emails, long[] diasNacimiento) {
+        return validar(null, emails, diasNacimiento);
+    }
+
+    public ResultadoColumnar validar(ColumnasUsuarios columnas) {
+        return validar(columnas.getNombres(), columnas.getEmails(), columnas.getDiasNacimiento());
+    }
+
+    /**
+     * Valida un lote de usuarios dado en columnas; la fila i de cada array es el usuario i
+     * @param nombres Nombres, o null si la regla no los usa
+     * @param emails Emails
+     * @param diasNacimiento Días de nacimiento (LocalDate.toEpochDay()) o {@link #SIN_FECHA}
+     * @return Filas válidas y motivo de cada fila inválida
+     */
+    public ResultadoColumnar validar(String[] nombres, String[] emails, long[] diasNacimiento) {
+        int filas = emails.length;
+        if (diasNacimiento.length != filas || (nombres != null && nombres.length != filas)) {
+            throw new IllegalArgumentException("Todas las columnas deben tener el mismo número de filas");
+        }
+
+        long[] palabras = new long[(filas + 63) >>> 6];
+        byte[] codigos = new byte[filas];
+        if (filas > 0) {
+            pool.invoke(new Trozo(nombres, emails, diasNacimiento, palabras, codigos, 0, filas));
+        }
+        return new ResultadoColumnar(BitSet.valueOf(palabras), codigos);
+    }
+
+    /**
+     * Rango de filas [desde, hasta) que se divide por la mitad, en múltiplos de
+     * {@link #TAMANO_TROZO}, hasta llegar a un solo trozo
+     */
+    private final class Trozo extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String[] nombres;
+        private final String[] emails;
+        private final long[] diasNacimiento;
+        private final long[] palabras;
+        private final byte[] codigos;
+        private final int desde;
+        private final int hasta;
+
+        Trozo(String[] nombres, String[] emails, long[] diasNacimiento, long[] palabras, byte[] codigos,
+              int desde, int hasta) {
+            this.nombres = nombres;
+            this.emails = emails;
+            this.diasNacimiento = diasNacimiento;
+            this.palabras = palabras;
+            this.codigos = codigos;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            int trozos = (hasta - desde + TAMANO_TROZO - 1) / TAMANO_TROZO;
+            if (trozos > 1) {
+                int mitad = desde + (trozos / 2) * TAMANO_TROZO;
+                invokeAll(new Trozo(nombres, emails, diasNacimiento, palabras, codigos, desde, mitad),
+                        new Trozo(nombres, emails, diasNacimiento, palabras, codigos, mitad, hasta));
+                return;
+            }
+
+            for (int fila = desde; fila < hasta; fila++) {
+                MotivoRechazo motivo = regla.comprobar(nombres == null ? null : nombres[fila],
+                        emails[fila], diasNacimiento[fila]);
+                if (motivo == null) {
+                    palabras[fila >>> 6] |= 1L << fila;
+                } else {
+                    codigos[fila] = ResultadoColumnar.codigo(motivo);
+                }
+            }
+        }
+    }
+}
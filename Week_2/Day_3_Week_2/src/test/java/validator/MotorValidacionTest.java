@@ -0,0 +1,86 @@
+package validator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Comprueba que {@link MotorValidacion} rechaza lo mismo y por el mismo motivo que las reglas
+ * originales de UsuarioValidator: la expresión del email con matches() y la edad con
+ * Period.between(...).getYears(), copiadas aquí como referencia.
+ */
+class MotorValidacionTest {
+
+    private static final Pattern EMAIL_ORIGINAL = Pattern.compile("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$");
+
+    // Caracteres de [\w-.] y algunos que no lo son: letras con tilde, espacios, saltos de línea
+    // (el $ de Java admite uno al final con find(), no con matches()) y dígitos no ASCII
+    private static final String ALFABETO = "aZ09_-.@@.ñé \n\r+٣";
+
+    private static final int CASOS_ALEATORIOS = 300_000;
+
+    @Test
+    void emailIgualQueLaExpresionOriginal() {
+        String[] casos = {null, "", "@", "a@b.co", "ana@correo.es", "ana.b-c_d@sub.correo.info", "ana@correo.e",
+                "ana@correo.museo", "ana@@correo.es", "@correo.es", "ana@", "ana@correo..es", "ana@.es",
+                "ana@correo", "ana@correo.es.", ".@a.io", "-@-.--", "ana@correo.es\n", "josé@correo.es",
+                "ana@córreo.es", " ana@correo.es", "ana@correo.e_s", "ana@a.b.c.d.es", "ana@correo.123"};
+        for (String email : casos) {
+            comprobarEmail(email);
+        }
+
+        Random aleatorio = new Random(7);
+        for (int i = 0; i < CASOS_ALEATORIOS; i++) {
+            int longitud = aleatorio.nextInt(13);
+            StringBuilder email = new StringBuilder(longitud);
+            for (int j = 0; j < longitud; j++) {
+                email.append(ALFABETO.charAt(aleatorio.nextInt(ALFABETO.length())));
+            }
+            comprobarEmail(email.toString());
+        }
+    }
+
+    @Test
+    void motivoIgualQueLasReglasOriginales() {
+        LocalDate[] dias = {LocalDate.of(2024, 6, 15), LocalDate.of(2022, 2, 28), LocalDate.of(2022, 3, 1),
+                LocalDate.of(2024, 2, 28), LocalDate.of(2024, 2, 29), LocalDate.of(2023, 12, 31), LocalDate.of(2024, 1, 1)};
+        String[] emails = {null, "ana@correo.es", "ana@correo"};
+
+        for (LocalDate hoy : dias) {
+            MotorValidacion motor = new MotorValidacion(hoy);
+            for (String email : emails) {
+                assertEquals(motivoOriginal(email, null, hoy), motor.comprobar(email, null), email + ", sin fecha");
+                // Todos los nacidos entre 19 y 17 años antes de hoy (en 2022, también el 29/02/2004)
+                for (LocalDate nacimiento = hoy.minusYears(19); !nacimiento.isAfter(hoy.minusYears(17));
+                     nacimiento = nacimiento.plusDays(1)) {
+                    assertEquals(motivoOriginal(email, nacimiento, hoy), motor.comprobar(email, nacimiento),
+                            email + ", nacimiento " + nacimiento + ", hoy " + hoy);
+                }
+            }
+        }
+    }
+
+    private static void comprobarEmail(String email) {
+        boolean esperado = email != null && EMAIL_ORIGINAL.matcher(email).matches();
+        assertEquals(esperado, MotorValidacion.validarEmail(email),
+                () -> email == null ? "null" : email.replace("\n", "\\n").replace("\r", "\\r"));
+    }
+
+    private static MotivoRechazo motivoOriginal(String email, LocalDate fechaNacimiento, LocalDate hoy) {
+        if (email == null || !EMAIL_ORIGINAL.matcher(email).matches()) {
+            return MotivoRechazo.EMAIL;
+        }
+        if (fechaNacimiento == null) {
+            return MotivoRechazo.FECHA;
+        }
+        if (Period.between(fechaNacimiento, hoy).getYears() < MotorValidacion.EDAD_MINIMA) {
+            return MotivoRechazo.MENOR;
+        }
+        return null;
+    }
+}
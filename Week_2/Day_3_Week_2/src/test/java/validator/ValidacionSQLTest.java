@@ -0,0 +1,156 @@
+package validator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Comprueba que la expresión SQL de {@link ValidacionSQL} rechaza los mismos usuarios y por el
+ * mismo motivo que {@link MotorValidacion#comprobar(CharSequence, LocalDate)}.
+ *
+ * Se ejecuta en H2 en modo MySQL, cuyo REGEXP usa el motor de expresiones de Java: cubre el
+ * orden de las reglas, los NULL, la fecha límite y el anclaje final de la expresión, no las
+ * diferencias propias de ICU en MySQL 8.
+ */
+class ValidacionSQLTest {
+
+    private static final String SQL_MOTIVOS =
+            "SELECT email, fecha_nacimiento, " + ValidacionSQL.EXPRESION_MOTIVO + " FROM usuarios ORDER BY id";
+
+    private Connection conn;
+
+    @BeforeEach
+    void crearTabla() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:validacion_sql;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE usuarios (id INT PRIMARY KEY, email VARCHAR(100), fecha_nacimiento DATE)");
+        }
+    }
+
+    @AfterEach
+    void cerrar() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void emailsLimite() throws SQLException {
+        LocalDate hoy = LocalDate.of(2024, 6, 15);
+        LocalDate adulto = LocalDate.of(1990, 1, 1);
+
+        insertar("ana@correo.es", adulto);
+        insertar("ana@correo.es\n", adulto);
+        insertar("ana@correo.es\r\n", adulto);
+        insertar("josé@correo.es", adulto);
+        insertar("ana@córreo.es", adulto);
+        insertar("ana.b-c_d@sub.correo.info", adulto);
+        insertar("ana@correo.e", adulto);
+        insertar("ana@correo.museo", adulto);
+        insertar("ana@@correo.es", adulto);
+        insertar("@correo.es", adulto);
+        insertar("ana@", adulto);
+        insertar("ana@correo..es", adulto);
+        insertar("ana@.es", adulto);
+        insertar("ana@correo", adulto);
+        insertar("", adulto);
+        insertar(" ana@correo.es", adulto);
+
+        comprobarIgualQueJava(hoy);
+    }
+
+    @Test
+    void columnasNulas() throws SQLException {
+        LocalDate hoy = LocalDate.of(2024, 6, 15);
+
+        insertar(null, LocalDate.of(1990, 1, 1));
+        insertar("ana@correo.es", null);
+        insertar(null, null);
+        insertar("correo-malo", null);
+
+        List<String> motivos = comprobarIgualQueJava(hoy);
+        assertEquals(MotivoRechazo.EMAIL.getDescripcion(), motivos.get(0));
+        assertEquals(MotivoRechazo.FECHA.getDescripcion(), motivos.get(1));
+        assertEquals(MotivoRechazo.EMAIL.getDescripcion(), motivos.get(2));
+        assertEquals(MotivoRechazo.EMAIL.getDescripcion(), motivos.get(3));
+    }
+
+    @Test
+    void cumpleDieciochoJustoHoy() throws SQLException {
+        LocalDate hoy = LocalDate.of(2024, 6, 15);
+
+        insertar("ana@correo.es", LocalDate.of(2006, 6, 15));
+        insertar("ana@correo.es", LocalDate.of(2006, 6, 16));
+        insertar("ana@correo.es", LocalDate.of(2006, 6, 14));
+
+        List<String> motivos = comprobarIgualQueJava(hoy);
+        assertNull(motivos.get(0));
+        assertEquals(MotivoRechazo.MENOR.getDescripcion(), motivos.get(1));
+        assertNull(motivos.get(2));
+    }
+
+    @Test
+    void nacidosUn29DeFebrero() throws SQLException {
+        LocalDate nacimiento = LocalDate.of(2004, 2, 29);
+        insertar("ana@correo.es", nacimiento);
+        insertar("ana@correo.es", LocalDate.of(2004, 2, 28));
+        insertar("ana@correo.es", LocalDate.of(2004, 3, 1));
+
+        // Año no bisiesto: se cumplen el 1 de marzo; bisiesto: el 29 de febrero
+        for (LocalDate hoy : new LocalDate[]{
+                LocalDate.of(2022, 2, 27), LocalDate.of(2022, 2, 28), LocalDate.of(2022, 3, 1),
+                LocalDate.of(2022, 3, 2), LocalDate.of(2024, 2, 28), LocalDate.of(2024, 2, 29)}) {
+            comprobarIgualQueJava(hoy);
+        }
+        assertEquals(MotivoRechazo.MENOR.getDescripcion(), comprobarIgualQueJava(LocalDate.of(2022, 2, 28)).get(0));
+        assertNull(comprobarIgualQueJava(LocalDate.of(2022, 3, 1)).get(0));
+    }
+
+    private void insertar(String email, LocalDate fechaNacimiento) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO usuarios (id, email, fecha_nacimiento) VALUES ((SELECT COUNT(*) FROM usuarios), ?, ?)")) {
+            stmt.setString(1, email);
+            stmt.setDate(2, fechaNacimiento == null ? null : Date.valueOf(fechaNacimiento));
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Calcula el motivo de cada fila en SQL y en Java y comprueba que coinciden
+     * @return Motivo de cada fila, por orden de inserción (null si es válida)
+     */
+    private List<String> comprobarIgualQueJava(LocalDate hoy) throws SQLException {
+        MotorValidacion motor = new MotorValidacion(hoy);
+        List<String> motivos = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_MOTIVOS)) {
+            ValidacionSQL.establecerParametros(stmt, hoy);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String email = rs.getString(1);
+                    Date fecha = rs.getDate(2);
+                    String motivoSQL = rs.getString(3);
+                    MotivoRechazo motivoJava = motor.comprobar(email, fecha == null ? null : fecha.toLocalDate());
+
+                    assertEquals(motivoJava == null ? null : motivoJava.getDescripcion(), motivoSQL,
+                            "email " + (email == null ? null : email.replace("\n", "\\n").replace("\r", "\\r"))
+                                    + ", nacimiento " + fecha + ", hoy " + hoy);
+                    motivos.add(motivoSQL);
+                }
+            }
+        }
+        return motivos;
+    }
+}
@@ -1,6 +1,8 @@
 package app;
 
 import config.DatabaseConfig;
+import config.MonitorConexiones;
+import config.RegistroPerfiles;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
@@ -9,8 +11,8 @@ import java.sql.SQLException;
 public class DatabaseManager {
     public static Connection conectar(DatabaseConfig config) throws SQLException {
         try {
-            Class.forName(config.getDbDriver());
-        } catch (ClassNotFoundException e) {
+            RegistroPerfiles.registrarDriver(config.getDbDriver());
+        } catch (RuntimeException e) {
             throw new SQLException("Driver JDBC no encontrado", e);
         }
 
@@ -20,7 +22,8 @@ public class DatabaseManager {
                 config.getDbPassword()
         );
         System.out.println("Conexión establecida con: " + config.getDbUrl());
-        return conn;
+        // Registra cuánto tiempo se retiene para detectar conexiones que no se cierran
+        return MonitorConexiones.instrumentar(config.getTipoBD(), conn);
     }
 
     public static void cerrarConexion(Connection conn) {
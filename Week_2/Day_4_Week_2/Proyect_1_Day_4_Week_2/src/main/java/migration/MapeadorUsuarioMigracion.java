@@ -0,0 +1,34 @@
+package migration;
+
+import dao.RowMapper;
+import dao.RowMapperIndexado;
+import model.Usuario;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapeador por posición de la tabla usuarios de origen al {@link Usuario} de la migración
+ */
+public final class MapeadorUsuarioMigracion implements RowMapperIndexado<Usuario> {
+
+    public static final MapeadorUsuarioMigracion INSTANCIA = new MapeadorUsuarioMigracion();
+
+    private MapeadorUsuarioMigracion() {
+    }
+
+    @Override
+    public RowMapper<Usuario> preparar(ResultSet rs) throws SQLException {
+        int id = rs.findColumn("id");
+        int nombre = rs.findColumn("nombre");
+        int email = rs.findColumn("email");
+        int fechaNacimiento = RowMapperIndexado.indiceOpcional(rs, "fecha_nacimiento");
+
+        return fila -> new Usuario(
+                fila.getInt(id),
+                fila.getString(nombre),
+                fila.getString(email),
+                RowMapperIndexado.fecha(fila, fechaNacimiento)
+        );
+    }
+}
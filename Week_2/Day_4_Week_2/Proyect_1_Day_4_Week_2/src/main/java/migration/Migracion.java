@@ -37,12 +37,7 @@ public class Migracion {
             usuariosProcesados = usuarios.size();
 
             // 3. Validar usuarios
-            for (Usuario usuario : usuarios) {
-                validarUsuario(usuario);
-                if (!usuario.isEsValido()) {
-                    usuariosInvalidos++;
-                }
-            }
+            usuariosInvalidos = ValidacionMigracion.validar(usuarios);
 
             // 4. Insertar usuarios válidos en la base de datos destino
             for (Usuario usuario : usuarios) {
@@ -100,16 +95,7 @@ public class Migracion {
             try (Statement stmt = conexion.createStatement();
                  ResultSet rs = stmt.executeQuery(sql)) {
 
-                while (rs.next()) {
-                    int id = rs.getInt("id");
-                    String nombre = rs.getString("nombre");
-                    String email = rs.getString("email");
-                    LocalDate fechaNacimiento = rs.getDate("fecha_nacimiento") != null ?
-                            rs.getDate("fecha_nacimiento").toLocalDate() : null;
-
-                    Usuario usuario = new Usuario(id, nombre, email, fechaNacimiento);
-                    usuarios.add(usuario);
-                }
+                usuarios.addAll(MapeadorUsuarioMigracion.INSTANCIA.mapearTodas(rs));
             }
 
             System.out.println("Se obtuvieron " + usuarios.size() + " usuarios de la base de datos origen");
@@ -139,35 +125,6 @@ public class Migracion {
         System.out.println("Se crearon " + usuarios.size() + " usuarios de prueba");
     }
 
-    /**
-     * Valida un usuario según las reglas de negocio
-     */
-    private static void validarUsuario(Usuario usuario) {
-        // Validación de nombre no vacío
-        if (usuario.getNombre() == null || usuario.getNombre().trim().isEmpty()) {
-            usuario.setEsValido(false);
-            usuario.setMensajeError("Nombre no válido");
-            System.out.println("Usuario ID " + usuario.getId() + " inválido: Nombre no válido");
-            return;
-        }
-
-        // Validación de email no vacío y con formato adecuado (simplificado)
-        if (usuario.getEmail() == null || usuario.getEmail().trim().isEmpty() || !usuario.getEmail().contains("@")) {
-            usuario.setEsValido(false);
-            usuario.setMensajeError("Email no válido");
-            System.out.println("Usuario ID " + usuario.getId() + " inválido: Email no válido");
-            return;
-        }
-
-        // Validación de fecha de nacimiento no nula
-        if (usuario.getFechaNacimiento() == null) {
-            usuario.setEsValido(false);
-            usuario.setMensajeError("Fecha de nacimiento no válida");
-            System.out.println("Usuario ID " + usuario.getId() + " inválido: Fecha de nacimiento no válida");
-            return;
-        }
-    }
-
     /**
      * Inserta un usuario en la base de datos destino
      */
@@ -3,7 +3,6 @@ import config.DatabaseConnection;
 import model.Usuario;
 
 import java.sql.*;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -41,14 +40,7 @@ public class MigracionCompleta {
             usuariosProcesados = usuarios.size();
 
             // 3. Validar usuarios según reglas de negocio
-            validarUsuarios(usuarios);
-
-            // Contar usuarios inválidos
-            for (Usuario usuario : usuarios) {
-                if (!usuario.isEsValido()) {
-                    usuariosInvalidos++;
-                }
-            }
+            usuariosInvalidos = validarUsuarios(usuarios);
 
             // 4. Insertar usuarios válidos en la base de datos destino
             for (Usuario usuario : usuarios) {
@@ -104,16 +96,7 @@ public class MigracionCompleta {
         try (Statement stmt = conexion.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                String nombre = rs.getString("nombre");
-                String email = rs.getString("email");
-                LocalDate fechaNacimiento = rs.getDate("fecha_nacimiento") != null ?
-                        rs.getDate("fecha_nacimiento").toLocalDate() : null;
-
-                Usuario usuario = new Usuario(id, nombre, email, fechaNacimiento);
-                usuarios.add(usuario);
-            }
+            usuarios.addAll(MapeadorUsuarioMigracion.INSTANCIA.mapearTodas(rs));
         } catch (SQLException e) {
             System.err.println("Error al obtener usuarios de origen: " + e.getMessage());
             throw e;
@@ -125,42 +108,13 @@ public class MigracionCompleta {
 
     /**
      * Valida todos los usuarios según las reglas de negocio
+     * @return Número de usuarios inválidos
      */
-    private static void validarUsuarios(List<Usuario> usuarios) {
-        for (Usuario usuario : usuarios) {
-            validarUsuario(usuario);
-        }
+    private static int validarUsuarios(List<Usuario> usuarios) {
+        int invalidos = ValidacionMigracion.validar(usuarios);
 
         System.out.println("Validación de usuarios completada");
-    }
-
-    /**
-     * Valida un usuario según las reglas de negocio
-     */
-    private static void validarUsuario(Usuario usuario) {
-        // Validación de nombre no vacío
-        if (usuario.getNombre() == null || usuario.getNombre().trim().isEmpty()) {
-            usuario.setEsValido(false);
-            usuario.setMensajeError("Nombre no válido");
-            System.out.println("Usuario ID " + usuario.getId() + " inválido: Nombre no válido");
-            return;
-        }
-
-        // Validación de email no vacío y con formato adecuado (simplificado)
-        if (usuario.getEmail() == null || usuario.getEmail().trim().isEmpty() || !usuario.getEmail().contains("@")) {
-            usuario.setEsValido(false);
-            usuario.setMensajeError("Email no válido");
-            System.out.println("Usuario ID " + usuario.getId() + " inválido: Email no válido");
-            return;
-        }
-
-        // Validación de fecha de nacimiento no nula
-        if (usuario.getFechaNacimiento() == null) {
-            usuario.setEsValido(false);
-            usuario.setMensajeError("Fecha de nacimiento no válida");
-            System.out.println("Usuario ID " + usuario.getId() + " inválido: Fecha de nacimiento no válida");
-            return;
-        }
+        return invalidos;
     }
 
     /**
@@ -36,12 +36,7 @@ public class SimulacionMigracion {
             usuariosProcesados = usuarios.size();
 
             // 3. Validar usuarios
-            for (Usuario usuario : usuarios) {
-                validarUsuario(usuario);
-                if (!usuario.isEsValido()) {
-                    usuariosInvalidos++;
-                }
-            }
+            usuariosInvalidos = ValidacionMigracion.validar(usuarios);
 
             // 4. Insertar primero algunos usuarios que luego serán duplicados
             // Esto simula que ya existen en la base de datos
@@ -141,35 +136,6 @@ public class SimulacionMigracion {
         }
     }
 
-    /**
-     * Valida un usuario según las reglas de negocio
-     */
-    private static void validarUsuario(Usuario usuario) {
-        // Validación de nombre no vacío
-        if (usuario.getNombre() == null || usuario.getNombre().trim().isEmpty()) {
-            usuario.setEsValido(false);
-            usuario.setMensajeError("Nombre no válido");
-            System.out.println("Usuario ID " + usuario.getId() + " inválido: Nombre no válido");
-            return;
-        }
-
-        // Validación de email no vacío y con formato adecuado (simplificado)
-        if (usuario.getEmail() == null || usuario.getEmail().trim().isEmpty() || !usuario.getEmail().contains("@")) {
-            usuario.setEsValido(false);
-            usuario.setMensajeError("Email no válido");
-            System.out.println("Usuario ID " + usuario.getId() + " inválido: Email no válido");
-            return;
-        }
-
-        // Validación de fecha de nacimiento no nula
-        if (usuario.getFechaNacimiento() == null) {
-            usuario.setEsValido(false);
-            usuario.setMensajeError("Fecha de nacimiento no válida");
-            System.out.println("Usuario ID " + usuario.getId() + " inválido: Fecha de nacimiento no válida");
-            return;
-        }
-    }
-
     /**
      * Inserta un usuario en la base de datos destino
      */
@@ -0,0 +1,83 @@
+package migration;
+
+import model.Usuario;
+import validator.ColumnasUsuarios;
+import validator.MotivoRechazo;
+import validator.ResultadoColumnar;
+import validator.ValidadorColumnar;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reglas de negocio de la migración (nombre y email no vacíos, email con @ y fecha de
+ * nacimiento obligatoria), aplicadas a todos los usuarios a la vez con {@link ValidadorColumnar}
+ */
+final class ValidacionMigracion {
+
+    /** Mismas comprobaciones, en el mismo orden, que cada migración hacía usuario a usuario */
+    static final ValidadorColumnar.Regla REGLA = (nombre, email, diaNacimiento) -> {
+        if (esBlanco(nombre)) {
+            return MotivoRechazo.NOMBRE;
+        }
+        if (esBlanco(email) || email.indexOf('@') < 0) {
+            return MotivoRechazo.EMAIL;
+        }
+        if (diaNacimiento == ValidadorColumnar.SIN_FECHA) {
+            return MotivoRechazo.FECHA;
+        }
+        return null;
+    };
+
+    private static final ValidadorColumnar VALIDADOR = new ValidadorColumnar(REGLA, ForkJoinPool.commonPool());
+
+    private ValidacionMigracion() {
+    }
+
+    /**
+     * Valida los usuarios y marca los inválidos con setEsValido(false) y su mensaje de error
+     * @param usuarios Usuarios a validar
+     * @return Número de usuarios inválidos
+     */
+    static int validar(List<Usuario> usuarios) {
+        ColumnasUsuarios columnas = new ColumnasUsuarios(true, usuarios.size());
+        for (Usuario usuario : usuarios) {
+            columnas.agregar(usuario.getId(), usuario.getNombre(), usuario.getEmail(), usuario.getFechaNacimiento());
+        }
+        ResultadoColumnar resultado = VALIDADOR.validar(columnas);
+
+        for (int fila = resultado.getValidos().nextClearBit(0); fila < usuarios.size();
+             fila = resultado.getValidos().nextClearBit(fila + 1)) {
+            Usuario usuario = usuarios.get(fila);
+            String mensaje = mensaje(resultado.getMotivo(fila));
+            usuario.setEsValido(false);
+            usuario.setMensajeError(mensaje);
+            System.out.println("Usuario ID " + usuario.getId() + " inválido: " + mensaje);
+        }
+        return resultado.getNumeroInvalidos();
+    }
+
+    private static String mensaje(MotivoRechazo motivo) {
+        switch (motivo) {
+            case NOMBRE:
+                return "Nombre no válido";
+            case EMAIL:
+                return "Email no válido";
+            default:
+                return motivo.getDescripcion();
+        }
+    }
+
+    // Equivale a texto == null || texto.trim().isEmpty() sin crear el String recortado
+    private static boolean esBlanco(String texto) {
+        if (texto == null) {
+            return true;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
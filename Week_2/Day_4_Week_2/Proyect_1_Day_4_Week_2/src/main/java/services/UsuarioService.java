@@ -1,5 +1,6 @@
 package services;
 
+import dao.MapeadorUsuarioDay2;
 import model.UsuarioDay_2;
 
 import java.sql.*;
@@ -27,19 +28,7 @@ public class UsuarioService {
         try (PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
 
-            while (rs.next()) {
-                UsuarioDay_2 usuario = new UsuarioDay_2();
-                usuario.setId(rs.getInt("id"));
-                usuario.setNombre(rs.getString("nombre"));
-                usuario.setEmail(rs.getString("email"));
-
-                java.sql.Date fechaSql = rs.getDate("fecha_nacimiento");
-                if (fechaSql != null) {
-                    usuario.setFechaNacimiento(fechaSql.toLocalDate());
-                }
-
-                usuarios.add(usuario);
-            }
+            usuarios.addAll(MapeadorUsuarioDay2.INSTANCIA.mapearTodas(rs));
         }
 
         return usuarios;
@@ -100,15 +89,7 @@ public class UsuarioService {
         try (Statement stmt = connOrigen.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
-            while (rs.next()) {
-                usuarios.add(new UsuarioOracle(
-                        rs.getInt("ID"),
-                        rs.getString("NOMBRE"),
-                        rs.getString("APELLIDO1"),
-                        rs.getString("APELLIDO2"),
-                        rs.getString("DNI")
-                ));
-            }
+            usuarios.addAll(MapeadorUsuarioOracle.INSTANCIA.mapearTodas(rs));
         } catch (SQLException e) {
             System.err.println("Error al consultar usuarios de Oracle: " + e.getMessage());
             throw e;
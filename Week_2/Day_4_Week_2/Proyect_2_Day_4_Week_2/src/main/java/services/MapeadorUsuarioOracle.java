@@ -0,0 +1,44 @@
+package services;
+
+import dao.RowMapper;
+import dao.RowMapperIndexado;
+import model.UsuarioOracle;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapeador por posición de CIMDATA.USUARIOS_TEST a {@link UsuarioOracle}.
+ * TIPO_DOCUMENTO es opcional: solo se asigna si la consulta lo incluye.
+ */
+public final class MapeadorUsuarioOracle implements RowMapperIndexado<UsuarioOracle> {
+
+    public static final MapeadorUsuarioOracle INSTANCIA = new MapeadorUsuarioOracle();
+
+    private MapeadorUsuarioOracle() {
+    }
+
+    @Override
+    public RowMapper<UsuarioOracle> preparar(ResultSet rs) throws SQLException {
+        int id = rs.findColumn("ID");
+        int nombre = rs.findColumn("NOMBRE");
+        int apellido1 = rs.findColumn("APELLIDO1");
+        int apellido2 = rs.findColumn("APELLIDO2");
+        int dni = rs.findColumn("DNI");
+        int tipoDocumento = RowMapperIndexado.indiceOpcional(rs, "TIPO_DOCUMENTO");
+
+        return fila -> {
+            UsuarioOracle usuario = new UsuarioOracle(
+                    fila.getInt(id),
+                    fila.getString(nombre),
+                    fila.getString(apellido1),
+                    fila.getString(apellido2),
+                    fila.getString(dni)
+            );
+            if (tipoDocumento != 0) {
+                usuario.setTipoDocumento(fila.getString(tipoDocumento));
+            }
+            return usuario;
+        };
+    }
+}
@@ -1,10 +1,10 @@
 package services;
 
+import dao.MapeadorUsuarioDay2;
 import model.UsuarioDay_2;
 import model.UsuarioOracle;
 
 import java.sql.*;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,15 +19,7 @@ public class UsuarioService {
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
-            while (rs.next()) {
-                usuarios.add(new UsuarioOracle(
-                        rs.getInt("ID"),
-                        rs.getString("NOMBRE"),
-                        rs.getString("APELLIDO1"),
-                        rs.getString("APELLIDO2"),
-                        rs.getString("DNI")
-                ));
-            }
+            usuarios.addAll(MapeadorUsuarioOracle.INSTANCIA.mapearTodas(rs));
         } catch (SQLException e) {
             System.err.println("Error al consultar usuarios de Oracle: " + e.getMessage());
             throw e;
@@ -51,17 +43,7 @@ public class UsuarioService {
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                String nombre = rs.getString("nombre");
-                String email = rs.getString("email");
-                Date fechaNacimiento = rs.getDate("fecha_nacimiento");
-                String tipoDocumento = rs.getString("tipo_documento");
-
-                LocalDate fechaNacimientoLocal = fechaNacimiento != null ? fechaNacimiento.toLocalDate() : null;
-
-                usuarios.add(new UsuarioDay_2(id, nombre, email, fechaNacimientoLocal, tipoDocumento));
-            }
+            usuarios.addAll(MapeadorUsuarioDay2.INSTANCIA.mapearTodas(rs));
         }
 
         System.out.println("Usuarios obtenidos de MySQL: " + usuarios.size());
@@ -4,6 +4,8 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import config.DatabaseConfig;
+import config.MonitorConexiones;
+import config.RegistroPerfiles;
 
 public class DatabaseManager extends DatabaseConfig {
 
@@ -13,11 +15,12 @@ public class DatabaseManager extends DatabaseConfig {
 
     public Connection obtenerConexion() throws SQLException {
         try {
-            Class.forName(getDbDriver());
-            return DriverManager.getConnection(getDbUrl(), getDbUser(), getDbPassword());
-        } catch (ClassNotFoundException e) {
+            RegistroPerfiles.registrarDriver(getDbDriver());
+        } catch (RuntimeException e) {
             throw new SQLException("Driver no encontrado", e);
         }
+        return MonitorConexiones.instrumentar(getTipoBD(),
+                DriverManager.getConnection(getDbUrl(), getDbUser(), getDbPassword()));
     }
 
     public static DatabaseManager crearConexion(String tipoBD) {